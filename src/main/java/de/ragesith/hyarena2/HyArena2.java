@@ -5,6 +5,7 @@ import com.hypixel.hytale.component.Store;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.event.events.player.PlayerChatEvent;
+import com.hypixel.hytale.server.core.event.events.player.PlayerConnectEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerDisconnectEvent;
 import com.hypixel.hytale.server.core.event.events.player.PlayerReadyEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
@@ -17,18 +18,22 @@ import de.ragesith.hyarena2.arena.ArenaConfig;
 import de.ragesith.hyarena2.arena.KillDetectionSystem;
 import de.ragesith.hyarena2.arena.MatchManager;
 import de.ragesith.hyarena2.economy.EconomyConfig;
+import de.ragesith.hyarena2.economy.EconomyLedger;
 import de.ragesith.hyarena2.economy.EconomyManager;
 import de.ragesith.hyarena2.economy.HonorManager;
 import de.ragesith.hyarena2.economy.PlayerDataManager;
+import de.ragesith.hyarena2.economy.PlayerEconomyData;
 import de.ragesith.hyarena2.boundary.BoundaryManager;
 import de.ragesith.hyarena2.command.AdminCommand;
 import de.ragesith.hyarena2.command.AdminPlayCommand;
 import de.ragesith.hyarena2.command.ApGiveCommand;
 import de.ragesith.hyarena2.command.ArenaCommand;
 import de.ragesith.hyarena2.command.DebugCommand;
+import de.ragesith.hyarena2.command.DataExportCommand;
 import de.ragesith.hyarena2.command.BuildCommand;
 import de.ragesith.hyarena2.command.BugCommand;
 import de.ragesith.hyarena2.command.LinkCommand;
+import de.ragesith.hyarena2.command.SnapshotCommand;
 import de.ragesith.hyarena2.command.WelcomeCommand;
 import de.ragesith.hyarena2.debug.DebugViewManager;
 import de.ragesith.hyarena2.command.testing.TestMatchArenasCommand;
@@ -71,8 +76,13 @@ import de.ragesith.hyarena2.queue.Matchmaker;
 import de.ragesith.hyarena2.queue.QueueManager;
 import de.ragesith.hyarena2.shop.ShopConfig;
 import de.ragesith.hyarena2.shop.ShopManager;
+import de.ragesith.hyarena2.stats.LocalStatsStore;
+import de.ragesith.hyarena2.stats.MatchOutbox;
 import de.ragesith.hyarena2.stats.StatsConfig;
 import de.ragesith.hyarena2.stats.StatsManager;
+import de.ragesith.hyarena2.storage.DataStore;
+import de.ragesith.hyarena2.storage.DataStores;
+import de.ragesith.hyarena2.storage.SnapshotManager;
 import de.ragesith.hyarena2.api.ApiClient;
 import de.ragesith.hyarena2.ui.hud.HudManager;
 import de.ragesith.hyarena2.utils.ArenaCleanupUtil;
@@ -109,6 +119,8 @@ public class HyArena2 extends JavaPlugin {
     private QueueManager queueManager;
     private Matchmaker matchmaker;
     private HudManager hudManager;
+    private DataStore dataStore;
+    private SnapshotManager snapshotManager;
     private PlayerDataManager playerDataManager;
     private EconomyManager economyManager;
     private HonorManager honorManager;
@@ -144,6 +156,7 @@ public class HyArena2 extends JavaPlugin {
 
         // Initialize event bus
         this.eventBus = new EventBus();
+        this.eventBus.setSlowHandlerThresholdMs(configManager.getGlobalConfig().getSlowEventHandlerThresholdMs());
 
         // Initialize hub manager
         this.hubManager = new HubManager(configManager.getHubConfig());
@@ -174,9 +187,16 @@ public class HyArena2 extends JavaPlugin {
         this.matchManager.setBotManager(botManager);
         System.out.println("[HyArena2] BotManager initialized");
 
+        // Snapshots of the data folders; a restore scheduled with /hysnapshot is applied before anything is loaded
+        this.snapshotManager = new SnapshotManager(configManager);
+        snapshotManager.applyPendingRestore();
+
+        // Open player data storage (runs a pending backend migration first)
+        this.dataStore = DataStores.openConfigured(configManager);
+
         // Initialize SpeedRun PB manager
         de.ragesith.hyarena2.gamemode.SpeedRunPBManager pbManager =
-            new de.ragesith.hyarena2.gamemode.SpeedRunPBManager(configManager.getConfigRoot());
+            new de.ragesith.hyarena2.gamemode.SpeedRunPBManager(dataStore);
         this.matchManager.setSpeedRunPBManager(pbManager);
 
         // Initialize kill detection system
@@ -236,9 +256,10 @@ public class HyArena2 extends JavaPlugin {
             System.out.println("[HyArena2] Created default economy.json");
         }
 
-        this.playerDataManager = new PlayerDataManager(configManager.getConfigRoot());
-        this.economyManager = new EconomyManager(economyConfig, playerDataManager, eventBus);
-        this.honorManager = new HonorManager(economyConfig, playerDataManager, eventBus);
+        this.playerDataManager = new PlayerDataManager(configManager.getConfigRoot(), dataStore);
+        EconomyLedger ledger = new EconomyLedger(playerDataManager);
+        this.economyManager = new EconomyManager(economyConfig, playerDataManager, ledger, eventBus);
+        this.honorManager = new HonorManager(economyConfig, playerDataManager, ledger, eventBus);
         this.economyManager.setHonorManager(honorManager);
         this.economyManager.subscribeToEvents();
         this.matchManager.setEconomyManagerForModes(economyManager);
@@ -259,8 +280,10 @@ public class HyArena2 extends JavaPlugin {
             configManager.saveConfig("stats.json", statsConfig);
             System.out.println("[HyArena2] Created default stats.json");
         }
-        this.apiClient = new ApiClient(statsConfig.getBaseUrl(), statsConfig.getApiKey());
-        this.statsManager = new StatsManager(statsConfig, apiClient, eventBus, matchManager, kitManager, economyManager, honorManager);
+        this.apiClient = new ApiClient(statsConfig.getBaseUrl(), statsConfig.getApiKey(),
+            statsConfig.getApiThreads(), statsConfig.isApiBatching(), statsConfig.isApiCompression());
+        this.statsManager = new StatsManager(statsConfig, apiClient, eventBus, matchManager, kitManager, economyManager, honorManager,
+            new MatchOutbox(configManager.getConfigRoot(), apiClient), new LocalStatsStore(configManager.getConfigRoot()));
         this.statsManager.subscribeToEvents();
         this.statsManager.initSyncScheduler(scheduler);
 
@@ -277,12 +300,14 @@ public class HyArena2 extends JavaPlugin {
         this.getCommandRegistry().registerCommand(new ArenaCommand(this));
         this.getCommandRegistry().registerCommand(new AdminCommand(this));
         this.getCommandRegistry().registerCommand(new LinkCommand(this));
-        this.getCommandRegistry().registerCommand(new DebugCommand(debugViewManager));
+        this.getCommandRegistry().registerCommand(new DebugCommand(debugViewManager, matchManager, eventBus));
         this.getCommandRegistry().registerCommand(new WelcomeCommand(this));
         this.getCommandRegistry().registerCommand(new AdminPlayCommand(scheduler));
         this.getCommandRegistry().registerCommand(new BugCommand(this));
         this.getCommandRegistry().registerCommand(new BuildCommand(hubManager));
         this.getCommandRegistry().registerCommand(new ApGiveCommand(economyManager));
+        this.getCommandRegistry().registerCommand(new DataExportCommand(playerDataManager, pbManager, configManager.getConfigRoot()));
+        this.getCommandRegistry().registerCommand(new SnapshotCommand(snapshotManager));
 
         // Test match commands (Phase 2 testing)
         this.getCommandRegistry().registerCommand(new TestMatchArenasCommand(matchManager));
@@ -334,6 +359,7 @@ public class HyArena2 extends JavaPlugin {
         System.out.println("[HyArena2] Custom interactions registered");
 
         // Register Hytale events
+        this.getEventRegistry().registerGlobal(PlayerConnectEvent.class, this::onPlayerConnect);
         this.getEventRegistry().registerGlobal(PlayerReadyEvent.class, this::onPlayerReady);
         this.getEventRegistry().registerGlobal(PlayerDisconnectEvent.class, this::onPlayerDisconnect);
         this.getEventRegistry().registerAsyncGlobal(PlayerChatEvent.class, future ->
@@ -394,11 +420,11 @@ public class HyArena2 extends JavaPlugin {
 
         // Bot ticking is now driven by Match.tick() on the arena world thread — no separate scheduler needed.
 
-        // Honor decay tick every 60 seconds
+        // Honor rank drops from decay, checked every 60 seconds (decay itself is computed on read)
         if (honorManager != null) {
             scheduler.scheduleAtFixedRate(() -> {
                 try {
-                    honorManager.tickDecay();
+                    honorManager.processRankDrops();
                 } catch (Exception e) {
                     System.err.println("[HyArena2] Error in honor decay tick: " + e.getMessage());
                 }
@@ -427,6 +453,15 @@ public class HyArena2 extends JavaPlugin {
             }, 5, 5, TimeUnit.MINUTES);
         }
 
+        // Data snapshots (the snapshot itself runs on its own throttled thread)
+        if (snapshotManager != null && snapshotManager.getConfig().isEnabled()) {
+            int snapshotIntervalMinutes = Math.max(1, snapshotManager.getConfig().getIntervalMinutes());
+            scheduler.scheduleAtFixedRate(() -> snapshotManager.snapshotAsync().exceptionally(e -> {
+                System.err.println("[HyArena2] Error in scheduled snapshot: " + e.getMessage());
+                return null;
+            }), snapshotIntervalMinutes, snapshotIntervalMinutes, TimeUnit.MINUTES);
+        }
+
         // Debug view tick every 1.5 seconds
         if (debugViewManager != null) {
             scheduler.scheduleAtFixedRate(() -> {
@@ -438,7 +473,7 @@ public class HyArena2 extends JavaPlugin {
             }, 1500, 1500, TimeUnit.MILLISECONDS);
         }
 
-        System.out.println("[HyArena2] Scheduled tasks started (boundary check every " + boundaryCheckIntervalMs + "ms, matchmaker every 1s, honor decay every 60s, auto-save every 5min)");
+        System.out.println("[HyArena2] Scheduled tasks started (boundary check every " + boundaryCheckIntervalMs + "ms, matchmaker every 1s, honor rank drops every 60s, auto-save every 5min)");
     }
 
     /**
@@ -452,14 +487,25 @@ public class HyArena2 extends JavaPlugin {
             hubManager.despawnHubHolograms();
         }
 
+        // Drain the event bus first so queued deliveries still reach stats, API and storage
+        if (eventBus != null) {
+            eventBus.shutdown();
+        }
+
         // Flush remaining dirty economy data to web API before saving locally
         if (statsManager != null) {
             statsManager.shutdown();
         }
+        if (apiClient != null) {
+            apiClient.shutdown();
+        }
 
         if (economyManager != null) {
             economyManager.saveAll();
         }
+        if (playerDataManager != null) {
+            playerDataManager.shutdown();
+        }
 
         if (hudManager != null) {
             hudManager.shutdown();
@@ -469,12 +515,16 @@ public class HyArena2 extends JavaPlugin {
             matchManager.shutdown();
         }
 
-        if (scheduler != null) {
-            scheduler.shutdown();
+        if (snapshotManager != null) {
+            snapshotManager.shutdown();
         }
 
-        if (eventBus != null) {
-            eventBus.shutdown();
+        if (dataStore != null) {
+            dataStore.close();
+        }
+
+        if (scheduler != null) {
+            scheduler.shutdown();
         }
 
         System.out.println("[HyArena2] Cleanup complete.");
@@ -564,6 +614,17 @@ public class HyArena2 extends JavaPlugin {
 
     // ========== Event Handlers ==========
 
+    /**
+     * Called when a player connects, before they are added to a world.
+     * Starts loading their economy data so it is ready by the time they join the hub.
+     */
+    private void onPlayerConnect(PlayerConnectEvent event) {
+        PlayerRef playerRef = event.getPlayerRef();
+        if (economyManager != null) {
+            economyManager.loadPlayer(playerRef.getUuid(), playerRef.getUsername());
+        }
+    }
+
     /**
      * Called when a player is ready (joins or changes worlds).
      */
@@ -628,18 +689,32 @@ public class HyArena2 extends JavaPlugin {
         // Register for boundary checking
         boundaryManager.registerPlayer(playerId, player);
 
-        // Load economy data
+        // Load economy data (usually already prefetched on connect), then catch up honor decay and
+        // cache the chat name color from the updated rank. The load completes on a loader thread,
+        // so hop back to the player's world thread (cachePlayerNameColor must run there).
         if (economyManager != null) {
-            economyManager.loadPlayer(playerId, playerName);
-        }
-        if (honorManager != null) {
-            honorManager.decayHonor(playerId);
-            honorManager.updatePlayerRank(playerId);
+            economyManager.loadPlayer(playerId, playerName)
+                .thenAccept(data -> player.getWorld().execute(() -> {
+                    try {
+                        if (honorManager != null) {
+                            honorManager.decayHonor(playerId);
+                            honorManager.updatePlayerRank(playerId);
+                        }
+                    } catch (Exception e) {
+                        System.err.println("[HyArena2] Failed to update rank for " + playerName + ": " + e.getMessage());
+                    }
+                    chatManager.cachePlayerNameColor(playerId, player);
+                }))
+                .exceptionally(e -> {
+                    System.err.println("[HyArena2] Failed to load economy data for " + playerName + ": " + e.getMessage());
+                    player.getWorld().execute(() -> chatManager.cachePlayerNameColor(playerId, player));
+                    return null;
+                });
+        } else {
+            // Cache name color for chat formatting (must be on world thread)
+            chatManager.cachePlayerNameColor(playerId, player);
         }
 
-        // Cache name color for chat formatting (must be on world thread)
-        chatManager.cachePlayerNameColor(playerId, player);
-
         // Check if player is already in hub world (same-world teleport won't trigger world change event)
         String hubWorldName = configManager.getHubConfig().getEffectiveWorldName();
         boolean alreadyInHub = player.getWorld().getName().equals(hubWorldName);
@@ -666,7 +741,8 @@ public class HyArena2 extends JavaPlugin {
             // Otherwise, LobbyHud will be shown when world change event fires
 
             // Show welcome page (unless player opted out)
-            if (!playerDataManager.getData(playerId).isHideWelcome()) {
+            PlayerEconomyData economyData = playerDataManager.getData(playerId);
+            if (economyData == null || !economyData.isHideWelcome()) {
                 showWelcomePage(playerId, playerName);
             }
         });
@@ -685,9 +761,12 @@ public class HyArena2 extends JavaPlugin {
         vars.put("player_name", playerName);
         vars.put("ap", String.valueOf(economyManager.getArenaPoints(playerId)));
         vars.put("rank", honorManager.getRankDisplayName(playerId));
-        boolean currentHideWelcome = playerDataManager.getData(playerId).isHideWelcome();
+        PlayerEconomyData economyData = playerDataManager.getData(playerId);
+        boolean currentHideWelcome = economyData != null && economyData.isHideWelcome();
         hudManager.showHyMLPage(playerId, "welcome.hyml", vars, "hide_welcome", currentHideWelcome, (uuid, cbId, value) -> {
-            playerDataManager.getData(uuid).setHideWelcome(value);
+            PlayerEconomyData data = playerDataManager.getData(uuid);
+            if (data == null) return;
+            data.setHideWelcome(value);
             playerDataManager.save(uuid);
         });
     }
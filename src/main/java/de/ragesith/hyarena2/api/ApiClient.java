@@ -1,75 +1,530 @@
 package de.ragesith.hyarena2.api;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import javax.net.ssl.SSLSession;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Lightweight async HTTP client for the HyArena web API.
  * Uses JDK built-in java.net.http.HttpClient — no external dependencies.
+ *
+ * <p>Transport: prefers HTTP/2 over https (one multiplexed connection to the web host; plain http
+ * stays on HTTP/1.1 to skip the h2c upgrade round trip), gzips request bodies
+ * above {@link #COMPRESS_MIN_BYTES} and accepts gzip responses, and runs response handling on its
+ * own small daemon pool instead of the common pool.
+ *
+ * <p>Batching: {@link #postBatched} calls made within {@link #BATCH_LINGER_MS} of each other are sent
+ * as one POST to /api/batch, and {@link #postBatch} sends a prepared list in one request. Each
+ * caller still gets its own response. With batching disabled both fall back to one request per call.
+ *
+ * <p>Health: every endpoint group ("match", "leaderboard", "batch", ...) has a {@link CircuitBreaker}
+ * with an adaptive timeout. While a group's circuit is open, calls complete immediately with an
+ * {@link ApiResult} saying so instead of waiting on a dead host.
+ *
+ * <p>Connection pooling uses the JDK defaults. These are JVM-wide, so the client doesn't set them;
+ * tune them with server launch flags if needed, e.g. {@code -Djdk.httpclient.keepalive.timeout=120}
+ * and {@code -Djdk.httpclient.connectionPoolSize=8}.
  */
 public class ApiClient {
+    private static final String BATCH_PATH = "/api/batch";
+
+    // Transport tuning
+    private static final int COMPRESS_MIN_BYTES = 1024;
+    private static final long SHUTDOWN_WAIT_MS = 5000;
+
+    // Batching
+    private static final long BATCH_LINGER_MS = 250;
+    private static final int MAX_BATCH_SIZE = 32;
+
+    private static final HttpResponse.BodyHandler<String> BODY_HANDLER = info -> {
+        boolean gzip = info.headers().firstValue("Content-Encoding")
+            .map(v -> v.equalsIgnoreCase("gzip")).orElse(false);
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(),
+            bytes -> new String(gzip ? gunzip(bytes) : bytes, StandardCharsets.UTF_8));
+    };
+
     private final String baseUrl;
     private final String apiKey;
+    private final boolean batching;
+    private final boolean compression;
+    private final ExecutorService executor;
     private final HttpClient httpClient;
 
+    // Requests sent but not answered yet, so shutdown() can wait for them
+    private final Set<CompletableFuture<ApiResult>> inFlight = ConcurrentHashMap.newKeySet();
+
+    // One breaker per endpoint group
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    // Pending postBatched() calls, sent together after the linger window (guarded by this)
+    private final ScheduledExecutorService batchScheduler;
+    private List<PendingCall> pendingBatch = new ArrayList<>();
+
     public ApiClient(String baseUrl, String apiKey) {
+        this(baseUrl, apiKey, 4, true, true);
+    }
+
+    /**
+     * @param threads     size of the pool that runs request and response handling
+     * @param batching    send postBatched()/postBatch() calls through /api/batch
+     * @param compression gzip large request bodies
+     */
+    public ApiClient(String baseUrl, String apiKey, int threads, boolean batching, boolean compression) {
         // Strip trailing slash
         this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
         this.apiKey = apiKey;
+        this.batching = batching;
+        this.compression = compression;
+
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), daemonThreads("HyArena2-Api"));
+        this.batchScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("HyArena2-ApiBatch"));
         this.httpClient = HttpClient.newBuilder()
+            .version(this.baseUrl.startsWith("https") ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
             .connectTimeout(Duration.ofSeconds(10))
+            .executor(executor)
             .build();
     }
 
     /**
      * Sends an async POST request with JSON body.
      * Never blocks the calling thread. Errors are logged, never thrown.
+     *
+     * @return the response, or null if the request failed or its circuit is open
      */
     public CompletableFuture<HttpResponse<String>> postAsync(String path, String jsonBody) {
-        String url = baseUrl + path;
-
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(url))
-            .timeout(Duration.ofSeconds(30))
-            .header("Content-Type", "application/json")
-            .header("X-API-Key", apiKey)
-            .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-            .build();
+        return post(path, jsonBody, null).thenApply(ApiResult::getResponse);
+    }
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-            .exceptionally(ex -> {
-                System.err.println("[ApiClient] POST " + path + " failed: " + ex.getMessage());
-                return null;
-            });
+    /**
+     * Sends an async POST request with JSON body and an Idempotency-Key header, so the backend
+     * can recognise a retried request it has already processed.
+     * Never blocks the calling thread. Errors are logged, never thrown.
+     *
+     * @param idempotencyKey stable key for this logical request, or null for none
+     * @return the response, or null if the request failed or its circuit is open
+     */
+    public CompletableFuture<HttpResponse<String>> postAsync(String path, String jsonBody, String idempotencyKey) {
+        return post(path, jsonBody, idempotencyKey).thenApply(ApiResult::getResponse);
     }
 
     /**
      * Sends an async GET request.
      * Never blocks the calling thread. Errors are logged, never thrown.
+     *
+     * @return the response, or null if the request failed or its circuit is open
      */
     public CompletableFuture<HttpResponse<String>> getAsync(String path) {
-        String url = baseUrl + path;
+        return get(path).thenApply(ApiResult::getResponse);
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-            .uri(URI.create(url))
-            .timeout(Duration.ofSeconds(30))
+    /**
+     * Sends an async POST request and reports how it went.
+     * Completes immediately with {@link ApiResult.Outcome#CIRCUIT_OPEN} while the endpoint group is failing.
+     *
+     * @param idempotencyKey stable key for this logical request, or null for none
+     */
+    public CompletableFuture<ApiResult> post(String path, String jsonBody, String idempotencyKey) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+            .uri(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .header("Accept-Encoding", "gzip")
+            .header("X-API-Key", apiKey);
+        if (idempotencyKey != null) {
+            builder.header("Idempotency-Key", idempotencyKey);
+        }
+        builder.POST(bodyPublisher(builder, jsonBody));
+        return send("POST", path, builder);
+    }
+
+    /**
+     * Sends an async GET request and reports how it went.
+     * Completes immediately with {@link ApiResult.Outcome#CIRCUIT_OPEN} while the endpoint group is failing.
+     */
+    public CompletableFuture<ApiResult> get(String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+            .uri(URI.create(baseUrl + path))
             .header("Accept", "application/json")
+            .header("Accept-Encoding", "gzip")
             .header("X-API-Key", apiKey)
-            .GET()
-            .build();
+            .GET();
+        return send("GET", path, builder);
+    }
+
+    private CompletableFuture<ApiResult> send(String method, String path, HttpRequest.Builder builder) {
+        CircuitBreaker breaker = getCircuitBreaker(path);
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.completedFuture(ApiResult.circuitOpen());
+        }
+
+        HttpRequest request = builder.timeout(breaker.getTimeout()).build();
+        long start = System.nanoTime();
+        CompletableFuture<ApiResult> future = httpClient.sendAsync(request, BODY_HANDLER)
+            .handle((response, ex) -> {
+                if (ex != null) {
+                    System.err.println("[ApiClient] " + method + " " + path + " failed: " + ex.getMessage());
+                    breaker.onFailure();
+                    return ApiResult.failed(null);
+                }
+                int status = response.statusCode();
+                if (status >= 500 || status == 429) {
+                    breaker.onFailure();
+                    return ApiResult.failed(response);
+                }
+                breaker.onSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return ApiResult.responded(response);
+            });
+        inFlight.add(future);
+        future.whenComplete((result, ex) -> inFlight.remove(future));
+        return future;
+    }
+
+    // ========== Circuit Breakers ==========
+
+    /**
+     * Gets the circuit breaker for a path's endpoint group: the first segment after /api/
+     * (e.g. "/api/leaderboard?sort=..." belongs to "leaderboard").
+     */
+    public CircuitBreaker getCircuitBreaker(String path) {
+        return breakers.computeIfAbsent(endpointGroup(path), CircuitBreaker::new);
+    }
+
+    public Collection<CircuitBreaker> getCircuitBreakers() {
+        return breakers.values();
+    }
+
+    private static String endpointGroup(String path) {
+        String p = path.startsWith("/api/") ? path.substring(5) : path;
+        int end = p.length();
+        for (char c : new char[] {'/', '?'}) {
+            int i = p.indexOf(c);
+            if (i >= 0 && i < end) end = i;
+        }
+        return p.substring(0, end);
+    }
+
+    // ========== Batching ==========
+
+    /**
+     * Queues a POST to be sent with any other postBatched() calls made within the linger window.
+     * Completes with this call's own result (status and body from the batch result).
+     */
+    public CompletableFuture<ApiResult> postBatched(String path, String jsonBody) {
+        if (!batching) {
+            return post(path, jsonBody, null);
+        }
+        PendingCall call = new PendingCall(new BatchItem(path, jsonBody, null));
+        List<PendingCall> full = null;
+        synchronized (this) {
+            pendingBatch.add(call);
+            if (pendingBatch.size() >= MAX_BATCH_SIZE || batchScheduler.isShutdown()) {
+                full = pendingBatch;
+                pendingBatch = new ArrayList<>();
+            } else if (pendingBatch.size() == 1) {
+                batchScheduler.schedule(this::flushBatch, BATCH_LINGER_MS, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            sendPending(full);
+        }
+        return call.future;
+    }
+
+    /**
+     * Sends prepared requests as a single POST to /api/batch. The backend handles them in order;
+     * with {@code stopOnError}, items after the first failure are not attempted and come back
+     * as HTTP 424.
+     *
+     * <p>If the backend has no batch endpoint (404/405, e.g. mid-deploy) the items are sent one by
+     * one instead. Any other failure of the batch request as a whole says nothing about the items,
+     * so each of them gets a retryable {@link ApiResult.Outcome#FAILED} result with status -1.
+     *
+     * @return one result per item in request order
+     */
+    public CompletableFuture<List<ApiResult>> postBatch(List<BatchItem> items, boolean stopOnError) {
+        if (!batching) {
+            return postSequentially(items, stopOnError);
+        }
+
+        JsonArray requests = new JsonArray();
+        for (BatchItem item : items) {
+            JsonObject r = new JsonObject();
+            r.addProperty("path", item.path());
+            r.add("body", JsonParser.parseString(item.jsonBody()));
+            if (item.idempotencyKey() != null) {
+                r.addProperty("idempotency_key", item.idempotencyKey());
+            }
+            requests.add(r);
+        }
+        JsonObject payload = new JsonObject();
+        payload.add("requests", requests);
+        payload.addProperty("stop_on_error", stopOnError);
+
+        return post(BATCH_PATH, payload.toString(), null)
+            .thenCompose(result -> {
+                if (result.isOk()) {
+                    List<ApiResult> results = parseBatchResults(result.getResponse(), items);
+                    if (results != null) {
+                        return CompletableFuture.completedFuture(results);
+                    }
+                } else if (result.statusCode() == 404 || result.statusCode() == 405) {
+                    System.err.println("[ApiClient] Backend has no batch endpoint (HTTP " + result.statusCode()
+                        + "), sending " + items.size() + " request(s) individually");
+                    return postSequentially(items, stopOnError);
+                } else if (result.getResponse() != null) {
+                    System.err.println("[ApiClient] Batch of " + items.size() + " returned HTTP " +
+                        result.statusCode() + ": " + result.body());
+                }
+                // A batch-level status is not the items' own answer, so never let it reject them
+                ApiResult whole = result.isCircuitOpen() ? result : ApiResult.failed(null);
+                List<ApiResult> results = new ArrayList<>(items.size());
+                for (int i = 0; i < items.size(); i++) {
+                    results.add(whole);
+                }
+                return CompletableFuture.completedFuture(results);
+            });
+    }
+
+    private void flushBatch() {
+        List<PendingCall> calls;
+        synchronized (this) {
+            if (pendingBatch.isEmpty()) return;
+            calls = pendingBatch;
+            pendingBatch = new ArrayList<>();
+        }
+        sendPending(calls);
+    }
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-            .exceptionally(ex -> {
-                System.err.println("[ApiClient] GET " + path + " failed: " + ex.getMessage());
-                return null;
+    private void sendPending(List<PendingCall> calls) {
+        List<BatchItem> items = new ArrayList<>(calls.size());
+        for (PendingCall call : calls) {
+            items.add(call.item);
+        }
+        CompletableFuture<List<ApiResult>> sent;
+        try {
+            sent = postBatch(items, false);
+        } catch (Exception e) {
+            System.err.println("[ApiClient] Failed to send batch of " + calls.size() + ": " + e.getMessage());
+            failRemaining(calls, 0);
+            return;
+        }
+        sent.whenComplete((results, error) -> {
+            int completed = 0;
+            try {
+                if (error != null) {
+                    System.err.println("[ApiClient] Batch of " + calls.size() + " failed: " + error.getMessage());
+                } else {
+                    for (; completed < calls.size() && completed < results.size(); completed++) {
+                        calls.get(completed).future.complete(results.get(completed));
+                    }
+                }
+            } finally {
+                // Never leave a caller waiting: missing results (short list, exception) count as failed
+                failRemaining(calls, completed);
+            }
+        });
+    }
+
+    private static void failRemaining(List<PendingCall> calls, int from) {
+        for (int i = from; i < calls.size(); i++) {
+            calls.get(i).future.complete(ApiResult.failed(null));
+        }
+    }
+
+    private List<ApiResult> parseBatchResults(HttpResponse<String> response, List<BatchItem> items) {
+        List<ApiResult> results = new ArrayList<>(items.size());
+        try {
+            JsonArray array = JsonParser.parseString(response.body()).getAsJsonObject()
+                .getAsJsonObject("data").getAsJsonArray("results");
+            for (int i = 0; i < items.size(); i++) {
+                if (i >= array.size()) {
+                    results.add(ApiResult.failed(null));
+                    continue;
+                }
+                JsonObject result = array.get(i).getAsJsonObject();
+                JsonElement body = result.get("body");
+                int status = result.get("status").getAsInt();
+                HttpResponse<String> itemResponse = new BatchItemResponse(response,
+                    URI.create(baseUrl + items.get(i).path()), status, body != null ? body.toString() : "");
+                results.add(status >= 500 ? ApiResult.failed(itemResponse) : ApiResult.responded(itemResponse));
+            }
+        } catch (Exception e) {
+            System.err.println("[ApiClient] Malformed batch response: " + e.getMessage());
+            return null;
+        }
+        return results;
+    }
+
+    /**
+     * Batching disabled: one request per item, in order.
+     */
+    private CompletableFuture<List<ApiResult>> postSequentially(List<BatchItem> items, boolean stopOnError) {
+        CompletableFuture<List<ApiResult>> chain = CompletableFuture.completedFuture(new ArrayList<>());
+        for (BatchItem item : items) {
+            chain = chain.thenCompose(results -> {
+                ApiResult previous = results.isEmpty() ? null : results.get(results.size() - 1);
+                if (stopOnError && previous != null && (previous.getResponse() == null || previous.statusCode() >= 300)) {
+                    results.add(previous);
+                    return CompletableFuture.completedFuture(results);
+                }
+                return post(item.path(), item.jsonBody(), item.idempotencyKey())
+                    .thenApply(r -> {
+                        results.add(r);
+                        return results;
+                    });
             });
+        }
+        return chain;
+    }
+
+    // ========== Transport ==========
+
+    private HttpRequest.BodyPublisher bodyPublisher(HttpRequest.Builder builder, String jsonBody) {
+        byte[] bytes = jsonBody.getBytes(StandardCharsets.UTF_8);
+        if (!compression || bytes.length < COMPRESS_MIN_BYTES) {
+            return HttpRequest.BodyPublishers.ofByteArray(bytes);
+        }
+        builder.header("Content-Encoding", "gzip");
+        return HttpRequest.BodyPublishers.ofByteArray(gzip(bytes));
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) {
+        try (GZIPInputStream gz = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gz.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Sends any postBatched() calls still waiting for the linger window, waits up to
+     * {@link #SHUTDOWN_WAIT_MS} for requests in flight (final syncs, disconnect saves) and stops
+     * the client's threads.
+     */
+    public void shutdown() {
+        flushBatch();
+        batchScheduler.shutdown();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_WAIT_MS);
+        // Loop: a sequential fallback sends its next request only after the previous one answered
+        while (!inFlight.isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                System.err.println("[ApiClient] Shutting down with " + inFlight.size() + " request(s) still in flight");
+                break;
+            }
+            try {
+                CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0])).get(remaining, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | ExecutionException ignored) {
+                // Timeout: reported above on the next pass; failures were logged by send()
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        executor.shutdown();
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            executor.awaitTermination(remaining, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     public String getBaseUrl() {
         return baseUrl;
     }
+
+    /**
+     * One request inside a batch.
+     *
+     * @param idempotencyKey stable key for this logical request, or null for none
+     */
+    public record BatchItem(String path, String jsonBody, String idempotencyKey) {}
+
+    private static final class PendingCall {
+        final BatchItem item;
+        final CompletableFuture<ApiResult> future = new CompletableFuture<>();
+
+        PendingCall(BatchItem item) {
+            this.item = item;
+        }
+    }
+
+    /**
+     * Response for one item of a batch, so batched callers handle it like any other response.
+     */
+    private static final class BatchItemResponse implements HttpResponse<String> {
+        private final HttpResponse<String> batchResponse;
+        private final URI uri;
+        private final int status;
+        private final String body;
+
+        BatchItemResponse(HttpResponse<String> batchResponse, URI uri, int status, String body) {
+            this.batchResponse = batchResponse;
+            this.uri = uri;
+            this.status = status;
+            this.body = body;
+        }
+
+        @Override public int statusCode() { return status; }
+        @Override public HttpRequest request() { return batchResponse.request(); }
+        @Override public Optional<HttpResponse<String>> previousResponse() { return Optional.empty(); }
+        @Override public HttpHeaders headers() { return HttpHeaders.of(Map.of(), (k, v) -> true); }
+        @Override public String body() { return body; }
+        @Override public Optional<SSLSession> sslSession() { return batchResponse.sslSession(); }
+        @Override public URI uri() { return uri; }
+        @Override public HttpClient.Version version() { return batchResponse.version(); }
+    }
 }
@@ -0,0 +1,71 @@
+package de.ragesith.hyarena2.api;
+
+import java.net.http.HttpResponse;
+
+/**
+ * Outcome of a web API call. Unlike a null response, it tells apart a request that was
+ * answered, one that failed (network error, timeout, 5xx), and one that was never sent
+ * because its endpoint group's circuit is open — callers can fall back immediately.
+ */
+public final class ApiResult {
+
+    public enum Outcome {
+        /** The backend answered (any status below 500 except 429). */
+        RESPONDED,
+        /** Network error, timeout, 5xx or 429. */
+        FAILED,
+        /** Not sent: the circuit for this endpoint group is open. */
+        CIRCUIT_OPEN
+    }
+
+    private static final ApiResult CIRCUIT_OPEN = new ApiResult(Outcome.CIRCUIT_OPEN, null);
+
+    private final Outcome outcome;
+    private final HttpResponse<String> response;
+
+    private ApiResult(Outcome outcome, HttpResponse<String> response) {
+        this.outcome = outcome;
+        this.response = response;
+    }
+
+    static ApiResult responded(HttpResponse<String> response) {
+        return new ApiResult(Outcome.RESPONDED, response);
+    }
+
+    static ApiResult failed(HttpResponse<String> response) {
+        return new ApiResult(Outcome.FAILED, response);
+    }
+
+    static ApiResult circuitOpen() {
+        return CIRCUIT_OPEN;
+    }
+
+    public Outcome getOutcome() { return outcome; }
+
+    /**
+     * Gets the response, or null if none was received.
+     */
+    public HttpResponse<String> getResponse() { return response; }
+
+    /**
+     * Checks if the backend answered with HTTP 200.
+     */
+    public boolean isOk() {
+        return response != null && response.statusCode() == 200;
+    }
+
+    public boolean isCircuitOpen() {
+        return outcome == Outcome.CIRCUIT_OPEN;
+    }
+
+    /**
+     * Gets the HTTP status, or -1 if no response was received.
+     */
+    public int statusCode() {
+        return response != null ? response.statusCode() : -1;
+    }
+
+    public String body() {
+        return response != null ? response.body() : null;
+    }
+}
@@ -0,0 +1,133 @@
+package de.ragesith.hyarena2.api;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Circuit breaker and adaptive timeout for one group of web API endpoints (e.g. "leaderboard").
+ *
+ * <p>CLOSED: requests go through. After {@link #FAILURE_THRESHOLD} consecutive failures the
+ * circuit OPENs and requests are rejected without touching the network. After the open
+ * period a single HALF_OPEN probe is let through: success closes the circuit, failure
+ * re-opens it for twice as long (up to {@link #MAX_OPEN_MS}).
+ *
+ * <p>The request timeout follows the group's recent successful latencies
+ * (p99 x {@link #TIMEOUT_MULTIPLIER}, clamped), so a slow but healthy host is not cut off
+ * and a hung one is given up on quickly.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final int FAILURE_THRESHOLD = 5;
+    private static final long INITIAL_OPEN_MS = 5_000;
+    private static final long MAX_OPEN_MS = 120_000;
+
+    // Adaptive timeout
+    private static final int LATENCY_SAMPLES = 64;
+    private static final int MIN_SAMPLES = 8;
+    private static final long TIMEOUT_MULTIPLIER = 3;
+    private static final long MIN_TIMEOUT_MS = 2_000;
+    private static final long DEFAULT_TIMEOUT_MS = 10_000;
+    private static final long MAX_TIMEOUT_MS = 30_000;
+
+    private final String group;
+
+    // State (guarded by this)
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntil;
+    private long openMs = INITIAL_OPEN_MS;
+    private boolean probeInFlight;
+
+    // Successful latencies, ring buffer (guarded by this)
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyCount;
+    private int latencyNext;
+    private long timeoutMs = DEFAULT_TIMEOUT_MS;
+
+    CircuitBreaker(String group) {
+        this.group = group;
+    }
+
+    /**
+     * Checks whether a request may be sent now. In HALF_OPEN only one probe is allowed at a time.
+     */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() < openUntil) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    synchronized void onSuccess(long latencyMs) {
+        latencies[latencyNext] = latencyMs;
+        latencyNext = (latencyNext + 1) % LATENCY_SAMPLES;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+        timeoutMs = computeTimeout();
+
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            System.out.println("[ApiClient] Circuit '" + group + "' closed, web API reachable again");
+        }
+        state = State.CLOSED;
+        probeInFlight = false;
+        openMs = INITIAL_OPEN_MS;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            openMs = Math.min(openMs * 2, MAX_OPEN_MS);
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= FAILURE_THRESHOLD) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        probeInFlight = false;
+        openUntil = System.currentTimeMillis() + openMs;
+        System.err.println("[ApiClient] Circuit '" + group + "' open for " + openMs + "ms after " +
+            consecutiveFailures + " failure(s)");
+    }
+
+    private long computeTimeout() {
+        if (latencyCount < MIN_SAMPLES) {
+            return DEFAULT_TIMEOUT_MS;
+        }
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        long p99 = sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.99) - 1)];
+        return Math.max(MIN_TIMEOUT_MS, Math.min(MAX_TIMEOUT_MS, p99 * TIMEOUT_MULTIPLIER));
+    }
+
+    synchronized Duration getTimeout() {
+        return Duration.ofMillis(timeoutMs);
+    }
+
+    public String getGroup() { return group; }
+    public synchronized State getState() { return state; }
+    public synchronized long getTimeoutMs() { return timeoutMs; }
+
+    /**
+     * Checks if requests are currently going through (CLOSED), as opposed to failing fast.
+     */
+    public synchronized boolean isHealthy() {
+        return state == State.CLOSED;
+    }
+}
@@ -0,0 +1,229 @@
+package de.ragesith.hyarena2.arena;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-match combat log: a fixed-size ring of every hit stored in primitive columns
+ * (tick, attacker slot, victim slot, amount, type, blocked flag).
+ *
+ * <p>Participants are mapped to short slots when they join, so recording a hit is a map
+ * lookup plus a handful of array stores — no allocation. Each hit is also folded into its
+ * participants' running totals as it is recorded, so totals stay exact however long the
+ * match runs; only the per-opponent breakdown is built from the ring. Writers claim an index with a
+ * single atomic increment and publish it through a per-entry sequence number, so hits can
+ * be recorded from any thread without locking. The sequence works like a seqlock: a writer
+ * clears it before overwriting an entry, and a reader re-checks it after copying the entry,
+ * so an entry overwritten mid-read (the ring wrapped) is discarded instead of mixed. When more hits arrive than the ring holds,
+ * the oldest are overwritten and counted as dropped in the summary (missing from the opponent breakdown only).
+ */
+public class CombatLog {
+
+    // Hit types
+    public static final byte TYPE_MELEE = 0;
+    public static final byte TYPE_RANGED = 1;
+    public static final byte TYPE_ENVIRONMENT = 2;
+    public static final int TYPE_COUNT = 3;
+
+    // Slot used for hits without an attacking participant (lava, fall damage, ...)
+    public static final int NO_SLOT = -1;
+
+    private static final int CAPACITY = 8192; // power of two
+    private static final int MASK = CAPACITY - 1;
+    private static final int MAX_SLOTS = Short.MAX_VALUE;
+    private static final byte FLAG_BLOCKED = (byte) 0x80;
+    private static final byte TYPE_MASK = 0x0F;
+
+    private final int[] ticks = new int[CAPACITY];
+    private final short[] attackers = new short[CAPACITY];
+    private final short[] victims = new short[CAPACITY];
+    private final float[] amounts = new float[CAPACITY];
+    private final byte[] flags = new byte[CAPACITY];
+
+    // Sequence + 1 of the hit stored at each index; 0 means never written or being overwritten
+    private final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private final AtomicLong cursor = new AtomicLong();
+
+    // Participant slots — assigned on join, never reused within a match
+    private final Map<UUID, Slot> slots = new ConcurrentHashMap<>();
+    private final List<UUID> slotOwners = new ArrayList<>();
+    private final List<String> slotNames = new ArrayList<>();
+    private final List<SlotTotals> slotTotals = new ArrayList<>();
+
+    /**
+     * Assigns a slot to a participant. Idempotent; returns NO_SLOT once the slot space is full.
+     */
+    public synchronized int register(UUID participantId, String name) {
+        Slot existing = slots.get(participantId);
+        if (existing != null) {
+            return existing.index;
+        }
+        if (slotOwners.size() >= MAX_SLOTS) {
+            return NO_SLOT;
+        }
+        int slot = slotOwners.size();
+        slotOwners.add(participantId);
+        slotNames.add(name);
+        slotTotals.add(new SlotTotals());
+        slots.put(participantId, new Slot(slot, slotTotals.get(slot)));
+        return slot;
+    }
+
+    /**
+     * Records one hit. Hits on unregistered victims are ignored; a null or unregistered
+     * attacker is stored as NO_SLOT.
+     *
+     * @param blocked true if the hit was negated by a block (amount is what it would have dealt)
+     */
+    public void record(int tick, UUID attackerId, UUID victimId, float amount, byte type, boolean blocked) {
+        Slot victim = victimId != null ? slots.get(victimId) : null;
+        if (victim == null) {
+            return;
+        }
+        Slot attacker = attackerId != null ? slots.get(attackerId) : null;
+        fold(attacker, victim, amount, type & TYPE_MASK, blocked);
+
+        long seq = cursor.getAndIncrement();
+        int i = (int) (seq & MASK);
+        // Invalidate the old entry before any of its columns change
+        published.set(i, 0);
+        VarHandle.storeStoreFence();
+        ticks[i] = tick;
+        attackers[i] = (short) (attacker != null ? attacker.index : NO_SLOT);
+        victims[i] = (short) victim.index;
+        amounts[i] = amount;
+        flags[i] = (byte) ((type & TYPE_MASK) | (blocked ? FLAG_BLOCKED : 0));
+        published.lazySet(i, seq + 1);
+    }
+
+    private static void fold(Slot attacker, Slot victim, float amount, int type, boolean blocked) {
+        if (blocked) {
+            victim.totals.hitsBlocked.increment();
+            return;
+        }
+        victim.totals.taken.add(amount);
+        victim.totals.hitsTaken.increment();
+        if (attacker == null) {
+            victim.totals.environmentTaken.add(amount);
+            return;
+        }
+        SlotTotals totals = attacker.totals;
+        totals.dealt.add(amount);
+        totals.hitsLanded.increment();
+        if (type < TYPE_COUNT) {
+            totals.dealtByType[type].add(amount);
+        }
+        totals.biggestHit.accumulateAndGet(Float.floatToIntBits(amount),
+            (current, hit) -> Float.intBitsToFloat(hit) > Float.intBitsToFloat(current) ? hit : current);
+    }
+
+    /**
+     * Gets the total number of hits recorded, including any that were overwritten.
+     */
+    public long getHitCount() {
+        return cursor.get();
+    }
+
+    /**
+     * Builds per-participant damage breakdowns from the running totals, plus the per-opponent
+     * breakdown from the ring. Intended for match end; allocates only per participant and per opponent pair.
+     */
+    public CombatSummary summarize() {
+        List<UUID> owners;
+        List<String> names;
+        List<SlotTotals> totals;
+        synchronized (this) {
+            owners = new ArrayList<>(slotOwners);
+            names = new ArrayList<>(slotNames);
+            totals = new ArrayList<>(slotTotals);
+        }
+        int slotCount = owners.size();
+
+        // Unordered pair key (low slot << 32 | high slot) → totals in both directions
+        Map<Long, double[]> pairs = new HashMap<>();
+
+        long end = cursor.get();
+        long start = Math.max(0, end - CAPACITY);
+
+        for (long seq = start; seq < end; seq++) {
+            int i = (int) (seq & MASK);
+            if (published.get(i) != seq + 1) {
+                continue; // Not yet published or already overwritten
+            }
+            int attacker = attackers[i];
+            int victim = victims[i];
+            float amount = amounts[i];
+            byte flag = flags[i];
+            // Column reads must complete before the sequence is checked again
+            VarHandle.loadLoadFence();
+            if (published.get(i) != seq + 1 || victim < 0 || victim >= slotCount || attacker >= slotCount) {
+                continue; // Overwritten while reading
+            }
+            if ((flag & FLAG_BLOCKED) != 0 || attacker == NO_SLOT || attacker == victim) {
+                continue;
+            }
+            int low = Math.min(attacker, victim);
+            int high = Math.max(attacker, victim);
+            double[] pair = pairs.computeIfAbsent(((long) low << 32) | high, k -> new double[4]);
+            // [0]/[1] = damage/hits low → high, [2]/[3] = damage/hits high → low
+            int offset = attacker == low ? 0 : 2;
+            pair[offset] += amount;
+            pair[offset + 1]++;
+        }
+
+        List<CombatSummary.Entry> entries = new ArrayList<>(slotCount);
+        for (int s = 0; s < slotCount; s++) {
+            SlotTotals t = totals.get(s);
+            double[] dealtByType = new double[TYPE_COUNT];
+            for (int type = 0; type < TYPE_COUNT; type++) {
+                dealtByType[type] = t.dealtByType[type].sum();
+            }
+            entries.add(new CombatSummary.Entry(owners.get(s), names.get(s), t.dealt.sum(), t.taken.sum(),
+                t.environmentTaken.sum(), dealtByType, t.hitsLanded.intValue(), t.hitsTaken.intValue(),
+                t.hitsBlocked.intValue(), Float.intBitsToFloat(t.biggestHit.get())));
+        }
+
+        for (Map.Entry<Long, double[]> e : pairs.entrySet()) {
+            int low = (int) (e.getKey() >>> 32);
+            int high = (int) (long) e.getKey();
+            double[] p = e.getValue();
+            entries.get(low).addOpponent(names.get(high), p[0], (int) p[1], p[2], (int) p[3]);
+            entries.get(high).addOpponent(names.get(low), p[2], (int) p[3], p[0], (int) p[1]);
+        }
+
+        return new CombatSummary(entries, (int) Math.min(Integer.MAX_VALUE, end), start);
+    }
+
+    private record Slot(int index, SlotTotals totals) {}
+
+    /**
+     * Running totals for one participant, updated by every recorded hit.
+     */
+    private static final class SlotTotals {
+        final DoubleAdder dealt = new DoubleAdder();
+        final DoubleAdder taken = new DoubleAdder();
+        final DoubleAdder environmentTaken = new DoubleAdder();
+        final DoubleAdder[] dealtByType = new DoubleAdder[TYPE_COUNT];
+        final LongAdder hitsLanded = new LongAdder();
+        final LongAdder hitsTaken = new LongAdder();
+        final LongAdder hitsBlocked = new LongAdder();
+        // Float bits of the biggest hit dealt (non-negative floats order like their bits)
+        final AtomicInteger biggestHit = new AtomicInteger();
+
+        SlotTotals() {
+            for (int type = 0; type < TYPE_COUNT; type++) {
+                dealtByType[type] = new DoubleAdder();
+            }
+        }
+    }
+}
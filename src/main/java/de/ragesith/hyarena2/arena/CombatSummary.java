@@ -0,0 +1,137 @@
+package de.ragesith.hyarena2.arena;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Post-match damage breakdown built from a match's CombatLog.
+ * One entry per participant that ever joined, including eliminated players and despawned wave bots.
+ */
+public class CombatSummary {
+    private final List<Entry> entries;
+    private final Map<UUID, Entry> byParticipant = new HashMap<>();
+    private final int hitCount;
+    private final long droppedHits;
+
+    CombatSummary(List<Entry> entries, int hitCount, long droppedHits) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.hitCount = hitCount;
+        this.droppedHits = droppedHits;
+        for (Entry entry : entries) {
+            entry.droppedHits = droppedHits;
+            entry.opponents.sort(Comparator.comparingDouble((Opponent o) -> o.damageDealt + o.damageTaken).reversed());
+            byParticipant.put(entry.participantId, entry);
+        }
+    }
+
+    public Entry get(UUID participantId) {
+        return byParticipant.get(participantId);
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the number of hits recorded in the match.
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of early hits that were overwritten in the ring before the match ended.
+     * They count toward every participant total but are missing from the opponent breakdowns.
+     */
+    public long getDroppedHits() {
+        return droppedHits;
+    }
+
+    /**
+     * Damage breakdown for one participant.
+     */
+    public static class Entry {
+        private final UUID participantId;
+        private final String name;
+        private final double damageDealt;
+        private final double damageTaken;
+        private final double environmentDamageTaken;
+        private final double[] damageDealtByType;
+        private final int hitsLanded;
+        private final int hitsTaken;
+        private final int hitsBlocked;
+        private final float biggestHit;
+        private final List<Opponent> opponents = new ArrayList<>();
+        private long droppedHits;
+
+        Entry(UUID participantId, String name, double damageDealt, double damageTaken,
+              double environmentDamageTaken, double[] damageDealtByType,
+              int hitsLanded, int hitsTaken, int hitsBlocked, float biggestHit) {
+            this.participantId = participantId;
+            this.name = name;
+            this.damageDealt = damageDealt;
+            this.damageTaken = damageTaken;
+            this.environmentDamageTaken = environmentDamageTaken;
+            this.damageDealtByType = damageDealtByType;
+            this.hitsLanded = hitsLanded;
+            this.hitsTaken = hitsTaken;
+            this.hitsBlocked = hitsBlocked;
+            this.biggestHit = biggestHit;
+        }
+
+        void addOpponent(String opponentName, double dealt, int hitsDealt, double taken, int hitsReceived) {
+            opponents.add(new Opponent(opponentName, dealt, hitsDealt, taken, hitsReceived));
+        }
+
+        public UUID getParticipantId() { return participantId; }
+        public String getName() { return name; }
+        public double getDamageDealt() { return damageDealt; }
+        public double getDamageTaken() { return damageTaken; }
+        public double getEnvironmentDamageTaken() { return environmentDamageTaken; }
+        public double getDamageDealt(byte type) { return damageDealtByType[type]; }
+        public int getHitsLanded() { return hitsLanded; }
+        public int getHitsTaken() { return hitsTaken; }
+        public int getHitsBlocked() { return hitsBlocked; }
+        public float getBiggestHit() { return biggestHit; }
+
+        /**
+         * Gets the number of the match's hits missing from the opponent breakdown (see {@link CombatSummary#getDroppedHits}).
+         */
+        public long getDroppedHits() { return droppedHits; }
+
+        /**
+         * Gets everyone this participant traded hits with, most damage exchanged first.
+         */
+        public List<Opponent> getOpponents() { return opponents; }
+    }
+
+    /**
+     * Damage exchanged between a participant and one opponent.
+     */
+    public static class Opponent {
+        private final String name;
+        private final double damageDealt;
+        private final int hitsDealt;
+        private final double damageTaken;
+        private final int hitsTaken;
+
+        Opponent(String name, double damageDealt, int hitsDealt, double damageTaken, int hitsTaken) {
+            this.name = name;
+            this.damageDealt = damageDealt;
+            this.hitsDealt = hitsDealt;
+            this.damageTaken = damageTaken;
+            this.hitsTaken = hitsTaken;
+        }
+
+        public String getName() { return name; }
+        public double getDamageDealt() { return damageDealt; }
+        public int getHitsDealt() { return hitsDealt; }
+        public double getDamageTaken() { return damageTaken; }
+        public int getHitsTaken() { return hitsTaken; }
+    }
+}
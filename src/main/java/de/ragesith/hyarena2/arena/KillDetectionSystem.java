@@ -17,8 +17,10 @@ import com.hypixel.hytale.server.core.modules.entitystats.EntityStatsModule;
 import com.hypixel.hytale.server.core.modules.entitystats.asset.EntityStatType;
 import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.Universe;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hypixel.hytale.server.npc.entities.NPCEntity;
 import de.ragesith.hyarena2.Permissions;
 import de.ragesith.hyarena2.bot.BotBrain;
 import de.ragesith.hyarena2.bot.BotManager;
@@ -31,12 +33,13 @@ import de.ragesith.hyarena2.participant.Participant;
 import de.ragesith.hyarena2.participant.ParticipantType;
 import de.ragesith.hyarena2.utils.EntityInteractionHelper;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Damage detection system that:
+ * - Only runs for players and NPCs; worlds without arenas take an O(1) spar-or-cancel path
  * - Allows damage ONLY during IN_PROGRESS matches
  * - Cancels all damage outside matches (prevents hub PvP, countdown damage, etc.)
  * - Detects kills and notifies the match
@@ -54,11 +57,10 @@ public class KillDetectionSystem extends DamageEventSystem {
     // Cache the SignatureEnergy stat index
     private int signatureEnergyIndex = -1;
 
-    // Running damage accumulator for multi-hit same-tick detection
-    private final Map<UUID, Float> tickDamageAccumulator = new HashMap<>();
-    private final Map<UUID, Float> tickBaseHealth = new HashMap<>();
-    private long lastFilterNanos = 0;
-    private static final long TICK_GAP_NANOS = 10_000_000; // 10ms — half a tick at 20 TPS
+    // Per-world damage state (same-tick ledger, arena-world flag, victim classification cache).
+    // Each context is only touched on its own world thread. Not weak-keyed: cached refs hold their store,
+    // so contexts of removed or replaced worlds are pruned whenever a new world shows up.
+    private final Map<Store<EntityStore>, WorldDamageContext> worldContexts = new ConcurrentHashMap<>();
 
     public KillDetectionSystem(MatchManager matchManager) {
         this.matchManager = matchManager;
@@ -89,70 +91,56 @@ public class KillDetectionSystem extends DamageEventSystem {
 
     @Override
     public Query<EntityStore> getQuery() {
-        return Query.any();
+        // Only players and NPCs can ever be participants (or training dummies)
+        return Query.or(Player.getComponentType(), NPCEntity.getComponentType());
     }
 
     @Override
     public void handle(int index, ArchetypeChunk<EntityStore> chunk,
                        Store<EntityStore> store, CommandBuffer<EntityStore> commandBuffer,
                        Damage damage) {
-        // Tick boundary detection: if >10ms since last call, we're in a new tick
-        long now = System.nanoTime();
-        if (now - lastFilterNanos > TICK_GAP_NANOS) {
-            tickDamageAccumulator.clear();
-            tickBaseHealth.clear();
-        }
-        lastFilterNanos = now;
-
         try {
             // Get victim entity reference
             Ref<EntityStore> victimRef = chunk.getReferenceTo(index);
+            WorldDamageContext context = getWorldContext(store);
 
-            // Try to identify victim as player first
-            Player victimPlayer = store.getComponent(victimRef, Player.getComponentType());
-            if (victimPlayer != null) {
-                handlePlayerVictim(victimRef, store, damage);
-                return;
-            }
-
-            // Not a player - check if it's a bot
-            if (botManager != null) {
-                UUIDComponent uuidComponent = store.getComponent(victimRef, UUIDComponent.getComponentType());
-                if (uuidComponent != null) {
-                    BotParticipant botVictim = botManager.getBotByEntityUuid(uuidComponent.getUuid());
-                    if (botVictim != null) {
-                        handleBotVictim(botVictim, victimRef, store, damage);
-                        return;
-                    }
+            WorldDamageContext.Victim victim = context.getVictim(victimRef);
+            if (victim == null) {
+                victim = classifyVictim(victimRef, store);
+                if (victim == null) {
+                    return;
                 }
+                context.putVictim(victimRef, victim);
             }
 
-            // Check if this is a passthrough NPC (e.g. training dummy) — let Hytale handle damage
-            com.hypixel.hytale.server.npc.entities.NPCEntity npcEntity =
-                store.getComponent(victimRef, com.hypixel.hytale.server.npc.entities.NPCEntity.getComponentType());
-            if (npcEntity != null && "FunctionalDummyRole".equals(npcEntity.getNPCTypeId())) {
+            // Fast path: worlds without arenas never host participants — only spar damage or dummies
+            if (!context.isArenaWorld(matchManager)) {
+                switch (victim.kind) {
+                    case PLAYER -> handleNonArenaPlayerVictim(victim.uuid, victimRef, store, damage, context);
+                    case DUMMY -> { }
+                    default -> damage.setCancelled(true);
+                }
                 return;
             }
 
-            // Unknown entity type - debug log to attacker's chat
-            Ref<EntityStore> dbgAttackerRef = getAttackerEntityRef(damage.getSource());
-            if (dbgAttackerRef != null) {
-                Player dbgAttacker = store.getComponent(dbgAttackerRef, Player.getComponentType());
-                if (dbgAttacker != null) {
-                    String nameStr = "unnamed";
-                    com.hypixel.hytale.server.core.entity.nameplate.Nameplate nameplate =
-                        store.getComponent(victimRef, com.hypixel.hytale.server.core.entity.nameplate.Nameplate.getComponentType());
-                    if (nameplate != null && nameplate.getText() != null && !nameplate.getText().isEmpty()) {
-                        nameStr = nameplate.getText();
+            switch (victim.kind) {
+                case PLAYER -> handlePlayerVictim(victimRef, victim.uuid, store, damage, context.getLedger());
+                case BOT -> {
+                    BotParticipant botVictim = botManager != null ? botManager.getBotByEntityUuid(victim.uuid) : null;
+                    if (botVictim != null) {
+                        handleBotVictim(botVictim, victimRef, store, damage);
+                    } else {
+                        damage.setCancelled(true);
                     }
-                    String modelStr = npcEntity != null ? npcEntity.getNPCTypeId() : "unknown";
-                    if (modelStr == null || modelStr.isEmpty()) modelStr = "unknown";
-                    UUIDComponent dbgUuid = store.getComponent(victimRef, UUIDComponent.getComponentType());
-                    String uuidStr = dbgUuid != null ? dbgUuid.getUuid().toString().substring(0, 8) : "no-uuid";
-                    dbgAttacker.sendMessage(TinyMsg.parse("<color:#7f8c8d>[debug] Hit entity: " + nameStr + " | model=" + modelStr + " (uuid=" + uuidStr + ")</color>"));
+                }
+                case DUMMY -> {
+                    // Passthrough NPC (e.g. training dummy) — let Hytale handle damage
+                }
+                default -> {
+                    reportUnknownVictim(victimRef, store, damage);
+                    damage.setCancelled(true);
                 }
             }
-            damage.setCancelled(true);
         } catch (Exception e) {
             System.err.println("Error in KillDetectionSystem: " + e.getMessage());
             e.printStackTrace();
@@ -160,17 +148,103 @@ public class KillDetectionSystem extends DamageEventSystem {
     }
 
     /**
-     * Handles damage to a player victim.
+     * Gets the damage context for a world store, with its ledger advanced to the world's current tick.
+     */
+    private WorldDamageContext getWorldContext(Store<EntityStore> store) {
+        World world = store.getExternalData().getWorld();
+        WorldDamageContext context = worldContexts.get(store);
+        if (context == null) {
+            pruneWorldContexts();
+            context = worldContexts.computeIfAbsent(store, k -> new WorldDamageContext(world.getName()));
+        }
+        context.getLedger().beginTick(world.getTick());
+        return context;
+    }
+
+    /**
+     * Drops contexts whose world is no longer loaded, or was recreated under the same name with a new store.
      */
-    private void handlePlayerVictim(Ref<EntityStore> victimRef, Store<EntityStore> store, Damage damage) {
-        // Get PlayerRef component
-        PlayerRef victimPlayerRef = store.getComponent(victimRef, PlayerRef.getComponentType());
-        if (victimPlayerRef == null) {
+    private void pruneWorldContexts() {
+        worldContexts.entrySet().removeIf(entry -> {
+            World world = Universe.get().getWorld(entry.getValue().getWorldName());
+            return world == null || world.getEntityStore().getStore() != entry.getKey();
+        });
+    }
+
+    /**
+     * Classifies a victim entity; player and bot results are cached per entity ref.
+     * Returns null for a player entity without a PlayerRef (not yet fully joined).
+     */
+    private WorldDamageContext.Victim classifyVictim(Ref<EntityStore> victimRef, Store<EntityStore> store) {
+        Player victimPlayer = store.getComponent(victimRef, Player.getComponentType());
+        if (victimPlayer != null) {
+            PlayerRef victimPlayerRef = store.getComponent(victimRef, PlayerRef.getComponentType());
+            if (victimPlayerRef == null) {
+                return null;
+            }
+            return new WorldDamageContext.Victim(WorldDamageContext.VictimKind.PLAYER, victimPlayerRef.getUuid());
+        }
+
+        if (botManager != null) {
+            UUIDComponent uuidComponent = store.getComponent(victimRef, UUIDComponent.getComponentType());
+            if (uuidComponent != null && botManager.getBotByEntityUuid(uuidComponent.getUuid()) != null) {
+                return new WorldDamageContext.Victim(WorldDamageContext.VictimKind.BOT, uuidComponent.getUuid());
+            }
+        }
+
+        NPCEntity npcEntity = store.getComponent(victimRef, NPCEntity.getComponentType());
+        if (npcEntity != null && "FunctionalDummyRole".equals(npcEntity.getNPCTypeId())) {
+            return new WorldDamageContext.Victim(WorldDamageContext.VictimKind.DUMMY, null);
+        }
+
+        return new WorldDamageContext.Victim(WorldDamageContext.VictimKind.OTHER, null);
+    }
+
+    /**
+     * Handles player damage in a world without arenas: spar damage for permitted players, otherwise cancelled.
+     */
+    private void handleNonArenaPlayerVictim(UUID victimUuid, Ref<EntityStore> victimRef, Store<EntityStore> store,
+                                            Damage damage, WorldDamageContext context) {
+        Player victimPlayer = store.getComponent(victimRef, Player.getComponentType());
+        if (victimPlayer != null && victimPlayer.hasPermission(Permissions.SPAR)) {
+            handleSparDamage(victimUuid, victimRef, store, damage, victimPlayer, context.getLedger());
+            return;
+        }
+        damage.setCancelled(true);
+    }
+
+    /**
+     * Debug-logs a hit on an unknown entity type to the attacking player's chat.
+     */
+    private void reportUnknownVictim(Ref<EntityStore> victimRef, Store<EntityStore> store, Damage damage) {
+        Ref<EntityStore> dbgAttackerRef = getAttackerEntityRef(damage.getSource());
+        if (dbgAttackerRef == null) {
+            return;
+        }
+        Player dbgAttacker = store.getComponent(dbgAttackerRef, Player.getComponentType());
+        if (dbgAttacker == null) {
             return;
         }
 
-        UUID victimUuid = victimPlayerRef.getUuid();
+        String nameStr = "unnamed";
+        com.hypixel.hytale.server.core.entity.nameplate.Nameplate nameplate =
+            store.getComponent(victimRef, com.hypixel.hytale.server.core.entity.nameplate.Nameplate.getComponentType());
+        if (nameplate != null && nameplate.getText() != null && !nameplate.getText().isEmpty()) {
+            nameStr = nameplate.getText();
+        }
+        NPCEntity npcEntity = store.getComponent(victimRef, NPCEntity.getComponentType());
+        String modelStr = npcEntity != null ? npcEntity.getNPCTypeId() : "unknown";
+        if (modelStr == null || modelStr.isEmpty()) modelStr = "unknown";
+        UUIDComponent dbgUuid = store.getComponent(victimRef, UUIDComponent.getComponentType());
+        String uuidStr = dbgUuid != null ? dbgUuid.getUuid().toString().substring(0, 8) : "no-uuid";
+        dbgAttacker.sendMessage(TinyMsg.parse("<color:#7f8c8d>[debug] Hit entity: " + nameStr + " | model=" + modelStr + " (uuid=" + uuidStr + ")</color>"));
+    }
 
+    /**
+     * Handles damage to a player victim.
+     */
+    private void handlePlayerVictim(Ref<EntityStore> victimRef, UUID victimUuid, Store<EntityStore> store,
+                                    Damage damage, TickDamageLedger ledger) {
         // Get player's match
         Match match = matchManager.getPlayerMatch(victimUuid);
 
@@ -179,7 +253,7 @@ public class KillDetectionSystem extends DamageEventSystem {
             // Spar mode: allow non-lethal damage outside matches for players with permission
             Player victimPlayer = store.getComponent(victimRef, Player.getComponentType());
             if (victimPlayer != null && victimPlayer.hasPermission(Permissions.SPAR)) {
-                handleSparDamage(victimUuid, victimRef, store, damage, victimPlayer);
+                handleSparDamage(victimUuid, victimRef, store, damage, victimPlayer, ledger);
                 return;
             }
             damage.setCancelled(true);
@@ -223,6 +297,8 @@ public class KillDetectionSystem extends DamageEventSystem {
                         Position attackerPos = new Position(aPos.getX(), aPos.getY(), aPos.getZ());
                         if (BotBrain.isInFront(victimPos, attackerPos)) {
                             damage.setCancelled(true);
+                            match.logHit(getAttackerUuid(damage.getSource(), store), victimUuid,
+                                damage.getAmount(), classifyHitType(attackerRef), true);
                             return;
                         }
                     }
@@ -281,12 +357,9 @@ public class KillDetectionSystem extends DamageEventSystem {
             }
         }
 
-        // Seed base health on first hit this tick
-        tickBaseHealth.putIfAbsent(victimUuid, currentHealth);
-        tickDamageAccumulator.putIfAbsent(victimUuid, 0f);
-
-        // Effective health = base health minus damage already allowed through this tick
-        float effectiveHealth = tickBaseHealth.get(victimUuid) - tickDamageAccumulator.get(victimUuid);
+        // Effective health = base health (seeded on first hit this tick) minus damage already allowed through
+        float effectiveHealth = ledger.effectiveHealth(victimUuid, currentHealth);
+        byte hitType = classifyHitType(attackerEntityRef);
 
         if (effectiveHealth - damageAmount <= 0) {
             // FATAL — cancel this hit, record kill
@@ -307,6 +380,7 @@ public class KillDetectionSystem extends DamageEventSystem {
 
             // Record the fatal damage (only actual remaining HP, not overkill)
             match.recordDamage(victimUuid, attackerUuid, effectiveHealth);
+            match.logHit(attackerUuid, victimUuid, effectiveHealth, hitType, false);
 
             // Record the kill — setAlive(false) inside blocks further damage this tick
             boolean shouldEnd = match.recordKill(victimUuid, attackerUuid);
@@ -316,12 +390,12 @@ public class KillDetectionSystem extends DamageEventSystem {
             }
 
             // Clean up tracking for this player (dead, no further tracking needed)
-            tickBaseHealth.remove(victimUuid);
-            tickDamageAccumulator.remove(victimUuid);
+            ledger.forget(victimUuid);
         } else {
             // NON-FATAL — let engine handle it (knockback, particles, sound, etc.)
-            tickDamageAccumulator.merge(victimUuid, damageAmount, Float::sum);
+            ledger.addDamage(victimUuid, damageAmount);
             match.recordDamage(victimUuid, attackerUuid, damageAmount);
+            match.logHit(attackerUuid, victimUuid, damageAmount, hitType, false);
         }
     }
 
@@ -331,7 +405,8 @@ public class KillDetectionSystem extends DamageEventSystem {
      * heals to full, clears status effects, and notifies the player.
      */
     private void handleSparDamage(UUID victimUuid, Ref<EntityStore> victimRef,
-                                   Store<EntityStore> store, Damage damage, Player victimPlayer) {
+                                   Store<EntityStore> store, Damage damage, Player victimPlayer,
+                                   TickDamageLedger ledger) {
         EntityStatMap stats = store.getComponent(victimRef,
                 EntityStatsModule.get().getEntityStatMapComponentType());
         if (stats == null) {
@@ -350,10 +425,7 @@ public class KillDetectionSystem extends DamageEventSystem {
         float damageAmount = damage.getAmount();
 
         // Track accumulated damage this tick (multiple hits before health updates)
-        tickBaseHealth.putIfAbsent(victimUuid, currentHealth);
-        tickDamageAccumulator.putIfAbsent(victimUuid, 0f);
-
-        float effectiveHealth = tickBaseHealth.get(victimUuid) - tickDamageAccumulator.get(victimUuid);
+        float effectiveHealth = ledger.effectiveHealth(victimUuid, currentHealth);
 
         if (effectiveHealth - damageAmount <= 0) {
             // Lethal hit — cancel damage, heal to full
@@ -368,8 +440,7 @@ public class KillDetectionSystem extends DamageEventSystem {
             }
 
             // Reset accumulator since we healed to full
-            tickBaseHealth.put(victimUuid, healthStat.getMax());
-            tickDamageAccumulator.put(victimUuid, 0f);
+            ledger.reset(victimUuid, healthStat.getMax());
 
             // Grant signature energy to attacker since damage was cancelled
             // Skip when interaction is null (signature spells / AoE abilities)
@@ -381,7 +452,7 @@ public class KillDetectionSystem extends DamageEventSystem {
             victimPlayer.sendMessage(TinyMsg.parse("<color:#2ecc71>Lethal damage prevented, healed to full</color>"));
         } else {
             // Non-lethal — let engine handle damage normally
-            tickDamageAccumulator.merge(victimUuid, damageAmount, Float::sum);
+            ledger.addDamage(victimUuid, damageAmount);
         }
     }
 
@@ -432,24 +503,13 @@ public class KillDetectionSystem extends DamageEventSystem {
         // Apply damage to bot's internal health
         boolean died = botVictim.takeDamage(damageAmount);
 
+        // Classify the attack once — used for threat registration and the combat log
+        byte hitType = classifyHitType(attackerEntityRef);
+
         // Register attacker as a threat on the victim's brain (with attack type classification)
         // Only for player attackers — environmental damage has no attacker to track
         if (botVictim.getBrain() != null && attackerUuid != null) {
-            ThreatType attackType = ThreatType.MELEE;
-            if (attackerEntityRef != null && attackerEntityRef.isValid()) {
-                try {
-                    Store<EntityStore> attackerStore = attackerEntityRef.getStore();
-                    if (attackerStore != null) {
-                        String interaction = EntityInteractionHelper.getPrimaryInteraction(attackerEntityRef, attackerStore);
-                        EntityInteractionHelper.InteractionKind kind = EntityInteractionHelper.classifyInteraction(interaction);
-                        if (kind == EntityInteractionHelper.InteractionKind.RANGED_ATTACK) {
-                            attackType = ThreatType.RANGED;
-                        }
-                    }
-                } catch (Exception e) {
-                    // Default to MELEE
-                }
-            }
+            ThreatType attackType = hitType == CombatLog.TYPE_RANGED ? ThreatType.RANGED : ThreatType.MELEE;
             botVictim.getBrain().registerThreat(attackerUuid, attackType, damageAmount);
         }
 
@@ -470,6 +530,7 @@ public class KillDetectionSystem extends DamageEventSystem {
         // Record damage - use actual HP removed for fatal hits (not overkill damage)
         double actualDamage = died ? healthBeforeDamage : damageAmount;
         match.recordDamage(botVictim.getUniqueId(), attackerUuid, actualDamage);
+        match.logHit(attackerUuid, botVictim.getUniqueId(), actualDamage, hitType, false);
 
         if (died) {
             // Record the kill
@@ -481,6 +542,28 @@ public class KillDetectionSystem extends DamageEventSystem {
         }
     }
 
+    /**
+     * Classifies a hit for the combat log from the attacker's active primary interaction.
+     * Damage without an attacking entity (lava, fall, ...) counts as environment.
+     */
+    private byte classifyHitType(Ref<EntityStore> attackerRef) {
+        if (attackerRef == null || !attackerRef.isValid()) {
+            return CombatLog.TYPE_ENVIRONMENT;
+        }
+        try {
+            Store<EntityStore> attackerStore = attackerRef.getStore();
+            if (attackerStore != null) {
+                String interaction = EntityInteractionHelper.getPrimaryInteraction(attackerRef, attackerStore);
+                if (EntityInteractionHelper.classifyInteraction(interaction) == EntityInteractionHelper.InteractionKind.RANGED_ATTACK) {
+                    return CombatLog.TYPE_RANGED;
+                }
+            }
+        } catch (Exception e) {
+            // Default to MELEE
+        }
+        return CombatLog.TYPE_MELEE;
+    }
+
     /**
      * Gets the attacker UUID from a damage source.
      * Handles both player and bot attackers.
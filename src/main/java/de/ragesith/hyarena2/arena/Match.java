@@ -19,10 +19,12 @@ import com.hypixel.hytale.server.core.util.NotificationUtil;
 import de.ragesith.hyarena2.config.Position;
 import fi.sulku.hytale.TinyMsg;
 import de.ragesith.hyarena2.event.EventBus;
+import de.ragesith.hyarena2.event.EventChannel;
 import de.ragesith.hyarena2.event.match.MatchCreatedEvent;
 import de.ragesith.hyarena2.event.match.MatchEndedEvent;
 import de.ragesith.hyarena2.event.match.MatchFinishedEvent;
 import de.ragesith.hyarena2.event.match.MatchStartedEvent;
+import de.ragesith.hyarena2.event.match.MatchRewardsEvent;
 import de.ragesith.hyarena2.event.match.PlayerMatchRewardEvent;
 import de.ragesith.hyarena2.event.participant.ParticipantDamagedEvent;
 import de.ragesith.hyarena2.event.participant.ParticipantJoinedEvent;
@@ -55,6 +57,9 @@ public class Match {
     private final Arena arena;
     private final GameMode gameMode;
     private final EventBus eventBus;
+    // Pre-resolved channels for the per-hit / per-kill events fired from damage handling
+    private final EventChannel<ParticipantDamagedEvent> damagedEvents;
+    private final EventChannel<ParticipantKilledEvent> killedEvents;
     private final HubManager hubManager;
     private final KitManager kitManager;
     private BotManager botManager;
@@ -78,6 +83,10 @@ public class Match {
     // Pending bot queue — bots queued by Matchmaker, drained on arena world thread in tickWaiting()
     private final List<PendingBot> pendingBots = new ArrayList<>();
 
+    // Every hit of the match, summarised into damage breakdowns when the match ends
+    private final CombatLog combatLog = new CombatLog();
+    private volatile CombatSummary combatSummary;
+
     // TPS tracking — samples collected every 5s during IN_PROGRESS
     private final List<Double> tpsSamples = new ArrayList<>();
     private long tpsSampleStartTime;
@@ -96,6 +105,8 @@ public class Match {
         this.arena = arena;
         this.gameMode = gameMode;
         this.eventBus = eventBus;
+        this.damagedEvents = eventBus.channel(ParticipantDamagedEvent.class);
+        this.killedEvents = eventBus.channel(ParticipantKilledEvent.class);
         this.hubManager = hubManager;
         this.kitManager = kitManager;
         this.participants = new ConcurrentHashMap<>();
@@ -184,6 +195,7 @@ public class Match {
             participant.setSelectedKitId(kitId);
         }
         participants.put(playerUuid, participant);
+        combatLog.register(playerUuid, participant.getName());
 
         // Get spawn point (use dedicated counter to avoid index collisions)
         int spawnIndex = nextSpawnIndex % arena.getSpawnPoints().size();
@@ -291,6 +303,7 @@ public class Match {
 
         // Add bot to participants
         participants.put(bot.getUniqueId(), bot);
+        combatLog.register(bot.getUniqueId(), bot.getName());
 
         // Bots are considered "arrived" immediately since they're spawned in place
         arrivedPlayers.add(bot.getUniqueId());
@@ -577,16 +590,21 @@ public class Match {
                 .toList();
         String victoryMessage = gameMode.getVictoryMessage(arena.getConfig(), winnerParticipants);
 
-        // Fire per-player reward events BEFORE VictoryHud (VictoryHud reads lastMatchReward)
+        // Summarise the combat log before any results UI or stats handler reads it
+        combatSummary = combatLog.summarize();
+
+        // Pay out all player rewards as one batch BEFORE VictoryHud (VictoryHud reads lastMatchReward)
         if (!"wave_defense".equals(gameMode.getId())) {
             boolean hasBots = hasBotParticipants();
+            List<PlayerMatchRewardEvent> rewards = new ArrayList<>();
             for (Participant participant : getParticipants()) {
                 if (participant.getType() != ParticipantType.PLAYER) continue;
                 boolean isWinner = winners.contains(participant.getUniqueId());
-                eventBus.publish(new PlayerMatchRewardEvent(
+                rewards.add(new PlayerMatchRewardEvent(
                     participant.getUniqueId(), matchId, isWinner,
                     participant.getKills(), hasBots));
             }
+            eventBus.publish(new MatchRewardsEvent(matchId, rewards));
         }
 
         // Get winner name for VictoryHud
@@ -638,17 +656,22 @@ public class Match {
         String victoryMessage = "<color:#f39c12>Time's up!</color> " +
             gameMode.getVictoryMessage(arena.getConfig(), winnerParticipants);
 
-        // Fire per-player reward events BEFORE VictoryHud (VictoryHud reads lastMatchReward)
+        // Summarise the combat log before any results UI or stats handler reads it
+        combatSummary = combatLog.summarize();
+
+        // Pay out all player rewards as one batch BEFORE VictoryHud (VictoryHud reads lastMatchReward)
         if (!"wave_defense".equals(gameMode.getId())) {
             boolean hasBots = hasBotParticipants();
             boolean isMinigame = gameMode.getCategory() == GameMode.GameModeCategory.MINIGAME;
+            List<PlayerMatchRewardEvent> rewards = new ArrayList<>();
             for (Participant participant : getParticipants()) {
                 if (participant.getType() != ParticipantType.PLAYER) continue;
                 boolean isWinner = winners.contains(participant.getUniqueId());
-                eventBus.publish(new PlayerMatchRewardEvent(
+                rewards.add(new PlayerMatchRewardEvent(
                     participant.getUniqueId(), matchId, isWinner,
                     participant.getKills(), hasBots, isMinigame));
             }
+            eventBus.publish(new MatchRewardsEvent(matchId, rewards));
         }
 
         String winnerName = winnerParticipants.isEmpty() ? null : winnerParticipants.get(0).getName();
@@ -851,7 +874,7 @@ public class Match {
         gameMode.onParticipantDamaged(arena.getConfig(), victim, attacker, damage);
 
         // Fire damage event
-        eventBus.publish(new ParticipantDamagedEvent(matchId, victim, attacker, damage));
+        damagedEvents.publish(new ParticipantDamagedEvent(matchId, victim, attacker, damage));
 
         // Send damage notifications
         int dmg = (int) Math.round(damage);
@@ -878,6 +901,17 @@ public class Match {
         return false;
     }
 
+    /**
+     * Logs a hit in the match combat log. Blocked hits are logged with the damage they would have dealt.
+     * Unlike recordDamage, this also accepts the fatal hit on an already-dead bot victim.
+     */
+    public void logHit(UUID attackerUuid, UUID victimUuid, double damage, byte hitType, boolean blocked) {
+        if (state != MatchState.IN_PROGRESS) {
+            return;
+        }
+        combatLog.record(tickCount, attackerUuid, victimUuid, (float) damage, hitType, blocked);
+    }
+
     private static final long LAST_HIT_ATTRIBUTION_WINDOW_MS = 10_000; // 10 seconds
 
     /**
@@ -906,7 +940,7 @@ public class Match {
         boolean shouldEnd = gameMode.onParticipantKilled(arena.getConfig(), victim, killer, getParticipants());
 
         // Fire kill event
-        eventBus.publish(new ParticipantKilledEvent(matchId, victim, killer));
+        killedEvents.publish(new ParticipantKilledEvent(matchId, victim, killer));
 
         // Broadcast kill message
         if (killer != null) {
@@ -1028,7 +1062,7 @@ public class Match {
         // Drain pending bots (spawns them on this world thread)
         drainPendingBots();
 
-        // Tick bots for freeze enforcement
+        // Tick bots (pre-match drift watchdog only — bots are frozen by effect)
         if (botManager != null) {
             botManager.tickBotsForMatch(this);
         }
@@ -1043,7 +1077,7 @@ public class Match {
     }
 
     private void tickStarting() {
-        // Tick bots for freeze enforcement
+        // Tick bots (pre-match drift watchdog only — bots are frozen by effect)
         if (botManager != null) {
             botManager.tickBotsForMatch(this);
         }
@@ -1531,6 +1565,20 @@ public class Match {
         }
     }
 
+    /**
+     * Gets the combat log recording every hit of this match.
+     */
+    public CombatLog getCombatLog() {
+        return combatLog;
+    }
+
+    /**
+     * Gets the damage breakdown built when the match ended, or null while it is still running.
+     */
+    public CombatSummary getCombatSummary() {
+        return combatSummary;
+    }
+
     /**
      * Gets the tick count since IN_PROGRESS started.
      * Used by MatchHud for elapsed time display.
@@ -29,6 +29,7 @@ import de.ragesith.hyarena2.utils.ArenaCleanupUtil;
 import java.io.File;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manages all active matches, arena loading, and match lifecycle.
@@ -49,6 +50,10 @@ public class MatchManager {
     private final Map<UUID, UUID> playerToMatch; // Player UUID -> Match UUID
     private final Map<String, GameMode> gameModes;
 
+    // Names of worlds hosting at least one arena — rebuilt whenever the arena map changes
+    private volatile Set<String> arenaWorldNames = Set.of();
+    private final AtomicInteger arenaWorldsVersion = new AtomicInteger();
+
     private static final long TICK_INTERVAL_MS = 50; // 20 TPS
     private Timer tickTimer;
 
@@ -139,6 +144,7 @@ public class MatchManager {
      */
     public void initialize() {
         loadArenas();
+        rebuildArenaWorlds();
         startTicker();
         System.out.println("MatchManager initialized with " + arenas.size() + " arenas");
     }
@@ -276,6 +282,7 @@ public class MatchManager {
         // Update runtime map
         Arena arena = new Arena(config);
         arenas.put(config.getId(), arena);
+        rebuildArenaWorlds();
 
         System.out.println("[MatchManager] Saved arena: " + config.getDisplayName() + " (" + config.getId() + ")");
         return true;
@@ -299,6 +306,7 @@ public class MatchManager {
 
         // Remove from runtime map
         arenas.remove(arenaId);
+        rebuildArenaWorlds();
 
         if (deleted) {
             System.out.println("[MatchManager] Deleted arena: " + arenaId);
@@ -313,9 +321,40 @@ public class MatchManager {
     public void reloadArenas() {
         arenas.clear();
         loadArenas();
+        rebuildArenaWorlds();
         System.out.println("[MatchManager] Reloaded " + arenas.size() + " arenas");
     }
 
+    /**
+     * Recomputes the set of worlds that host arenas.
+     */
+    private void rebuildArenaWorlds() {
+        Set<String> names = new HashSet<>();
+        for (Arena arena : arenas.values()) {
+            String worldName = arena.getConfig().getWorldName();
+            if (worldName != null) {
+                names.add(worldName);
+            }
+        }
+        arenaWorldNames = Set.copyOf(names);
+        arenaWorldsVersion.incrementAndGet();
+    }
+
+    /**
+     * Checks if a world hosts at least one arena.
+     */
+    public boolean isArenaWorld(String worldName) {
+        return worldName != null && arenaWorldNames.contains(worldName);
+    }
+
+    /**
+     * Gets a counter that changes whenever the set of arena worlds changes.
+     * Lets callers cache per-world arena checks.
+     */
+    public int getArenaWorldsVersion() {
+        return arenaWorldsVersion.get();
+    }
+
     /**
      * Gets an arena by ID.
      */
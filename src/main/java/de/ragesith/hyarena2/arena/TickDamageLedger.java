@@ -0,0 +1,154 @@
+package de.ragesith.hyarena2.arena;
+
+import java.util.UUID;
+
+/**
+ * Per-world, per-tick damage accumulator for multi-hit same-tick kill detection.
+ * Open-addressing table keyed by victim UUID with primitive float columns.
+ *
+ * <p>Every slot is stamped with the world tick it was written in. A slot stamped with an
+ * older tick counts as empty, so moving to a new tick needs no clearing pass and the table
+ * never mixes damage from different ticks. Not thread-safe — one ledger per world store,
+ * used only on that world's thread.
+ */
+class TickDamageLedger {
+    private static final int INITIAL_CAPACITY = 32; // power of two
+
+    private long[] msb;
+    private long[] lsb;
+    private long[] stamps;
+    private float[] baseHealth;
+    private float[] accumulated;
+    private int mask;
+    private int size;
+
+    // Stamp of the current tick (tick + 1, so zeroed slots never match a non-negative world tick)
+    private long currentStamp = Long.MIN_VALUE;
+
+    TickDamageLedger() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Moves the ledger to the given world tick. A no-op when still in the same tick.
+     */
+    void beginTick(long tick) {
+        long stamp = tick + 1;
+        if (stamp != currentStamp) {
+            currentStamp = stamp;
+            size = 0;
+        }
+    }
+
+    /**
+     * Gets the victim's effective health this tick: the health seen on the first hit this
+     * tick minus all damage already let through. Seeds the entry on first access.
+     */
+    float effectiveHealth(UUID victim, float currentHealth) {
+        int slot = slotFor(victim);
+        if (Float.isNaN(baseHealth[slot])) {
+            baseHealth[slot] = currentHealth;
+            accumulated[slot] = 0f;
+        }
+        return baseHealth[slot] - accumulated[slot];
+    }
+
+    /**
+     * Records damage let through to the victim this tick.
+     */
+    void addDamage(UUID victim, float amount) {
+        int slot = slotFor(victim);
+        if (Float.isNaN(baseHealth[slot])) {
+            return; // Not seeded — effectiveHealth() is always called first
+        }
+        accumulated[slot] += amount;
+    }
+
+    /**
+     * Re-seeds the victim's base health (e.g. after a spar heal) and clears accumulated damage.
+     */
+    void reset(UUID victim, float health) {
+        int slot = slotFor(victim);
+        baseHealth[slot] = health;
+        accumulated[slot] = 0f;
+    }
+
+    /**
+     * Forgets the victim for the rest of this tick; the next hit re-seeds from live health.
+     */
+    void forget(UUID victim) {
+        int slot = slotFor(victim);
+        baseHealth[slot] = Float.NaN;
+        accumulated[slot] = 0f;
+    }
+
+    /**
+     * Finds or claims the slot for a victim in the current tick.
+     */
+    private int slotFor(UUID victim) {
+        long hi = victim.getMostSignificantBits();
+        long lo = victim.getLeastSignificantBits();
+        int slot = mix(hi ^ lo) & mask;
+
+        while (stamps[slot] == currentStamp) {
+            if (msb[slot] == hi && lsb[slot] == lo) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if ((size + 1) * 2 > msb.length) {
+            grow();
+            return slotFor(victim);
+        }
+
+        stamps[slot] = currentStamp;
+        msb[slot] = hi;
+        lsb[slot] = lo;
+        baseHealth[slot] = Float.NaN;
+        accumulated[slot] = 0f;
+        size++;
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldMsb = msb;
+        long[] oldLsb = lsb;
+        long[] oldStamps = stamps;
+        float[] oldBase = baseHealth;
+        float[] oldAccum = accumulated;
+
+        allocate(oldMsb.length * 2);
+        size = 0;
+
+        for (int i = 0; i < oldMsb.length; i++) {
+            if (oldStamps[i] != currentStamp) continue;
+            int slot = mix(oldMsb[i] ^ oldLsb[i]) & mask;
+            while (stamps[slot] == currentStamp) {
+                slot = (slot + 1) & mask;
+            }
+            stamps[slot] = currentStamp;
+            msb[slot] = oldMsb[i];
+            lsb[slot] = oldLsb[i];
+            baseHealth[slot] = oldBase[i];
+            accumulated[slot] = oldAccum[i];
+            size++;
+        }
+    }
+
+    private void allocate(int capacity) {
+        msb = new long[capacity];
+        lsb = new long[capacity];
+        stamps = new long[capacity];
+        baseHealth = new float[capacity];
+        accumulated = new float[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int mix(long h) {
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        return (int) h;
+    }
+}
@@ -0,0 +1,101 @@
+package de.ragesith.hyarena2.arena;
+
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-world state used by KillDetectionSystem: the same-tick damage ledger, whether the
+ * world hosts an arena, and a cache of player/bot victim classifications per entity ref.
+ * Only accessed on the owning world's thread.
+ */
+class WorldDamageContext {
+
+    /**
+     * What kind of entity a damage victim is, as far as the arena is concerned.
+     */
+    enum VictimKind {
+        PLAYER,
+        BOT,
+        DUMMY,
+        OTHER
+    }
+
+    /**
+     * Cached classification of one victim entity.
+     * For players {@code uuid} is the player UUID, for bots it is the NPC entity UUID.
+     */
+    static final class Victim {
+        final VictimKind kind;
+        final UUID uuid;
+
+        Victim(VictimKind kind, UUID uuid) {
+            this.kind = kind;
+            this.uuid = uuid;
+        }
+    }
+
+    // Prune refs of removed entities once the cache grows past this size
+    private static final int VICTIM_CACHE_PRUNE_SIZE = 256;
+
+    private final TickDamageLedger ledger = new TickDamageLedger();
+    private final Map<Ref<EntityStore>, Victim> victims = new HashMap<>();
+
+    private final String worldName;
+    private boolean arenaWorld;
+    private int arenaWorldsVersion = -1;
+
+    WorldDamageContext(String worldName) {
+        this.worldName = worldName;
+    }
+
+    String getWorldName() {
+        return worldName;
+    }
+
+    TickDamageLedger getLedger() {
+        return ledger;
+    }
+
+    /**
+     * Checks if this world hosts an arena, re-evaluating only when the arena set changed.
+     */
+    boolean isArenaWorld(MatchManager matchManager) {
+        int version = matchManager.getArenaWorldsVersion();
+        if (version != arenaWorldsVersion) {
+            arenaWorld = matchManager.isArenaWorld(worldName);
+            arenaWorldsVersion = version;
+        }
+        return arenaWorld;
+    }
+
+    Victim getVictim(Ref<EntityStore> ref) {
+        return victims.get(ref);
+    }
+
+    /**
+     * Caches a player or bot classification. Other kinds are not cached: a bot's NPC can take
+     * damage before it is registered with the BotManager, and would otherwise stay OTHER.
+     */
+    void putVictim(Ref<EntityStore> ref, Victim victim) {
+        if (victim.kind != VictimKind.PLAYER && victim.kind != VictimKind.BOT) {
+            return;
+        }
+        if (victims.size() >= VICTIM_CACHE_PRUNE_SIZE) {
+            Iterator<Ref<EntityStore>> it = victims.keySet().iterator();
+            while (it.hasNext()) {
+                if (!it.next().isValid()) {
+                    it.remove();
+                }
+            }
+            if (victims.size() >= VICTIM_CACHE_PRUNE_SIZE) {
+                victims.clear();
+            }
+        }
+        victims.put(ref, victim);
+    }
+}
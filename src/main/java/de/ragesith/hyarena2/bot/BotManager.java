@@ -1,7 +1,5 @@
 package de.ragesith.hyarena2.bot;
 
-import com.hypixel.hytale.component.AddReason;
-import com.hypixel.hytale.component.Holder;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.component.RemoveReason;
 import com.hypixel.hytale.component.Store;
@@ -9,12 +7,8 @@ import com.hypixel.hytale.math.vector.Vector3d;
 import com.hypixel.hytale.math.vector.Vector3f;
 import com.hypixel.hytale.server.core.asset.type.attitude.Attitude;
 import com.hypixel.hytale.server.core.entity.UUIDComponent;
-import com.hypixel.hytale.server.core.entity.entities.ProjectileComponent;
 import com.hypixel.hytale.server.core.entity.nameplate.Nameplate;
-import com.hypixel.hytale.server.core.entity.movement.MovementStatesComponent;
-import com.hypixel.hytale.server.core.modules.entity.component.Intangible;
 import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
-import com.hypixel.hytale.server.core.modules.entity.tracker.NetworkId;
 import com.hypixel.hytale.server.core.modules.entitystats.EntityStatMap;
 import com.hypixel.hytale.server.core.modules.entitystats.EntityStatValue;
 import com.hypixel.hytale.server.core.modules.entitystats.EntityStatsModule;
@@ -32,6 +26,7 @@ import com.hypixel.hytale.server.npc.role.support.WorldSupport;
 import de.ragesith.hyarena2.arena.Arena;
 import de.ragesith.hyarena2.arena.ArenaConfig;
 import de.ragesith.hyarena2.arena.Match;
+import de.ragesith.hyarena2.arena.CombatLog;
 import de.ragesith.hyarena2.arena.MatchState;
 import de.ragesith.hyarena2.config.Position;
 import de.ragesith.hyarena2.event.EventBus;
@@ -40,6 +35,7 @@ import de.ragesith.hyarena2.participant.Participant;
 import de.ragesith.hyarena2.participant.ParticipantType;
 
 import de.ragesith.hyarena2.utils.EntityInteractionHelper;
+import de.ragesith.hyarena2.utils.PlayerMovementControl;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -85,8 +81,8 @@ public class BotManager {
     // Tracks previous tick's attacking state per bot for edge detection (fire damage on false→true)
     private final Map<UUID, Boolean> wasAttacking = new ConcurrentHashMap<>();
 
-    // One invisible marker entity per bot (for objective navigation with individual offsets)
-    private final Map<UUID, Ref<EntityStore>> objectiveMarkers = new ConcurrentHashMap<>();
+    // Shared objective marker pool per match (match UUID -> pool), markers keyed by quantised target cell
+    private final Map<UUID, ObjectiveMarkerPool> markerPools = new ConcurrentHashMap<>();
 
     // Random XZ offset per bot within zone bounds (so bots don't stack on the same point)
     private final Map<UUID, double[]> botZoneOffsets = new ConcurrentHashMap<>();
@@ -124,6 +120,14 @@ public class BotManager {
     // Per-bot visited waypoint indices — prevents oscillation around reached waypoints
     private final Map<UUID, Set<Integer>> visitedWaypoints = new ConcurrentHashMap<>();
 
+    // Bots frozen at spawn via movement-control effect during WAITING/STARTING (applied once, not per tick)
+    private final Set<UUID> frozenBots = ConcurrentHashMap.newKeySet();
+
+    // Pre-match drift watchdog — ticks since last check per match
+    private final Map<UUID, Integer> freezeWatchdogTicks = new ConcurrentHashMap<>();
+    private static final int FREEZE_WATCHDOG_INTERVAL = 20; // 1 second at 20 TPS
+    private static final double FREEZE_DRIFT_TOLERANCE = 0.5;
+
     public void setUseBrainAI(boolean use) { this.useBrainAI = use; }
     public boolean isUsingBrainAI() { return useBrainAI; }
 
@@ -230,7 +234,7 @@ public class BotManager {
                 if (botMatch != null) {
                     MatchState matchState = botMatch.getState();
                     if (matchState == MatchState.WAITING || matchState == MatchState.STARTING) {
-                        freezeBotAtSpawn(bot, store);
+                        freezeBot(bot, store);
                     }
                 }
 
@@ -323,6 +327,7 @@ public class BotManager {
         }
 
         UUID respawnId = bot.getUniqueId();
+        frozenBots.remove(respawnId);
         botNpcState.remove(respawnId);
         strafeState.remove(respawnId);
         visitedWaypoints.remove(respawnId);
@@ -378,12 +383,11 @@ public class BotManager {
 
         despawnBotEntity(bot);
 
-        Ref<EntityStore> marker = objectiveMarkers.remove(botId);
-        if (marker != null && marker.isValid()) {
-            try {
-                marker.getStore().removeEntity(marker, RemoveReason.REMOVE);
-            } catch (Exception e) {
-                // Ignore
+        Match match = botMatches.get(botId);
+        if (match != null) {
+            ObjectiveMarkerPool pool = markerPools.get(match.getMatchId());
+            if (pool != null) {
+                pool.release(botId);
             }
         }
         botZoneOffsets.remove(botId);
@@ -391,6 +395,7 @@ public class BotManager {
         activeBots.remove(botId);
         botMatches.remove(botId);
         wasAttacking.remove(botId);
+        frozenBots.remove(botId);
         botNpcState.remove(botId);
         strafeState.remove(botId);
         visitedWaypoints.remove(botId);
@@ -448,13 +453,27 @@ public class BotManager {
 
         System.out.println("[BotManager] Despawning " + toRemove.size() + " bots from match " + matchId);
         toRemove.forEach(this::despawnBot);
+
+        ObjectiveMarkerPool pool = markerPools.remove(matchId);
+        if (pool != null) {
+            pool.clear();
+        }
+        freezeWatchdogTicks.remove(matchId);
     }
 
     /**
      * Ticks all bots belonging to a specific match.
+     * During WAITING/STARTING bots are frozen by effect, so only the drift watchdog runs.
      * MUST be called on the arena world thread (from Match.tick()).
      */
     public void tickBotsForMatch(Match match) {
+        MatchState state = match.getState();
+        if (state == MatchState.WAITING || state == MatchState.STARTING) {
+            watchFrozenBots(match);
+            return;
+        }
+        freezeWatchdogTicks.remove(match.getMatchId());
+
         for (Participant p : match.getParticipants()) {
             if (p.getType() != ParticipantType.BOT) continue;
             BotParticipant bot = activeBots.get(p.getUniqueId());
@@ -488,13 +507,10 @@ public class BotManager {
             return;
         }
 
-        syncBotPosition(bot, store);
+        // Match.beginGameplay() cleared the freeze effect — drop pre-match tracking
+        frozenBots.remove(bot.getUniqueId());
 
-        MatchState state = match.getState();
-        if (state == MatchState.WAITING || state == MatchState.STARTING) {
-            freezeBotAtSpawn(bot, store);
-            return;
-        }
+        syncBotPosition(bot, store);
 
         BotAI ai = bot.getAI();
         if (ai != null) {
@@ -518,25 +534,18 @@ public class BotManager {
         applyBotCombatDamage(bot, match);
     }
 
-    private void freezeBotAtSpawn(BotParticipant bot, Store<EntityStore> store) {
+    /**
+     * Freezes a bot at its spawn once: applies the movement-control freeze effect,
+     * clears its NPC target and snaps it back to the spawn point.
+     */
+    private void freezeBot(BotParticipant bot, Store<EntityStore> store) {
         Ref<EntityStore> entityRef = bot.getEntityRef();
-        Position spawn = bot.getSpawnPosition();
-        if (entityRef == null || !entityRef.isValid() || spawn == null) {
+        if (entityRef == null || !entityRef.isValid()) {
             return;
         }
 
         try {
-            TransformComponent transform = store.getComponent(entityRef, TransformComponent.getComponentType());
-            if (transform != null) {
-                Vector3d spawnVec = new Vector3d(spawn.getX(), spawn.getY(), spawn.getZ());
-                Vector3d currentPos = transform.getPosition();
-
-                double distance = currentPos.distanceTo(spawnVec);
-                if (distance > 0.5) {
-                    transform.setPosition(spawnVec);
-                    bot.setCurrentPosition(spawn.copy());
-                }
-            }
+            PlayerMovementControl.disableMovementForEntity(entityRef, store);
 
             NPCEntity npcEntity = bot.getNpcEntity();
             if (npcEntity != null) {
@@ -548,12 +557,77 @@ public class BotManager {
                     }
                 }
             }
+
+            snapBackToSpawn(bot, store);
+            frozenBots.add(bot.getUniqueId());
         } catch (Exception e) {
-            System.err.println("[BotManager] freezeBotAtSpawn() error for " + bot.getName() + ": " + e.getMessage());
+            System.err.println("[BotManager] freezeBot() error for " + bot.getName() + ": " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Low-frequency pre-match watchdog. Freezes bots that missed the spawn-time freeze and
+     * snaps drifted bots back to spawn, once every FREEZE_WATCHDOG_INTERVAL ticks. A frozen bot
+     * can only drift if its freeze effect is gone (expired or cleared), so drift re-applies it.
+     */
+    private void watchFrozenBots(Match match) {
+        int ticks = freezeWatchdogTicks.merge(match.getMatchId(), 1, Integer::sum);
+        if (ticks < FREEZE_WATCHDOG_INTERVAL) {
+            return;
+        }
+        freezeWatchdogTicks.put(match.getMatchId(), 0);
+
+        for (Participant p : match.getParticipants()) {
+            if (p.getType() != ParticipantType.BOT) continue;
+            BotParticipant bot = activeBots.get(p.getUniqueId());
+            if (bot == null || !bot.isAlive()) continue;
+
+            Ref<EntityStore> entityRef = bot.getEntityRef();
+            if (entityRef == null || !entityRef.isValid()) continue;
+            Store<EntityStore> store = entityRef.getStore();
+            if (store == null) continue;
+
+            if (!frozenBots.contains(bot.getUniqueId())) {
+                freezeBot(bot, store);
+            } else if (snapBackToSpawn(bot, store)) {
+                try {
+                    PlayerMovementControl.disableMovementForEntity(entityRef, store);
+                } catch (Exception e) {
+                    System.err.println("[BotManager] Failed to re-freeze " + bot.getName() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Teleports the bot back to its spawn point if it drifted beyond the tolerance.
+     *
+     * @return true if the bot had drifted and was moved back
+     */
+    private boolean snapBackToSpawn(BotParticipant bot, Store<EntityStore> store) {
+        Ref<EntityStore> entityRef = bot.getEntityRef();
+        Position spawn = bot.getSpawnPosition();
+        if (entityRef == null || !entityRef.isValid() || spawn == null) {
+            return false;
+        }
+
+        try {
+            TransformComponent transform = store.getComponent(entityRef, TransformComponent.getComponentType());
+            if (transform != null) {
+                Vector3d spawnVec = new Vector3d(spawn.getX(), spawn.getY(), spawn.getZ());
+                if (transform.getPosition().distanceTo(spawnVec) > FREEZE_DRIFT_TOLERANCE) {
+                    transform.setPosition(spawnVec);
+                    bot.setCurrentPosition(spawn.copy());
+                    return true;
+                }
+            }
+        } catch (Exception e) {
+            // Entity may have been removed
+        }
+        return false;
+    }
+
     private void syncBotPosition(BotParticipant bot, Store<EntityStore> store) {
         Ref<EntityStore> entityRef = bot.getEntityRef();
         if (entityRef == null || !entityRef.isValid()) {
@@ -1033,46 +1107,25 @@ public class BotManager {
         return horizontalDist + yDiff * yDiff * NAV_Y_PENALTY;
     }
 
+    /**
+     * Gets the shared objective marker for the target's cell from the bot's match pool.
+     */
     private Ref<EntityStore> getOrCreateObjectiveMarker(UUID botId, Position target, Store<EntityStore> store) {
-        Ref<EntityStore> existing = objectiveMarkers.get(botId);
-
-        if (existing != null && existing.isValid()) {
-            try {
-                TransformComponent t = store.getComponent(existing, TransformComponent.getComponentType());
-                if (t != null) {
-                    t.setPosition(new Vector3d(target.getX(), target.getY(), target.getZ()));
-                }
-            } catch (Exception e) {
-                // Ignore
-            }
-            return existing;
-        }
-
-        try {
-            Holder<EntityStore> holder = EntityStore.REGISTRY.newHolder();
-            ProjectileComponent proj = new ProjectileComponent("Projectile");
-            holder.putComponent(ProjectileComponent.getComponentType(), proj);
-            holder.putComponent(TransformComponent.getComponentType(),
-                new TransformComponent(
-                    new Vector3d(target.getX(), target.getY(), target.getZ()),
-                    new Vector3f(0, 0, 0)));
-            holder.ensureComponent(UUIDComponent.getComponentType());
-            holder.ensureComponent(Intangible.getComponentType());
-            holder.ensureComponent(MovementStatesComponent.getComponentType());
-            holder.addComponent(NetworkId.getComponentType(),
-                new NetworkId(store.getExternalData().takeNextNetworkId()));
-            proj.initialize();
-
-            Ref<EntityStore> ref = store.addEntity(holder, AddReason.SPAWN);
-            if (ref != null) {
-                objectiveMarkers.put(botId, ref);
-                System.out.println("[BotManager] Spawned objective marker for bot " + botId);
-            }
-            return ref;
-        } catch (Exception e) {
-            System.err.println("[BotManager] Failed to spawn objective marker: " + e.getMessage());
+        Match match = botMatches.get(botId);
+        if (match == null) {
             return null;
         }
+
+        ObjectiveMarkerPool pool = markerPools.computeIfAbsent(match.getMatchId(), k -> new ObjectiveMarkerPool());
+        return pool.acquire(botId, target, store);
+    }
+
+    /**
+     * Gets the number of objective marker entities currently alive for a match.
+     */
+    public int getObjectiveMarkerCount(UUID matchId) {
+        ObjectiveMarkerPool pool = markerPools.get(matchId);
+        return pool != null ? pool.getMarkerCount() : 0;
     }
 
     // ========== Combat Damage ==========
@@ -1136,15 +1189,6 @@ public class BotManager {
         // Prevent wave enemy bots from damaging each other
         if (attacker.isWaveEnemy() && victimBot.isWaveEnemy()) return;
 
-        // Block only negates damage from the front — attacks from behind go through
-        if (isBlocking(victimBot)) {
-            Position victimPos = victimBot.getCurrentPosition();
-            Position attackerPos = attacker.getCurrentPosition();
-            if (victimPos != null && attackerPos != null && BotBrain.isInFront(victimPos, attackerPos)) {
-                return;
-            }
-        }
-
         double damage = attacker.getDifficulty().getBaseDamage();
 
         // Classify attacker's interaction type for threat registration
@@ -1164,9 +1208,23 @@ public class BotManager {
         } catch (Exception e) {
             // Default to MELEE
         }
+        byte hitType = attackType == ThreatType.RANGED ? CombatLog.TYPE_RANGED : CombatLog.TYPE_MELEE;
+
+        // Block only negates damage from the front — attacks from behind go through
+        if (isBlocking(victimBot)) {
+            Position victimPos = victimBot.getCurrentPosition();
+            Position attackerPos = attacker.getCurrentPosition();
+            if (victimPos != null && attackerPos != null && BotBrain.isInFront(victimPos, attackerPos)) {
+                match.logHit(attackerId, victimBot.getUniqueId(), damage, hitType, true);
+                return;
+            }
+        }
 
+        double healthBeforeDamage = victimBot.getHealth();
         boolean died = victimBot.takeDamage(damage);
         attacker.addDamageDealt(damage);
+        // Combat log gets the HP actually removed on a fatal hit, not the overkill
+        match.logHit(attackerId, victimBot.getUniqueId(), died ? healthBeforeDamage : damage, hitType, false);
 
         BotBrain victimBrain = victimBot.getBrain();
         if (victimBrain != null) {
@@ -0,0 +1,227 @@
+package de.ragesith.hyarena2.bot;
+
+import com.hypixel.hytale.component.AddReason;
+import com.hypixel.hytale.component.Holder;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.RemoveReason;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+import com.hypixel.hytale.server.core.entity.UUIDComponent;
+import com.hypixel.hytale.server.core.entity.entities.ProjectileComponent;
+import com.hypixel.hytale.server.core.entity.movement.MovementStatesComponent;
+import com.hypixel.hytale.server.core.modules.entity.component.Intangible;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.modules.entity.tracker.NetworkId;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import de.ragesith.hyarena2.config.Position;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shared pool of invisible marker entities used as NPC follow targets for one match.
+ * Targets are quantised to a grid cell; every bot heading to the same cell follows the
+ * same marker. Markers whose last bot moved on are parked and re-positioned for the
+ * next cell instead of spawning a new networked entity.
+ * Must only be used from the arena world thread.
+ */
+public class ObjectiveMarkerPool {
+
+    // Cell edge length in blocks — bots targeting points within the same cell share a marker
+    private static final double CELL_SIZE = 2.0;
+
+    // Parked markers kept for reuse; anything beyond this is removed from the world
+    private static final int MAX_IDLE_MARKERS = 4;
+
+    // Bits per axis when packing cell coordinates into a long key
+    private static final int AXIS_BITS = 21;
+    private static final long AXIS_MASK = (1L << AXIS_BITS) - 1;
+
+    private final Map<Long, Marker> activeMarkers = new HashMap<>();
+    private final Map<UUID, Marker> botLeases = new HashMap<>();
+    private final ArrayDeque<Ref<EntityStore>> idleMarkers = new ArrayDeque<>();
+
+    /**
+     * Gets the shared marker for the cell containing the target, leasing it to the bot.
+     * Releases the bot's previous lease if it pointed at a different cell.
+     *
+     * @return the marker entity, or null if it could not be spawned
+     */
+    public Ref<EntityStore> acquire(UUID botId, Position target, Store<EntityStore> store) {
+        long cellKey = cellKey(target);
+
+        Marker current = botLeases.get(botId);
+        if (current != null) {
+            if (current.cellKey == cellKey && current.ref.isValid()) {
+                return current.ref;
+            }
+            release(botId);
+        }
+
+        Marker marker = activeMarkers.get(cellKey);
+        if (marker != null && !marker.ref.isValid()) {
+            activeMarkers.remove(cellKey);
+            marker = null;
+        }
+
+        if (marker == null) {
+            Ref<EntityStore> ref = takeIdleMarker(cellKey, store);
+            if (ref == null) {
+                ref = spawnMarker(cellKey, store);
+            }
+            if (ref == null) {
+                return null;
+            }
+            marker = new Marker(cellKey, ref);
+            activeMarkers.put(cellKey, marker);
+        }
+
+        marker.leases++;
+        botLeases.put(botId, marker);
+        return marker.ref;
+    }
+
+    /**
+     * Releases a bot's lease. The marker is parked for reuse once no bot follows it.
+     */
+    public void release(UUID botId) {
+        Marker marker = botLeases.remove(botId);
+        if (marker == null) {
+            return;
+        }
+
+        marker.leases--;
+        if (marker.leases > 0) {
+            return;
+        }
+
+        activeMarkers.remove(marker.cellKey);
+        if (!marker.ref.isValid()) {
+            return;
+        }
+
+        if (idleMarkers.size() < MAX_IDLE_MARKERS) {
+            idleMarkers.push(marker.ref);
+        } else {
+            removeMarker(marker.ref);
+        }
+    }
+
+    /**
+     * Removes every marker entity owned by this pool (match end).
+     */
+    public void clear() {
+        int removed = 0;
+        for (Marker marker : activeMarkers.values()) {
+            if (removeMarker(marker.ref)) removed++;
+        }
+        for (Ref<EntityStore> ref : idleMarkers) {
+            if (removeMarker(ref)) removed++;
+        }
+        activeMarkers.clear();
+        botLeases.clear();
+        idleMarkers.clear();
+
+        if (removed > 0) {
+            System.out.println("[ObjectiveMarkerPool] Cleared " + removed + " objective marker(s)");
+        }
+    }
+
+    /**
+     * Gets the number of marker entities currently owned by this pool (active + parked).
+     */
+    public int getMarkerCount() {
+        return activeMarkers.size() + idleMarkers.size();
+    }
+
+    private Ref<EntityStore> takeIdleMarker(long cellKey, Store<EntityStore> store) {
+        Iterator<Ref<EntityStore>> it = idleMarkers.iterator();
+        while (it.hasNext()) {
+            Ref<EntityStore> ref = it.next();
+            it.remove();
+            if (!ref.isValid()) {
+                continue;
+            }
+            try {
+                TransformComponent t = store.getComponent(ref, TransformComponent.getComponentType());
+                if (t != null) {
+                    t.setPosition(cellCenter(cellKey));
+                    return ref;
+                }
+            } catch (Exception e) {
+                // Stale marker — fall through to the next one
+            }
+        }
+        return null;
+    }
+
+    private Ref<EntityStore> spawnMarker(long cellKey, Store<EntityStore> store) {
+        try {
+            Holder<EntityStore> holder = EntityStore.REGISTRY.newHolder();
+            ProjectileComponent proj = new ProjectileComponent("Projectile");
+            holder.putComponent(ProjectileComponent.getComponentType(), proj);
+            holder.putComponent(TransformComponent.getComponentType(),
+                new TransformComponent(cellCenter(cellKey), new Vector3f(0, 0, 0)));
+            holder.ensureComponent(UUIDComponent.getComponentType());
+            holder.ensureComponent(Intangible.getComponentType());
+            holder.ensureComponent(MovementStatesComponent.getComponentType());
+            holder.addComponent(NetworkId.getComponentType(),
+                new NetworkId(store.getExternalData().takeNextNetworkId()));
+            proj.initialize();
+
+            return store.addEntity(holder, AddReason.SPAWN);
+        } catch (Exception e) {
+            System.err.println("[ObjectiveMarkerPool] Failed to spawn objective marker: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean removeMarker(Ref<EntityStore> ref) {
+        if (ref == null || !ref.isValid()) {
+            return false;
+        }
+        try {
+            ref.getStore().removeEntity(ref, RemoveReason.REMOVE);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Packs the target's grid cell into a single long (21 bits per axis, two's complement).
+     */
+    private static long cellKey(Position target) {
+        long cx = (long) Math.floor(target.getX() / CELL_SIZE) & AXIS_MASK;
+        long cy = (long) Math.floor(target.getY() / CELL_SIZE) & AXIS_MASK;
+        long cz = (long) Math.floor(target.getZ() / CELL_SIZE) & AXIS_MASK;
+        return (cx << (AXIS_BITS * 2)) | (cy << AXIS_BITS) | cz;
+    }
+
+    private static Vector3d cellCenter(long cellKey) {
+        return new Vector3d(
+            (unpack(cellKey >>> (AXIS_BITS * 2)) + 0.5) * CELL_SIZE,
+            (unpack(cellKey >>> AXIS_BITS) + 0.5) * CELL_SIZE,
+            (unpack(cellKey) + 0.5) * CELL_SIZE);
+    }
+
+    private static long unpack(long bits) {
+        // Sign-extend the 21-bit axis value
+        return ((bits & AXIS_MASK) << (64 - AXIS_BITS)) >> (64 - AXIS_BITS);
+    }
+
+    private static class Marker {
+        final long cellKey;
+        final Ref<EntityStore> ref;
+        int leases;
+
+        Marker(long cellKey, Ref<EntityStore> ref) {
+            this.cellKey = cellKey;
+            this.ref = ref;
+        }
+    }
+}
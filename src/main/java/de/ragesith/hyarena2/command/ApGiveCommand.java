@@ -15,6 +15,7 @@ import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import de.ragesith.hyarena2.Permissions;
 import de.ragesith.hyarena2.economy.EconomyManager;
+import de.ragesith.hyarena2.economy.PlayerDataManager;
 import de.ragesith.hyarena2.economy.PlayerEconomyData;
 import fi.sulku.hytale.TinyMsg;
 
@@ -24,14 +25,15 @@ import java.util.concurrent.CompletableFuture;
 
 /**
  * Give AP to a player. Works from both player and server console.
- * Usage: /hyapgive <playername> <amount>
+ * Offline players are reached by name if they were online recently, otherwise by UUID.
+ * Usage: /hyapgive <playername|uuid> <amount>
  */
 public class ApGiveCommand extends AbstractAsyncCommand {
 
     private final EconomyManager economyManager;
 
     private final RequiredArg<String> playerArg =
-        withRequiredArg("player", "Target player name", ArgTypes.STRING);
+        withRequiredArg("player", "Target player name or UUID", ArgTypes.STRING);
     private final RequiredArg<Integer> amountArg =
         withRequiredArg("amount", "Amount of AP to give", ArgTypes.INTEGER);
 
@@ -52,23 +54,43 @@ public class ApGiveCommand extends AbstractAsyncCommand {
             return CompletableFuture.completedFuture(null);
         }
 
-        // Look up player by name from the economy cache (thread-safe, no world thread needed)
-        UUID targetUuid = null;
-        for (PlayerEconomyData data : economyManager.getPlayerDataManager().getAllLoadedPlayers()) {
-            if (data.getPlayerName() != null && data.getPlayerName().equalsIgnoreCase(targetName)) {
-                targetUuid = data.getPlayerUuid();
-                break;
-            }
-        }
-
+        // Look up the player among online and recently seen players; a UUID also reaches anyone with stored data
+        PlayerDataManager playerDataManager = economyManager.getPlayerDataManager();
+        PlayerEconomyData known = playerDataManager.findByName(targetName);
+        UUID targetUuid = known != null ? known.getPlayerUuid() : parseUuid(targetName);
         if (targetUuid == null) {
-            context.sendMessage(Message.raw("Player '" + targetName + "' not found (must be online)."));
+            context.sendMessage(Message.raw("Player '" + targetName + "' not found (use their UUID if they have not been online recently)."));
             return CompletableFuture.completedFuture(null);
         }
 
-        // Add AP (ConcurrentHashMap-backed, safe from any thread)
-        economyManager.addArenaPoints(targetUuid, amount, "admin grant via /hyapgive");
-        int newBalance = economyManager.getArenaPoints(targetUuid);
+        return playerDataManager.loadOffline(targetUuid).thenAccept(data -> {
+            if (data == null) {
+                context.sendMessage(Message.raw("Player '" + targetName + "' has no economy data."));
+                return;
+            }
+            grant(context, targetUuid, data, amount);
+        });
+    }
+
+    private void grant(CommandContext context, UUID targetUuid, PlayerEconomyData data, int amount) {
+        String targetName = data.getPlayerName() != null ? data.getPlayerName() : targetUuid.toString();
+
+        // Add AP through the ledger (atomic per player, works for offline players in the cold cache).
+        // The balance is read under the same lock, so a concurrent payout can't skew the reported value.
+        PlayerDataManager playerDataManager = economyManager.getPlayerDataManager();
+        Integer newBalance = economyManager.getLedger().withLock(targetUuid, () -> {
+            if (!economyManager.addArenaPoints(targetUuid, amount, "admin grant via /hyapgive", null)) {
+                return null;
+            }
+            PlayerEconomyData current = playerDataManager.getDataOrOffline(targetUuid);
+            return (current != null ? current : data).getArenaPoints();
+        });
+        if (newBalance == null) {
+            // The cold cache evicted the player between loading and granting
+            context.sendMessage(Message.raw("Could not give AP to " + targetName + ": their data is no longer loaded. Try again."));
+            return;
+        }
+        playerDataManager.save(targetUuid);
 
         // Confirm to sender
         context.sendMessage(Message.raw("Gave " + amount + " AP to " + targetName + " (new balance: " + newBalance + ")"));
@@ -92,7 +114,13 @@ public class ApGiveCommand extends AbstractAsyncCommand {
                 }
             }
         }
+    }
 
-        return CompletableFuture.completedFuture(null);
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,49 @@
+package de.ragesith.hyarena2.command;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractAsyncCommand;
+import de.ragesith.hyarena2.Permissions;
+import de.ragesith.hyarena2.economy.PlayerDataManager;
+import de.ragesith.hyarena2.gamemode.SpeedRunPBManager;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Exports stored player data and speedrun PBs as readable JSON.
+ * Stored values are binary; this is the way to inspect them or feed them to external tools.
+ * Writes to export/players/{uuid}.json and export/speedrun_pbs/{uuid}/{arenaId}.json.
+ * Usage: /hydataexport
+ */
+public class DataExportCommand extends AbstractAsyncCommand {
+
+    private final PlayerDataManager playerDataManager;
+    private final SpeedRunPBManager pbManager;
+    private final Path exportDir;
+
+    public DataExportCommand(PlayerDataManager playerDataManager, SpeedRunPBManager pbManager, Path configRoot) {
+        super("hydataexport", "Export player data and PBs as JSON");
+        requirePermission(Permissions.ADMIN);
+        this.playerDataManager = playerDataManager;
+        this.pbManager = pbManager;
+        this.exportDir = configRoot.resolve("export");
+    }
+
+    @Nonnull
+    @Override
+    protected CompletableFuture<Void> executeAsync(@Nonnull CommandContext context) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                int players = playerDataManager.exportJson(exportDir.resolve("players"));
+                int pbs = pbManager.exportJson(exportDir.resolve("speedrun_pbs"));
+                context.sendMessage(Message.raw("Exported " + players + " player(s) and " + pbs + " PB(s) to " + exportDir));
+            } catch (IOException e) {
+                System.err.println("[DataExportCommand] Export failed: " + e.getMessage());
+                context.sendMessage(Message.raw("Export failed: " + e.getMessage()));
+            }
+        });
+    }
+}
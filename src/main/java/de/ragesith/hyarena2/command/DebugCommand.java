@@ -11,30 +11,45 @@ import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import de.ragesith.hyarena2.Permissions;
+import de.ragesith.hyarena2.arena.MatchManager;
 import de.ragesith.hyarena2.debug.DebugLayer;
 import de.ragesith.hyarena2.debug.DebugViewManager;
+import de.ragesith.hyarena2.event.EventBus;
+import de.ragesith.hyarena2.event.EventChannel;
+import de.ragesith.hyarena2.event.EventLane;
+import de.ragesith.hyarena2.event.HandlerStats;
 import fi.sulku.hytale.TinyMsg;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.List;
 
 /**
  * Debug visualization command.
- * Usage: /hydebug [barriers|zones|spawns|color|rainbow|mode] [value]
+ * Usage: /hydebug [barriers|zones|spawns|color|rainbow|events] [value]
  */
 public class DebugCommand extends AbstractPlayerCommand {
 
+    // Rows shown per section of /hydebug events
+    private static final int EVENT_REPORT_ROWS = 5;
+
     private final DebugViewManager debugViewManager;
+    private final MatchManager matchManager;
+    private final EventBus eventBus;
 
     private final OptionalArg<String> subcommandArg =
-        withOptionalArg("subcommand", "barriers, zones, spawns, color, rainbow, mode", ArgTypes.STRING);
+        withOptionalArg("subcommand", "barriers, zones, spawns, color, rainbow, events", ArgTypes.STRING);
     private final OptionalArg<String> valueArg =
         withOptionalArg("value", "Color hex or preset name", ArgTypes.STRING);
 
-    public DebugCommand(DebugViewManager debugViewManager) {
+    public DebugCommand(DebugViewManager debugViewManager, MatchManager matchManager, EventBus eventBus) {
         super("hydebug", "Toggle debug visualization overlays");
         requirePermission(Permissions.DEBUG);
         this.debugViewManager = debugViewManager;
+        this.matchManager = matchManager;
+        this.eventBus = eventBus;
     }
 
     @Override
@@ -110,15 +125,72 @@ public class DebugCommand extends AbstractPlayerCommand {
                     : "<color:#e74c3c>Rainbow mode OFF</color>"));
                 break;
             }
+            case "events": {
+                sendEventReport(player);
+                break;
+            }
             default: {
                 player.sendMessage(TinyMsg.parse(
                     "<color:#e74c3c>Unknown subcommand: " + subcommand + "</color>\n" +
-                    "<color:#b7cedd>Usage: /hydebug [barriers|zones|spawns|color|rainbow]</color>"));
+                    "<color:#b7cedd>Usage: /hydebug [barriers|zones|spawns|color|rainbow|events]</color>"));
                 break;
             }
         }
     }
 
+    /**
+     * Sends TPS alongside event bus metrics: busiest event types, slowest handlers, and lane backlogs.
+     */
+    private void sendEventReport(Player player) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<color:#f1c40f>TPS: ").append(String.format("%.1f", matchManager.getCurrentTps()))
+            .append("</color> <color:#b7cedd>| slow handler threshold: ")
+            .append(eventBus.getSlowHandlerThresholdMs()).append("ms</color>");
+
+        // Busiest event types
+        List<EventChannel<?>> channels = new ArrayList<>(eventBus.getChannels());
+        channels.sort(Comparator.comparingLong((EventChannel<?> c) -> c.getPublishCount()).reversed());
+        sb.append("\n<color:#f1c40f>Events (total, /s):</color>");
+        for (int i = 0; i < Math.min(EVENT_REPORT_ROWS, channels.size()); i++) {
+            EventChannel<?> channel = channels.get(i);
+            sb.append("\n<color:#b7cedd>  ").append(channel.getEventType().getSimpleName()).append(": ")
+                .append(channel.getPublishCount()).append(", ")
+                .append(String.format("%.1f", channel.getPublishRate())).append("</color>");
+        }
+
+        // Slowest handlers by p99
+        List<HandlerStats> handlers = new ArrayList<>(eventBus.getHandlerStats());
+        handlers.removeIf(h -> h.getInvocationCount() == 0);
+        handlers.sort(Comparator.comparingLong((HandlerStats h) -> h.getPercentileNanos(99)).reversed());
+        sb.append("\n<color:#f1c40f>Handlers (calls, p50/p99/max ms, slow):</color>");
+        for (int i = 0; i < Math.min(EVENT_REPORT_ROWS, handlers.size()); i++) {
+            HandlerStats h = handlers.get(i);
+            String color = h.getSlowInvocationCount() > 0 ? "#e74c3c" : "#b7cedd";
+            sb.append("\n<color:").append(color).append(">  ").append(h.getName())
+                .append(" [").append(h.getEventType().getSimpleName()).append(", ").append(h.getDelivery()).append("]: ")
+                .append(h.getInvocationCount()).append(", ")
+                .append(formatMs(h.getPercentileNanos(50))).append("/")
+                .append(formatMs(h.getPercentileNanos(99))).append("/")
+                .append(formatMs(h.getMaxNanos())).append(", ")
+                .append(h.getSlowInvocationCount()).append("</color>");
+        }
+
+        // Lane backlogs
+        for (EventLane lane : eventBus.getLanes()) {
+            sb.append("\n<color:#b7cedd>Lane ").append(lane.getName()).append(": ")
+                .append(lane.getQueueSize()).append("/").append(lane.getCapacity()).append(" queued, ")
+                .append(lane.getProcessedCount()).append(" done, ")
+                .append(lane.getDroppedCount()).append(" dropped, ")
+                .append(lane.getCoalescedCount()).append(" coalesced</color>");
+        }
+
+        player.sendMessage(TinyMsg.parse(sb.toString()));
+    }
+
+    private static String formatMs(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
     private void sendStatus(Player player, java.util.UUID playerId) {
         EnumSet<DebugLayer> layers = debugViewManager.getEnabledLayers(playerId);
         String barriers = layers.contains(DebugLayer.BARRIERS) ? "<color:#2ecc71>ON</color>" : "<color:#e74c3c>OFF</color>";
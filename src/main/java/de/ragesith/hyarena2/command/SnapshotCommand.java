@@ -0,0 +1,145 @@
+package de.ragesith.hyarena2.command;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractAsyncCommand;
+import de.ragesith.hyarena2.Permissions;
+import de.ragesith.hyarena2.storage.SnapshotManager;
+import de.ragesith.hyarena2.storage.SnapshotManifest;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Manage data snapshots. Works from both player and server console.
+ * Usage: /hysnapshot <list|create|verify|restore> [id|cancel]
+ */
+public class SnapshotCommand extends AbstractAsyncCommand {
+
+    // Problems listed by /hysnapshot verify before the rest are summarized
+    private static final int VERIFY_REPORT_ROWS = 10;
+    private static final DateTimeFormatter TIME_FORMAT =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneOffset.UTC);
+
+    private final SnapshotManager snapshotManager;
+
+    private final RequiredArg<String> actionArg =
+        withRequiredArg("action", "list, create, verify, restore", ArgTypes.STRING);
+    private final OptionalArg<String> idArg =
+        withOptionalArg("id", "Snapshot id (restore also accepts 'cancel')", ArgTypes.STRING);
+
+    public SnapshotCommand(SnapshotManager snapshotManager) {
+        super("hysnapshot", "List, create, verify and restore data snapshots");
+        requirePermission(Permissions.ADMIN);
+        this.snapshotManager = snapshotManager;
+    }
+
+    @Nonnull
+    @Override
+    protected CompletableFuture<Void> executeAsync(@Nonnull CommandContext context) {
+        String action = actionArg.get(context).toLowerCase();
+        String id = idArg.get(context);
+
+        switch (action) {
+            case "list":
+                list(context);
+                return CompletableFuture.completedFuture(null);
+            case "create":
+                context.sendMessage(Message.raw("Taking snapshot in the background..."));
+                return snapshotManager.snapshotAsync()
+                    .thenAccept(manifest -> context.sendMessage(Message.raw("Snapshot " + manifest.getId() + " taken: "
+                        + manifest.getFiles().size() + " files, " + formatBytes(manifest.getAddedBytes()) + " added")))
+                    .exceptionally(e -> fail(context, "Snapshot failed", e));
+            case "verify":
+                if (id == null || id.isEmpty()) {
+                    context.sendMessage(Message.raw("Usage: /hysnapshot verify <id>"));
+                    return CompletableFuture.completedFuture(null);
+                }
+                context.sendMessage(Message.raw("Verifying snapshot " + id + "..."));
+                return snapshotManager.verifyAsync(id)
+                    .thenAccept(problems -> reportVerify(context, id, problems))
+                    .exceptionally(e -> fail(context, "Verify failed", e));
+            case "restore":
+                return restore(context, id);
+            default:
+                context.sendMessage(Message.raw("Usage: /hysnapshot <list|create|verify|restore> [id|cancel]"));
+                return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private void list(CommandContext context) {
+        List<SnapshotManifest> snapshots = snapshotManager.list();
+        if (snapshots.isEmpty()) {
+            context.sendMessage(Message.raw("No snapshots yet."));
+            return;
+        }
+        context.sendMessage(Message.raw("Snapshots (" + snapshots.size() + ", oldest first, times UTC):"));
+        for (SnapshotManifest snapshot : snapshots) {
+            context.sendMessage(Message.raw("  " + snapshot.getId() + "  "
+                + TIME_FORMAT.format(Instant.ofEpochMilli(snapshot.getCreatedAt())) + "  "
+                + snapshot.getFiles().size() + " files, " + formatBytes(snapshot.getTotalBytes())
+                + " (+" + formatBytes(snapshot.getAddedBytes()) + " stored)"));
+        }
+        String pending = snapshotManager.getPendingRestore();
+        if (pending != null) {
+            context.sendMessage(Message.raw("Snapshot " + pending + " will be restored on the next restart."));
+        }
+    }
+
+    private CompletableFuture<Void> restore(CommandContext context, String id) {
+        if (id == null || id.isEmpty()) {
+            context.sendMessage(Message.raw("Usage: /hysnapshot restore <id|cancel>"));
+            return CompletableFuture.completedFuture(null);
+        }
+        if (id.equalsIgnoreCase("cancel")) {
+            try {
+                context.sendMessage(Message.raw(snapshotManager.cancelRestore()
+                    ? "Pending restore cancelled." : "No restore was pending."));
+            } catch (IOException e) {
+                context.sendMessage(Message.raw("Failed to cancel restore: " + e.getMessage()));
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        context.sendMessage(Message.raw("Verifying snapshot " + id + " before scheduling the restore..."));
+        return snapshotManager.scheduleRestore(id)
+            .thenAccept(manifest -> context.sendMessage(Message.raw("Snapshot " + id + " ("
+                + manifest.getFiles().size() + " files) will be restored on the next restart. "
+                + "The current data is snapshotted first. Use '/hysnapshot restore cancel' to undo.")))
+            .exceptionally(e -> fail(context, "Restore not scheduled", e));
+    }
+
+    private void reportVerify(CommandContext context, String id, List<String> problems) {
+        if (problems.isEmpty()) {
+            context.sendMessage(Message.raw("Snapshot " + id + " is intact."));
+            return;
+        }
+        context.sendMessage(Message.raw("Snapshot " + id + " has " + problems.size() + " problem(s):"));
+        for (String problem : problems.subList(0, Math.min(VERIFY_REPORT_ROWS, problems.size()))) {
+            context.sendMessage(Message.raw("  " + problem));
+        }
+        if (problems.size() > VERIFY_REPORT_ROWS) {
+            context.sendMessage(Message.raw("  ... and " + (problems.size() - VERIFY_REPORT_ROWS) + " more"));
+        }
+    }
+
+    private static Void fail(CommandContext context, String what, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        context.sendMessage(Message.raw(what + ": " + cause.getMessage()));
+        return null;
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+}
@@ -52,7 +52,9 @@ public class TestBotListCommand extends AbstractPlayerCommand {
 
         for (BotParticipant bot : bots) {
             Match match = botManager.getBotMatch(bot.getUniqueId());
-            String matchInfo = match != null ? match.getMatchId().toString().substring(0, 8) + "..." : "unknown";
+            String matchInfo = match != null
+                ? match.getMatchId().toString().substring(0, 8) + "... (markers: " + botManager.getObjectiveMarkerCount(match.getMatchId()) + ")"
+                : "unknown";
             String healthInfo = String.format("%.0f/%.0f", bot.getHealth(), bot.getMaxHealth());
             String status = bot.isAlive() ? "<color:#2ecc71>alive</color>" : "<color:#e74c3c>dead</color>";
 
@@ -53,7 +53,7 @@ public class TestEconomyInfoCommand extends AbstractPlayerCommand {
 
         player.sendMessage(TinyMsg.parse("<color:#f1c40f>--- Economy Info ---</color>"));
         player.sendMessage(TinyMsg.parse("<color:#b7cedd>AP: </color><color:#f1c40f>" + data.getArenaPoints() + "</color>"));
-        player.sendMessage(TinyMsg.parse("<color:#b7cedd>Honor: </color><color:#3498db>" + String.format("%.1f", data.getHonor()) + "</color>"));
+        player.sendMessage(TinyMsg.parse("<color:#b7cedd>Honor: </color><color:#3498db>" + String.format("%.1f", honorManager.getHonor(playerRef.getUuid())) + "</color>"));
         player.sendMessage(TinyMsg.parse("<color:#b7cedd>Rank: </color><color:#2ecc71>" + rankName + "</color>"));
         player.sendMessage(TinyMsg.parse("<color:#b7cedd>Purchases: </color><color:#96a9be>" + purchases + "</color>"));
     }
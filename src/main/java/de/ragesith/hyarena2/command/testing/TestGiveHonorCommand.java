@@ -12,7 +12,6 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import de.ragesith.hyarena2.Permissions;
 import de.ragesith.hyarena2.economy.EconomyManager;
 import de.ragesith.hyarena2.economy.HonorManager;
-import de.ragesith.hyarena2.economy.PlayerEconomyData;
 import fi.sulku.hytale.TinyMsg;
 
 import javax.annotation.Nonnull;
@@ -53,9 +52,8 @@ public class TestGiveHonorCommand extends AbstractPlayerCommand {
         }
 
         honorManager.addHonor(playerRef.getUuid(), amount);
-        PlayerEconomyData data = economyManager.getPlayerData(playerRef.getUuid());
         String rankName = honorManager.getRankDisplayName(playerRef.getUuid());
-        double honor = data != null ? data.getHonor() : 0;
+        double honor = honorManager.getHonor(playerRef.getUuid());
 
         player.sendMessage(TinyMsg.parse("<color:#2ecc71>+" + amount + " Honor</color> <color:#b7cedd>(Honor: " + String.format("%.1f", honor) + ", Rank: " + rankName + ")</color>"));
     }
@@ -46,6 +46,13 @@ public class GlobalConfig {
      */
     private double arenaBoundaryMargin = 0.5;
 
+    /**
+     * Event handler invocation time in milliseconds above which the call is logged as slow.
+     * 0 disables the warnings.
+     * Default: 5ms
+     */
+    private long slowEventHandlerThresholdMs = 5;
+
     // ========== Default Settings ==========
 
     /**
@@ -173,6 +180,14 @@ public class GlobalConfig {
         this.arenaBoundaryMargin = arenaBoundaryMargin;
     }
 
+    public long getSlowEventHandlerThresholdMs() {
+        return slowEventHandlerThresholdMs;
+    }
+
+    public void setSlowEventHandlerThresholdMs(long slowEventHandlerThresholdMs) {
+        this.slowEventHandlerThresholdMs = slowEventHandlerThresholdMs;
+    }
+
     // ========== Default Settings Getters/Setters ==========
 
     public String getDefaultKit() {
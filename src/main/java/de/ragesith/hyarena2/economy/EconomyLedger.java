@@ -0,0 +1,170 @@
+package de.ragesith.hyarena2.economy;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Applies balance changes to player economy data atomically and at most once.
+ *
+ * <p>Every change to a player's AP (and, via {@link #withLock}, honor) runs under that player's lock
+ * stripe, so reward payouts, shop purchases and admin grants from different threads never lose an
+ * update. The locks are striped: {@link #STRIPES} locks are shared by all players, so memory stays
+ * constant and unrelated players rarely contend. Changes can carry a transaction id; an id already applied in
+ * the last {@link #DEDUPE_WINDOW_MS} is rejected as a duplicate, so retries and repeated events
+ * don't pay out twice. Offline players in the cold cache can be changed too.
+ */
+public class EconomyLedger {
+    private static final int STRIPES = 64;
+    private static final long DEDUPE_WINDOW_MS = 10 * 60 * 1000;
+
+    private final PlayerDataManager playerDataManager;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    // Applied transaction ids -> when applied, oldest first (guarded by itself)
+    private final LinkedHashMap<String, Long> recentIds = new LinkedHashMap<>();
+
+    public enum Result { APPLIED, DUPLICATE, NOT_LOADED, INSUFFICIENT_FUNDS }
+
+    /**
+     * One AP change in a batch. A null transaction id is never deduplicated.
+     */
+    public record Change(UUID uuid, int apDelta, String transactionId) {}
+
+    public EconomyLedger(PlayerDataManager playerDataManager) {
+        this.playerDataManager = playerDataManager;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // ========== Single Changes ==========
+
+    /**
+     * Adds AP to a player.
+     */
+    public Result credit(UUID uuid, int amount, String transactionId) {
+        return apply(new Change(uuid, amount, transactionId), false);
+    }
+
+    /**
+     * Removes AP from a player if their balance covers it.
+     */
+    public Result debit(UUID uuid, int amount, String transactionId) {
+        return apply(new Change(uuid, -amount, transactionId), true);
+    }
+
+    /**
+     * Runs a compound read-check-write on one player's data (e.g. a shop purchase) while holding
+     * their lock, so no other ledger change interleaves. Ledger calls for the same player may be
+     * nested inside.
+     */
+    public <T> T withLock(UUID uuid, Supplier<T> action) {
+        ReentrantLock lock = stripeFor(uuid);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@link #withLock} for actions without a result.
+     */
+    public void runWithLock(UUID uuid, Runnable action) {
+        withLock(uuid, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // ========== Batches ==========
+
+    /**
+     * Applies several changes as one operation, e.g. all end-of-match rewards. The stripes of all
+     * players involved are locked once, in a fixed order, so concurrent batches can't deadlock.
+     * Negative AP deltas are applied only if the balance covers them.
+     *
+     * @return one result per change, in order
+     */
+    public List<Result> applyAll(List<Change> changes) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Change change : changes) {
+            indexes.add(stripeIndex(change.uuid()));
+        }
+        for (int index : indexes) {
+            stripes[index].lock();
+        }
+        try {
+            List<Result> results = new ArrayList<>(changes.size());
+            for (Change change : changes) {
+                results.add(apply(change, change.apDelta() < 0));
+            }
+            return results;
+        } finally {
+            for (int index : indexes.descendingSet()) {
+                stripes[index].unlock();
+            }
+        }
+    }
+
+    // ========== Internals ==========
+
+    private Result apply(Change change, boolean requireFunds) {
+        ReentrantLock lock = stripeFor(change.uuid());
+        lock.lock();
+        try {
+            PlayerEconomyData data = playerDataManager.getDataOrOffline(change.uuid());
+            if (data == null) {
+                return Result.NOT_LOADED;
+            }
+            if (requireFunds && data.getArenaPoints() + change.apDelta() < 0) {
+                return Result.INSUFFICIENT_FUNDS;
+            }
+            if (!claim(change.transactionId())) {
+                return Result.DUPLICATE;
+            }
+            data.setArenaPoints(data.getArenaPoints() + change.apDelta());
+            return Result.APPLIED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a transaction id as applied.
+     * @return false if it was already applied within the dedupe window
+     */
+    private boolean claim(String transactionId) {
+        if (transactionId == null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (recentIds) {
+            Iterator<Map.Entry<String, Long>> it = recentIds.entrySet().iterator();
+            while (it.hasNext()) {
+                if (now - it.next().getValue() <= DEDUPE_WINDOW_MS) {
+                    break;
+                }
+                it.remove();
+            }
+            return recentIds.putIfAbsent(transactionId, now) == null;
+        }
+    }
+
+    private ReentrantLock stripeFor(UUID uuid) {
+        return stripes[stripeIndex(uuid)];
+    }
+
+    private static int stripeIndex(UUID uuid) {
+        int h = uuid.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -10,30 +10,37 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import de.ragesith.hyarena2.event.EventBus;
 import de.ragesith.hyarena2.event.economy.ArenaPointsEarnedEvent;
 import de.ragesith.hyarena2.event.economy.ArenaPointsSpentEvent;
+import de.ragesith.hyarena2.event.match.MatchRewardsEvent;
 import de.ragesith.hyarena2.event.match.PlayerMatchRewardEvent;
 import fi.sulku.hytale.TinyMsg;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages ArenaPoints and match reward distribution.
- * Subscribes to PlayerMatchRewardEvent for automatic per-player reward calculation.
+ * Subscribes to PlayerMatchRewardEvent and MatchRewardsEvent for automatic reward calculation.
+ * All balance changes go through the {@link EconomyLedger}, so they are atomic per player.
  */
 public class EconomyManager {
 
     private final EconomyConfig config;
     private final PlayerDataManager playerDataManager;
+    private final EconomyLedger ledger;
     private final EventBus eventBus;
     private HonorManager honorManager;
 
     // Cache last match reward per player (for VictoryHud display)
     private final Map<UUID, MatchRewardResult> lastMatchRewards = new ConcurrentHashMap<>();
 
-    public EconomyManager(EconomyConfig config, PlayerDataManager playerDataManager, EventBus eventBus) {
+    public EconomyManager(EconomyConfig config, PlayerDataManager playerDataManager, EconomyLedger ledger, EventBus eventBus) {
         this.config = config;
         this.playerDataManager = playerDataManager;
+        this.ledger = ledger;
         this.eventBus = eventBus;
     }
 
@@ -43,12 +50,18 @@ public class EconomyManager {
 
     // ========== Player Lifecycle ==========
 
-    public void loadPlayer(UUID uuid, String name) {
-        playerDataManager.loadOrCreate(uuid, name);
+    /**
+     * Starts loading a player's data without blocking; see {@link PlayerDataManager#prefetch}.
+     */
+    public CompletableFuture<PlayerEconomyData> loadPlayer(UUID uuid, String name) {
+        return playerDataManager.prefetch(uuid, name);
     }
 
     public void unloadPlayer(UUID uuid) {
         lastMatchRewards.remove(uuid);
+        if (honorManager != null) {
+            honorManager.unloadPlayer(uuid);
+        }
         playerDataManager.unloadPlayer(uuid);
     }
 
@@ -68,27 +81,41 @@ public class EconomyManager {
     }
 
     public void addArenaPoints(UUID uuid, int amount, String reason) {
-        PlayerEconomyData data = playerDataManager.getData(uuid);
-        if (data == null || amount <= 0) return;
+        addArenaPoints(uuid, amount, reason, null);
+    }
+
+    /**
+     * Adds AP at most once per transaction id (within the ledger's dedupe window).
+     * @return true if the AP was added
+     */
+    public boolean addArenaPoints(UUID uuid, int amount, String reason, String transactionId) {
+        if (amount <= 0) return false;
+        if (ledger.credit(uuid, amount, transactionId) != EconomyLedger.Result.APPLIED) return false;
 
-        data.setArenaPoints(data.getArenaPoints() + amount);
         eventBus.publish(new ArenaPointsEarnedEvent(uuid, amount, reason));
+        return true;
     }
 
+    /**
+     * Spends AP if the player's balance covers it (checked and deducted atomically).
+     */
     public boolean spendArenaPoints(UUID uuid, int amount, String reason) {
-        PlayerEconomyData data = playerDataManager.getData(uuid);
-        if (data == null || amount <= 0) return false;
+        if (amount <= 0) return false;
+        if (ledger.debit(uuid, amount, null) != EconomyLedger.Result.APPLIED) return false;
 
-        if (data.getArenaPoints() < amount) return false;
-
-        data.setArenaPoints(data.getArenaPoints() - amount);
         eventBus.publish(new ArenaPointsSpentEvent(uuid, amount, reason));
         return true;
     }
 
     // ========== Honor Read ==========
 
+    /**
+     * Gets a player's current honor, with decay applied up to now.
+     */
     public double getHonor(UUID uuid) {
+        if (honorManager != null) {
+            return honorManager.getHonor(uuid);
+        }
         PlayerEconomyData data = playerDataManager.getData(uuid);
         return data != null ? data.getHonor() : 0;
     }
@@ -103,6 +130,10 @@ public class EconomyManager {
         return playerDataManager;
     }
 
+    public EconomyLedger getLedger() {
+        return ledger;
+    }
+
     public EconomyConfig getConfig() {
         return config;
     }
@@ -110,39 +141,65 @@ public class EconomyManager {
     // ========== Match Rewards ==========
 
     /**
-     * Calculates and applies match rewards for a player.
+     * Calculates and applies match rewards for a batch of players in one ledger operation.
      * Bot matches (any match with at least 1 bot) earn half AP.
      * Minigame matches earn half AP and no honor.
+     * A player is paid at most once per match; repeated rewards return zero.
+     *
+     * @return one result per reward, in order
      */
-    public MatchRewardResult rewardMatch(UUID uuid, boolean isWinner, int kills, String matchId, boolean hasBots, boolean minigame) {
-        PlayerEconomyData data = playerDataManager.getData(uuid);
-        if (data == null) return new MatchRewardResult(0, 0);
-
-        // Calculate AP (halved for bot matches or minigames)
-        int apBase = isWinner ? config.getApWinReward() : config.getApLossReward();
-        int apKills = kills * config.getApPerKill();
-        int totalAp = apBase + apKills;
-        if (hasBots || minigame) {
-            totalAp = totalAp / 2;
+    public List<MatchRewardResult> rewardMatches(List<PlayerMatchRewardEvent> rewards) {
+        List<EconomyLedger.Change> changes = new ArrayList<>(rewards.size());
+        List<MatchRewardResult> calculated = new ArrayList<>(rewards.size());
+        for (PlayerMatchRewardEvent reward : rewards) {
+            // Calculate AP (halved for bot matches or minigames)
+            int apBase = reward.isWinner() ? config.getApWinReward() : config.getApLossReward();
+            int apKills = reward.getKills() * config.getApPerKill();
+            int totalAp = apBase + apKills;
+            if (reward.hasBots() || reward.isMinigame()) {
+                totalAp = totalAp / 2;
+            }
+
+            // Calculate Honor (minigames earn no honor)
+            double totalHonor = 0;
+            if (!reward.isMinigame()) {
+                totalHonor = reward.isWinner() ? config.getHonorWinReward() : config.getHonorLossReward();
+            }
+
+            changes.add(new EconomyLedger.Change(reward.getPlayerUuid(), totalAp,
+                "match:" + reward.getMatchId() + ":" + reward.getPlayerUuid()));
+            calculated.add(new MatchRewardResult(totalAp, totalHonor));
         }
 
-        // Calculate Honor (minigames earn no honor)
-        double totalHonor = 0;
-        if (!minigame) {
-            totalHonor = isWinner ? config.getHonorWinReward() : config.getHonorLossReward();
-        }
-
-        // Apply AP
-        addArenaPoints(uuid, totalAp, "Match " + matchId + (isWinner ? " (win)" : " (loss)") + (hasBots ? " (bot)" : "") + (minigame ? " (minigame)" : ""));
-
-        // Apply Honor via HonorManager (handles rank checks)
-        if (honorManager != null && totalHonor > 0) {
-            honorManager.addHonor(uuid, totalHonor);
+        // Apply AP for everyone at once
+        List<EconomyLedger.Result> applied = ledger.applyAll(changes);
+
+        List<MatchRewardResult> results = new ArrayList<>(rewards.size());
+        for (int i = 0; i < rewards.size(); i++) {
+            PlayerMatchRewardEvent reward = rewards.get(i);
+            UUID uuid = reward.getPlayerUuid();
+            MatchRewardResult result = calculated.get(i);
+            if (applied.get(i) != EconomyLedger.Result.APPLIED) {
+                results.add(new MatchRewardResult(0, 0));
+                continue;
+            }
+
+            if (result.getApEarned() > 0) {
+                String matchId = reward.getMatchId().toString().substring(0, 8);
+                eventBus.publish(new ArenaPointsEarnedEvent(uuid, result.getApEarned(),
+                    "Match " + matchId + (reward.isWinner() ? " (win)" : " (loss)")
+                        + (reward.hasBots() ? " (bot)" : "") + (reward.isMinigame() ? " (minigame)" : "")));
+            }
+
+            // Apply Honor via HonorManager (handles rank checks)
+            if (honorManager != null && result.getHonorEarned() > 0) {
+                honorManager.addHonor(uuid, result.getHonorEarned());
+            }
+
+            lastMatchRewards.put(uuid, result);
+            results.add(result);
         }
-
-        MatchRewardResult result = new MatchRewardResult(totalAp, totalHonor);
-        lastMatchRewards.put(uuid, result);
-        return result;
+        return results;
     }
 
     /**
@@ -159,14 +216,25 @@ public class EconomyManager {
      */
     public void subscribeToEvents() {
         eventBus.subscribe(PlayerMatchRewardEvent.class, this::onPlayerMatchReward);
-        System.out.println("[EconomyManager] Subscribed to PlayerMatchRewardEvent");
+        eventBus.subscribe(MatchRewardsEvent.class, this::onMatchRewards);
+        System.out.println("[EconomyManager] Subscribed to PlayerMatchRewardEvent and MatchRewardsEvent");
     }
 
     private void onPlayerMatchReward(PlayerMatchRewardEvent event) {
-        UUID playerUuid = event.getPlayerUuid();
+        MatchRewardResult result = rewardMatches(List.of(event)).get(0);
+        sendRewardMessage(event, result);
+    }
 
-        MatchRewardResult result = rewardMatch(playerUuid, event.isWinner(), event.getKills(),
-            event.getMatchId().toString().substring(0, 8), event.hasBots(), event.isMinigame());
+    private void onMatchRewards(MatchRewardsEvent event) {
+        List<MatchRewardResult> results = rewardMatches(event.getRewards());
+        for (int i = 0; i < results.size(); i++) {
+            sendRewardMessage(event.getRewards().get(i), results.get(i));
+        }
+    }
+
+    private void sendRewardMessage(PlayerMatchRewardEvent event, MatchRewardResult result) {
+        if (result.getApEarned() == 0 && result.getHonorEarned() == 0) return;
+        UUID playerUuid = event.getPlayerUuid();
 
         // Send reward message to player
         String msg = "<color:#f1c40f>+" + result.getApEarned() + " AP</color>";
@@ -7,23 +7,40 @@ import de.ragesith.hyarena2.utils.PermissionHelper;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.UUID;
 
 /**
  * Manages honor, ranks, and decay.
  * Handles rank promotion/demotion with permission grants/revokes via EtherealPerms.
+ *
+ * <p>Decay is linear in time, so it is never applied by a periodic scan. A player's stored honor is
+ * the value at their last decay timestamp, and the current value is computed on read
+ * ({@link #getHonor}). Stored honor is only brought forward when it changes. The only event decay
+ * can cause is a rank drop, and its time is known in advance: each loaded player's next drop is
+ * kept in a priority queue ordered by time, and {@link #processRankDrops} handles only the drops
+ * that are due.
  */
 public class HonorManager {
+    private static final double MS_PER_HOUR = 1000.0 * 60 * 60;
 
     private final EconomyConfig config;
     private final PlayerDataManager playerDataManager;
+    private final EconomyLedger ledger;
     private final EventBus eventBus;
     private final List<HonorRankConfig> sortedRanks;
 
-    public HonorManager(EconomyConfig config, PlayerDataManager playerDataManager, EventBus eventBus) {
+    // Predicted rank drops, earliest first; an entry is stale unless it matches scheduledDrops (guarded by itself)
+    private final PriorityQueue<RankDrop> rankDrops = new PriorityQueue<>(Comparator.comparingLong(RankDrop::atMs));
+    private final Map<UUID, Long> scheduledDrops = new HashMap<>();
+
+    public HonorManager(EconomyConfig config, PlayerDataManager playerDataManager, EconomyLedger ledger, EventBus eventBus) {
         this.config = config;
         this.playerDataManager = playerDataManager;
+        this.ledger = ledger;
         this.eventBus = eventBus;
 
         // Sort ranks ascending by threshold
@@ -35,18 +52,22 @@ public class HonorManager {
 
     /**
      * Adds honor to a player, clamped to the configured cap.
-     * Checks for rank changes after mutation.
+     * Checks for rank changes after mutation. Runs under the player's ledger lock.
      */
     public void addHonor(UUID uuid, double amount) {
         PlayerEconomyData data = playerDataManager.getData(uuid);
         if (data == null || amount <= 0) return;
 
-        double newHonor = Math.min(data.getHonor() + amount, config.getHonorMaxCap());
-        data.setHonor(newHonor);
+        ledger.runWithLock(uuid, () -> {
+            long now = System.currentTimeMillis();
+            double newHonor = Math.min(honorAt(data, now) + amount, config.getHonorMaxCap());
+            data.setHonor(newHonor);
+            data.setLastHonorDecayTimestamp(now);
+            checkRankChange(uuid, data, newHonor);
+            scheduleRankDrop(uuid, data);
+        });
 
         eventBus.publish(new HonorEarnedEvent(uuid, amount, "match reward"));
-
-        checkRankChange(uuid, data);
     }
 
     /**
@@ -56,50 +77,122 @@ public class HonorManager {
         PlayerEconomyData data = playerDataManager.getData(uuid);
         if (data == null) return;
 
-        data.setHonor(Math.max(0, Math.min(amount, config.getHonorMaxCap())));
-        checkRankChange(uuid, data);
+        ledger.runWithLock(uuid, () -> {
+            double newHonor = Math.max(0, Math.min(amount, config.getHonorMaxCap()));
+            data.setHonor(newHonor);
+            data.setLastHonorDecayTimestamp(System.currentTimeMillis());
+            checkRankChange(uuid, data, newHonor);
+            scheduleRankDrop(uuid, data);
+        });
     }
 
     // ========== Decay ==========
 
     /**
-     * Processes honor decay for a single player based on elapsed time since last decay.
+     * Gets a player's current honor with decay applied up to now.
      */
-    public void decayHonor(UUID uuid) {
+    public double getHonor(UUID uuid) {
         PlayerEconomyData data = playerDataManager.getData(uuid);
-        if (data == null || data.getHonor() <= 0) return;
+        return data != null ? honorAt(data, System.currentTimeMillis()) : 0;
+    }
 
-        long now = System.currentTimeMillis();
+    /**
+     * Honor at a point in time: stored honor minus linear decay since the last decay timestamp, floored at 0.
+     */
+    private double honorAt(PlayerEconomyData data, long nowMs) {
+        double stored = data.getHonor();
         long lastDecay = data.getLastHonorDecayTimestamp();
-        if (lastDecay <= 0) {
-            data.setLastHonorDecayTimestamp(now);
-            return;
+        double perHour = config.getHonorDecayPerHour();
+        if (stored <= 0 || perHour <= 0 || lastDecay <= 0 || nowMs <= lastDecay) {
+            return Math.max(0, stored);
+        }
+        return Math.max(0, stored - (nowMs - lastDecay) / MS_PER_HOUR * perHour);
+    }
+
+    /**
+     * Brings a joining player's rank up to date with the decay since they were last online,
+     * and schedules their next rank drop.
+     */
+    public void decayHonor(UUID uuid) {
+        PlayerEconomyData data = playerDataManager.getData(uuid);
+        if (data == null) return;
+
+        if (data.getLastHonorDecayTimestamp() <= 0) {
+            data.setLastHonorDecayTimestamp(System.currentTimeMillis());
         }
+        checkRankChange(uuid, data, honorAt(data, System.currentTimeMillis()));
+        scheduleRankDrop(uuid, data);
+    }
 
-        double hoursElapsed = (now - lastDecay) / (1000.0 * 60 * 60);
-        if (hoursElapsed <= 0) return;
+    /**
+     * Applies the rank drops that are due. Called periodically by scheduler; costs nothing
+     * unless a player's decaying honor has actually fallen below their rank threshold.
+     */
+    public void processRankDrops() {
+        long now = System.currentTimeMillis();
+        List<UUID> due = new ArrayList<>();
+        synchronized (rankDrops) {
+            while (!rankDrops.isEmpty() && rankDrops.peek().atMs() <= now) {
+                RankDrop drop = rankDrops.poll();
+                Long scheduled = scheduledDrops.get(drop.uuid());
+                if (scheduled != null && scheduled == drop.atMs()) {
+                    scheduledDrops.remove(drop.uuid());
+                    due.add(drop.uuid());
+                }
+            }
+        }
 
-        double decay = hoursElapsed * config.getHonorDecayPerHour();
-        if (decay <= 0) return;
+        for (UUID uuid : due) {
+            PlayerEconomyData data = playerDataManager.getData(uuid);
+            if (data == null) continue;
 
-        double newHonor = Math.max(0, data.getHonor() - decay);
-        if (newHonor != data.getHonor()) {
-            data.setHonor(newHonor);
-            checkRankChange(uuid, data);
+            checkRankChange(uuid, data, honorAt(data, now));
+            scheduleRankDrop(uuid, data);
         }
+    }
 
-        data.setLastHonorDecayTimestamp(now);
+    /**
+     * Stops tracking rank drops for a player whose data is being unloaded.
+     */
+    public void unloadPlayer(UUID uuid) {
+        synchronized (rankDrops) {
+            scheduledDrops.remove(uuid); // the queued entry is skipped as stale
+        }
     }
 
     /**
-     * Processes decay for all loaded players. Called periodically by scheduler.
+     * Predicts when a player's decaying honor falls below their current rank's threshold and
+     * queues it, replacing any earlier prediction. Nothing is queued for the lowest rank or
+     * without decay.
      */
-    public void tickDecay() {
-        for (PlayerEconomyData data : playerDataManager.getAllLoadedPlayers()) {
-            decayHonor(data.getPlayerUuid());
+    private void scheduleRankDrop(UUID uuid, PlayerEconomyData data) {
+        double perHour = config.getHonorDecayPerHour();
+        long lastDecay = data.getLastHonorDecayTimestamp();
+        HonorRankConfig rank = getCurrentRank(honorAt(data, System.currentTimeMillis()));
+        Long dropAt = null;
+        if (perHour > 0 && lastDecay > 0 && sortedRanks.indexOf(rank) > 0) {
+            double hoursUntilBelow = (data.getHonor() - rank.getThreshold()) / perHour;
+            dropAt = lastDecay + (long) Math.floor(hoursUntilBelow * MS_PER_HOUR) + 1;
+        }
+
+        synchronized (rankDrops) {
+            if (dropAt == null) {
+                scheduledDrops.remove(uuid);
+            } else {
+                Long previous = scheduledDrops.put(uuid, dropAt);
+                if (previous == null || previous.longValue() != dropAt) {
+                    rankDrops.add(new RankDrop(dropAt, uuid));
+                }
+            }
+            // Drop stale entries once they outnumber live ones
+            if (rankDrops.size() > 2 * scheduledDrops.size() + 64) {
+                rankDrops.removeIf(drop -> !Long.valueOf(drop.atMs()).equals(scheduledDrops.get(drop.uuid())));
+            }
         }
     }
 
+    private record RankDrop(long atMs, UUID uuid) {}
+
     // ========== Rank Logic ==========
 
     /**
@@ -124,7 +217,8 @@ public class HonorManager {
         PlayerEconomyData data = playerDataManager.getData(uuid);
         if (data == null) return;
 
-        checkRankChange(uuid, data);
+        checkRankChange(uuid, data, honorAt(data, System.currentTimeMillis()));
+        scheduleRankDrop(uuid, data);
     }
 
     /**
@@ -134,7 +228,7 @@ public class HonorManager {
         PlayerEconomyData data = playerDataManager.getData(uuid);
         if (data == null) return "Unknown";
 
-        HonorRankConfig rank = getCurrentRank(data.getHonor());
+        HonorRankConfig rank = getCurrentRank(honorAt(data, System.currentTimeMillis()));
         return rank.getDisplayName();
     }
 
@@ -145,7 +239,7 @@ public class HonorManager {
         PlayerEconomyData data = playerDataManager.getData(uuid);
         if (data == null) return "#7f8c8d";
 
-        HonorRankConfig rank = getCurrentRank(data.getHonor());
+        HonorRankConfig rank = getCurrentRank(honorAt(data, System.currentTimeMillis()));
         int index = sortedRanks.indexOf(rank);
         return switch (index) {
             case 0 -> "#7f8c8d"; // Novice - gray
@@ -160,8 +254,8 @@ public class HonorManager {
     /**
      * Checks if a player's rank has changed and handles permission grants/revokes.
      */
-    private void checkRankChange(UUID uuid, PlayerEconomyData data) {
-        HonorRankConfig newRank = getCurrentRank(data.getHonor());
+    private void checkRankChange(UUID uuid, PlayerEconomyData data, double honor) {
+        HonorRankConfig newRank = getCurrentRank(honor);
         String oldRankId = data.getCurrentRankId();
 
         if (oldRankId != null && oldRankId.equals(newRank.getId())) {
@@ -185,7 +279,7 @@ public class HonorManager {
 
         System.out.println("[HonorManager] Rank changed for " + data.getPlayerName()
             + ": " + oldRankId + " -> " + newRank.getId()
-            + " (honor: " + String.format("%.1f", data.getHonor()) + ")");
+            + " (honor: " + String.format("%.1f", honor) + ")");
 
         eventBus.publish(new HonorRankChangedEvent(uuid, oldRankId, newRank.getId(), newRank.getDisplayName()));
     }
@@ -1,168 +1,538 @@
 package de.ragesith.hyarena2.economy;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import de.ragesith.hyarena2.storage.DataStore;
 
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Manages per-player economy data persistence.
- * In-memory cache backed by JSON files in data/players/.
+ * In-memory cache backed by the {@link DataStore#PLAYERS} namespace of the configured data store.
+ *
+ * <p>Only players whose data changed since the last write (see {@link PlayerEconomyData#isDirty()})
+ * are saved. Save requests are collected for {@link #SAVE_BATCH_DELAY_MS} and written together by a
+ * background writer thread as one store batch; the store replaces values atomically, so a crash
+ * mid-write leaves the previous version intact.
+ *
+ * <p>Loading is asynchronous as well: {@link #prefetch} reads a player's data on a loader thread as
+ * soon as they connect, so joining the hub does not wait on the store.
+ *
+ * <p>Two tiers are kept in memory: online players, pinned until they disconnect, and a cold LRU of
+ * at most {@link #COLD_CACHE_SIZE} recently used offline players (players who just left, or were
+ * fetched with {@link #loadOffline}). Offline grants and lookups work on the cold copy; an evicted
+ * entry is written back if it changed, and a reconnecting player is promoted without a store read.
  */
 public class PlayerDataManager {
 
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    private static final Type TRANSACTION_LIST_TYPE = new TypeToken<List<TransactionRecord>>() {}.getType();
+    private static final long SAVE_BATCH_DELAY_MS = 1000;
+    private static final int LOADER_THREADS = 2;
+    private static final long READ_WAIT_MS = 100;
+    private static final int COLD_CACHE_SIZE = 256;
 
-    private final Path playersDir;
+    private final DataStore store;
     private final ConcurrentHashMap<UUID, PlayerEconomyData> cache = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<UUID, Object> transactionLocks = new ConcurrentHashMap<>();
+    private final TransactionJournal journal;
 
-    public PlayerDataManager(Path pluginDataRoot) {
-        this.playersDir = pluginDataRoot.resolve("data").resolve("players");
+    // Loads started by prefetch() that have not reached the cache yet (guarded by loadLock)
+    private final Map<UUID, CompletableFuture<PlayerEconomyData>> loading = new HashMap<>();
+    private final Object loadLock = new Object();
+    private final ExecutorService loader;
+
+    // Recently used offline players, least recently used first (guarded by itself)
+    private final LinkedHashMap<UUID, PlayerEconomyData> cold = new LinkedHashMap<>(16, 0.75f, true);
+    // Evicted cold entries whose write-back has not finished yet
+    private final ConcurrentHashMap<UUID, PlayerEconomyData> writingBack = new ConcurrentHashMap<>();
+
+    // Held while snapshotting and writing, so an older snapshot never overwrites a newer one
+    private final Object saveLock = new Object();
+
+    // Background writer for batched saves
+    private final ScheduledExecutorService writer;
+    private final AtomicBoolean batchScheduled = new AtomicBoolean();
+
+    public PlayerDataManager(Path pluginDataRoot, DataStore store) {
+        this.store = store;
+        this.journal = new TransactionJournal(pluginDataRoot);
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "HyArena2-PlayerSave");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loader = Executors.newFixedThreadPool(LOADER_THREADS, r -> {
+            Thread thread = new Thread(r, "HyArena2-PlayerLoad");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!store.supportsAtomicBatches()) {
+            // Changes to several players (e.g. a ledger batch) are saved together; this backend may persist only part of them on a crash
+            System.out.println("[PlayerDataManager] Storage backend '" + store.getName() + "' does not save batches atomically; use 'embedded' for crash-safe multi-player changes");
+        }
+    }
+
+    /**
+     * Starts loading a player's data in the background and returns a future for it.
+     * Already loaded or loading players get the existing result; call it as early as
+     * possible (on connect) so the data is ready by the time the player joins the hub.
+     */
+    public CompletableFuture<PlayerEconomyData> prefetch(UUID uuid, String name) {
+        CompletableFuture<PlayerEconomyData> future;
+        synchronized (loadLock) {
+            PlayerEconomyData existing = cache.get(uuid);
+            if (existing != null) {
+                return CompletableFuture.completedFuture(existing);
+            }
+            PlayerEconomyData offline = takeCold(uuid);
+            if (offline != null) {
+                offline.setPlayerName(name);
+                offline.setLastOnlineTimestamp(System.currentTimeMillis());
+                cache.put(uuid, offline);
+                return CompletableFuture.completedFuture(offline);
+            }
+            future = loading.get(uuid);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            loading.put(uuid, future);
+        }
+
+        CompletableFuture<PlayerEconomyData> pending = future;
         try {
-            Files.createDirectories(playersDir);
-        } catch (IOException e) {
-            System.err.println("[PlayerDataManager] Failed to create players data directory: " + e.getMessage());
+            loader.execute(() -> load(uuid, name, pending));
+        } catch (RejectedExecutionException e) {
+            load(uuid, name, pending); // shutting down — load on the caller
         }
+        return pending;
     }
 
     /**
-     * Loads player data from file, or creates a new entry if none exists.
+     * Loads player data from the store, or creates a new entry if none exists.
+     * Waits for a running prefetch instead of reading the store a second time.
      */
     public PlayerEconomyData loadOrCreate(UUID uuid, String name) {
-        // Check cache first
-        PlayerEconomyData existing = cache.get(uuid);
-        if (existing != null) {
-            existing.setPlayerName(name);
-            existing.setLastOnlineTimestamp(System.currentTimeMillis());
-            return existing;
-        }
-
-        // Try to load from file
-        Path file = playersDir.resolve(uuid.toString() + ".json");
-        if (Files.exists(file)) {
-            try (Reader reader = Files.newBufferedReader(file)) {
-                PlayerEconomyData data = GSON.fromJson(reader, PlayerEconomyData.class);
-                if (data != null) {
-                    data.setPlayerName(name);
-                    data.setLastOnlineTimestamp(System.currentTimeMillis());
-                    cache.put(uuid, data);
-                    System.out.println("[PlayerDataManager] Loaded economy data for " + name);
+        PlayerEconomyData data = prefetch(uuid, name).join();
+        data.setPlayerName(name);
+        data.setLastOnlineTimestamp(System.currentTimeMillis());
+        return data;
+    }
+
+    /**
+     * Reads and parses the stored data on the loader thread, then publishes it to the cache,
+     * unless the player disconnected while it was loading.
+     */
+    private void load(UUID uuid, String name, CompletableFuture<PlayerEconomyData> future) {
+        PlayerEconomyData data = read(uuid);
+
+        boolean created = data == null;
+        if (created) {
+            data = new PlayerEconomyData(uuid, name);
+            data.markDirty();
+        }
+        data.setPlayerName(name);
+        data.setLastOnlineTimestamp(System.currentTimeMillis());
+
+        synchronized (loadLock) {
+            if (loading.get(uuid) == future) {
+                loading.remove(uuid);
+                // An offline copy fetched meanwhile may already hold changes; it wins over the read
+                PlayerEconomyData offline = takeCold(uuid);
+                if (offline != null) {
+                    offline.setPlayerName(name);
+                    offline.setLastOnlineTimestamp(System.currentTimeMillis());
+                    data = offline;
+                }
+                PlayerEconomyData existing = cache.putIfAbsent(uuid, data);
+                if (existing != null) {
+                    data = existing;
+                } else {
+                    System.out.println("[PlayerDataManager] " + (created ? "Created new" : "Loaded")
+                        + " economy data for " + name);
+                }
+            }
+        }
+        future.complete(data);
+    }
+
+    /**
+     * Reads and parses a player's stored data, or returns null if there is none.
+     */
+    private PlayerEconomyData read(UUID uuid) {
+        try {
+            byte[] value = store.get(DataStore.PLAYERS, uuid.toString());
+            return value != null ? PlayerEconomyDataCodec.decode(value) : null;
+        } catch (Exception e) {
+            System.err.println("[PlayerDataManager] Failed to load data for " + uuid + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ========== Offline Players ==========
+
+    /**
+     * Gets a player's data whether or not they are online, loading it into the cold cache in the
+     * background if needed. Completes with null if the player has no stored data.
+     */
+    public CompletableFuture<PlayerEconomyData> loadOffline(UUID uuid) {
+        PlayerEconomyData known = getDataOrOffline(uuid);
+        if (known != null) {
+            return CompletableFuture.completedFuture(known);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> fetchOffline(uuid), loader);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(fetchOffline(uuid));
+        }
+    }
+
+    private PlayerEconomyData fetchOffline(UUID uuid) {
+        PlayerEconomyData known = getDataOrOffline(uuid);
+        if (known != null) {
+            return known;
+        }
+        PlayerEconomyData stored = read(uuid);
+        if (stored == null) {
+            return null;
+        }
+        CompletableFuture<PlayerEconomyData> connecting;
+        synchronized (loadLock) {
+            PlayerEconomyData online = cache.get(uuid);
+            if (online != null) {
+                return online;
+            }
+            connecting = loading.get(uuid);
+            if (connecting == null) {
+                synchronized (cold) {
+                    PlayerEconomyData existing = cold.putIfAbsent(uuid, stored);
+                    if (existing != null) {
+                        return existing;
+                    }
+                }
+            }
+        }
+        if (connecting != null) {
+            return connecting.join(); // the player is connecting; use their online copy
+        }
+        evictCold();
+        return stored;
+    }
+
+    /**
+     * Gets data of an online player, or of an offline player in the cold cache.
+     * Returns null otherwise; use {@link #loadOffline} to fetch it.
+     */
+    public PlayerEconomyData getDataOrOffline(UUID uuid) {
+        PlayerEconomyData data = getData(uuid);
+        if (data != null) {
+            return data;
+        }
+        synchronized (cold) {
+            data = cold.get(uuid);
+        }
+        return data != null ? data : writingBack.get(uuid);
+    }
+
+    /**
+     * Finds an online or recently seen offline player by name (case-insensitive).
+     */
+    public PlayerEconomyData findByName(String name) {
+        for (PlayerEconomyData data : cache.values()) {
+            if (data.getPlayerName() != null && data.getPlayerName().equalsIgnoreCase(name)) {
+                return data;
+            }
+        }
+        synchronized (cold) {
+            for (PlayerEconomyData data : cold.values()) {
+                if (data.getPlayerName() != null && data.getPlayerName().equalsIgnoreCase(name)) {
                     return data;
                 }
-            } catch (Exception e) {
-                System.err.println("[PlayerDataManager] Failed to load data for " + uuid + ": " + e.getMessage());
             }
         }
+        return null;
+    }
 
-        // Create new
-        PlayerEconomyData data = new PlayerEconomyData(uuid, name);
-        cache.put(uuid, data);
-        System.out.println("[PlayerDataManager] Created new economy data for " + name);
-        return data;
+    /**
+     * Removes a player from the cold tier (to promote them to online).
+     */
+    private PlayerEconomyData takeCold(UUID uuid) {
+        PlayerEconomyData data;
+        synchronized (cold) {
+            data = cold.remove(uuid);
+        }
+        return data != null ? data : writingBack.get(uuid);
     }
 
+    private void putCold(UUID uuid, PlayerEconomyData data) {
+        synchronized (cold) {
+            cold.put(uuid, data);
+        }
+        evictCold();
+    }
+
+    /**
+     * Drops least recently used offline players beyond the cold cache size,
+     * writing back the ones that changed on the writer thread.
+     */
+    private void evictCold() {
+        Map<UUID, PlayerEconomyData> evicted = new HashMap<>();
+        synchronized (cold) {
+            var it = cold.entrySet().iterator();
+            while (cold.size() > COLD_CACHE_SIZE && it.hasNext()) {
+                var eldest = it.next();
+                evicted.put(eldest.getKey(), eldest.getValue());
+                it.remove();
+            }
+        }
+        for (var entry : evicted.entrySet()) {
+            UUID uuid = entry.getKey();
+            PlayerEconomyData data = entry.getValue();
+            if (!data.isDirty()) continue;
+            writingBack.put(uuid, data);
+            Runnable writeBack = () -> {
+                saveSync(uuid, data);
+                writingBack.remove(uuid, data);
+                // Changed while it was being written (or the write failed): keep it cached for the next save
+                if (data.isDirty() && !cache.containsKey(uuid)) {
+                    synchronized (cold) {
+                        cold.putIfAbsent(uuid, data);
+                    }
+                }
+            };
+            try {
+                writer.execute(writeBack);
+            } catch (RejectedExecutionException e) {
+                writeBack.run();
+            }
+        }
+    }
+
+    // ========== Saving ==========
+
     /**
-     * Saves a player's data to file asynchronously.
+     * Saves a player's data asynchronously.
      */
     public void save(UUID uuid) {
-        PlayerEconomyData data = cache.get(uuid);
+        PlayerEconomyData data = getDataOrOffline(uuid);
         if (data == null) return;
 
-        CompletableFuture.runAsync(() -> {
-            Object lock = transactionLocks.computeIfAbsent(uuid, k -> new Object());
-            synchronized (lock) {
-                saveSync(uuid, data);
+        data.markDirty();
+        if (batchScheduled.compareAndSet(false, true)) {
+            try {
+                writer.schedule(() -> {
+                    batchScheduled.set(false);
+                    saveDirty();
+                }, SAVE_BATCH_DELAY_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                batchScheduled.set(false); // shutting down — the final saveAll() picks it up
             }
-        });
+        }
     }
 
     /**
-     * Saves all cached player data to files.
+     * Saves all cached player data (online and offline) that changed since it was last written.
      */
     public void saveAll() {
-        for (var entry : cache.entrySet()) {
-            saveSync(entry.getKey(), entry.getValue());
+        int saved = saveDirty();
+        if (saved > 0) {
+            System.out.println("[PlayerDataManager] Saved economy data for " + saved + " of " + cache.size() + " player(s)");
+        }
+    }
+
+    /**
+     * Writes every dirty player in one store batch.
+     * @return number of players written
+     */
+    private int saveDirty() {
+        synchronized (saveLock) {
+            Map<UUID, PlayerEconomyData> candidates = new HashMap<>(cache);
+            synchronized (cold) {
+                candidates.putAll(cold);
+            }
+            Map<String, byte[]> batch = new LinkedHashMap<>();
+            List<PlayerEconomyData> written = new ArrayList<>();
+            for (var entry : candidates.entrySet()) {
+                PlayerEconomyData data = entry.getValue();
+                if (data.isDirty()) {
+                    data.clearDirty();
+                    batch.put(entry.getKey().toString(), PlayerEconomyDataCodec.encode(data));
+                    written.add(data);
+                }
+            }
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                store.putAll(DataStore.PLAYERS, batch);
+                return batch.size();
+            } catch (IOException e) {
+                // Part of the batch may have been written unless the store is atomic; rewriting it all is harmless
+                written.forEach(PlayerEconomyData::markDirty); // retry on the next save
+                System.err.println("[PlayerDataManager] Failed to save data for " + batch.size() + " player(s): " + e.getMessage());
+                return 0;
+            }
         }
-        System.out.println("[PlayerDataManager] Saved all player economy data (" + cache.size() + " players)");
     }
 
     /**
      * Gets cached data for a player, or null if not loaded.
+     * If the player's data is still loading, waits up to {@link #READ_WAIT_MS} for it.
      */
     public PlayerEconomyData getData(UUID uuid) {
-        return cache.get(uuid);
+        PlayerEconomyData data = cache.get(uuid);
+        if (data != null) {
+            return data;
+        }
+        CompletableFuture<PlayerEconomyData> future;
+        synchronized (loadLock) {
+            future = loading.get(uuid);
+        }
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get(READ_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
     }
 
     /**
-     * Saves and removes a player from the cache.
+     * Saves a disconnecting player and moves them from the online set to the cold cache.
      */
     public void unloadPlayer(UUID uuid) {
-        PlayerEconomyData data = cache.remove(uuid);
+        PlayerEconomyData data;
+        synchronized (loadLock) {
+            loading.remove(uuid); // a load still in flight is discarded when it finishes
+            data = cache.remove(uuid);
+        }
         if (data != null) {
-            saveSync(uuid, data);
+            if (data.isDirty()) {
+                saveSync(uuid, data);
+            }
+            journal.release(uuid);
+            putCold(uuid, data);
             System.out.println("[PlayerDataManager] Unloaded economy data for " + data.getPlayerName());
         }
     }
 
     /**
-     * Appends a transaction record to the player's transaction log file.
+     * Appends a transaction record to the player's transaction journal.
      */
     public void logTransaction(UUID uuid, TransactionRecord record) {
-        CompletableFuture.runAsync(() -> {
-            Object lock = transactionLocks.computeIfAbsent(uuid, k -> new Object());
-            synchronized (lock) {
-                Path file = playersDir.resolve(uuid.toString() + "_transactions.json");
-                try {
-                    List<TransactionRecord> records;
-                    if (Files.exists(file)) {
-                        try (Reader reader = Files.newBufferedReader(file)) {
-                            records = GSON.fromJson(reader, TRANSACTION_LIST_TYPE);
-                            if (records == null) records = new ArrayList<>();
-                        }
-                    } else {
-                        records = new ArrayList<>();
-                    }
-                    records.add(record);
-                    try (Writer writer = Files.newBufferedWriter(file)) {
-                        GSON.toJson(records, writer);
-                    }
-                } catch (Exception e) {
-                    System.err.println("[PlayerDataManager] Failed to log transaction for " + uuid + ": " + e.getMessage());
-                }
-            }
-        });
+        journal.append(uuid, record);
+    }
+
+    /**
+     * Reads a page of a player's transaction history, newest first.
+     *
+     * @param page    1-based page number
+     * @param perPage records per page
+     */
+    public CompletableFuture<List<TransactionRecord>> getTransactionHistory(UUID uuid, int page, int perPage) {
+        return journal.readRecent(uuid, (Math.max(1, page) - 1) * perPage, perPage);
+    }
+
+    /**
+     * Writes pending saves and queued transactions, then stops the writer threads.
+     * Called on plugin shutdown.
+     */
+    public void shutdown() {
+        loader.shutdown();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        saveAll();
+        journal.shutdown();
     }
 
     /**
-     * Gets all loaded player data for bulk operations (e.g., decay tick).
+     * Gets all online players' data for bulk operations (e.g., decay tick).
      */
     public Collection<PlayerEconomyData> getAllLoadedPlayers() {
         return cache.values();
     }
 
     /**
-     * Synchronously writes player data to file.
+     * Lists every player with stored economy data, loaded or not (a key scan, no values are read).
      */
-    private void saveSync(UUID uuid, PlayerEconomyData data) {
-        Path file = playersDir.resolve(uuid.toString() + ".json");
-        try (Writer writer = Files.newBufferedWriter(file)) {
-            GSON.toJson(data, writer);
+    public List<UUID> getStoredPlayerIds() {
+        List<UUID> ids = new ArrayList<>();
+        try {
+            for (String key : store.keys(DataStore.PLAYERS, "")) {
+                try {
+                    ids.add(UUID.fromString(key));
+                } catch (IllegalArgumentException ignored) {
+                    // not a player file
+                }
+            }
         } catch (IOException e) {
-            System.err.println("[PlayerDataManager] Failed to save data for " + uuid + ": " + e.getMessage());
+            System.err.println("[PlayerDataManager] Failed to list stored players: " + e.getMessage());
+        }
+        return ids;
+    }
+
+    /**
+     * Writes every stored player as pretty-printed JSON to {dir}/{uuid}.json, for inspection or
+     * external tools. Players held in memory are exported with their unsaved changes.
+     * @return number of players exported
+     */
+    public int exportJson(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        int exported = 0;
+        for (UUID uuid : getStoredPlayerIds()) {
+            PlayerEconomyData data = getDataOrOffline(uuid);
+            if (data == null) {
+                data = read(uuid);
+            }
+            if (data != null) {
+                Files.writeString(dir.resolve(uuid + ".json"), PlayerEconomyDataCodec.toJson(data), StandardCharsets.UTF_8);
+                exported++;
+            }
+        }
+        return exported;
+    }
+
+    /**
+     * Synchronously writes one player's data to the store.
+     * @return true if written
+     */
+    private boolean saveSync(UUID uuid, PlayerEconomyData data) {
+        synchronized (saveLock) {
+            data.clearDirty();
+            try {
+                store.put(DataStore.PLAYERS, uuid.toString(), PlayerEconomyDataCodec.encode(data));
+                return true;
+            } catch (IOException e) {
+                data.markDirty(); // retry on the next save
+                System.err.println("[PlayerDataManager] Failed to save data for " + uuid + ": " + e.getMessage());
+                return false;
+            }
         }
     }
 }
@@ -1,12 +1,17 @@
 package de.ragesith.hyarena2.economy;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
- * Per-player economy state persisted to data/players/<uuid>.json.
+ * Per-player economy state, stored with {@link PlayerEconomyDataCodec} under the player's UUID.
  * Tracks AP balance, honor, current rank, and purchased items.
+ * Setters mark the data dirty so only changed players are written back. They assign before
+ * marking, so a save that clears the flag in between still sees the new value or is repeated.
  */
 public class PlayerEconomyData {
     private UUID playerUuid;
@@ -19,6 +24,11 @@ public class PlayerEconomyData {
     private List<String> purchasedItems;
     private boolean hideWelcome;
 
+    // Changed since last save (not persisted)
+    private transient volatile boolean dirty;
+    // Set view of purchasedItems for O(1) ownership checks, built on first use (guarded by this)
+    private transient Set<String> purchasedSet;
+
     public PlayerEconomyData() {
         this.arenaPoints = 0;
         this.honor = 0;
@@ -41,7 +51,9 @@ public class PlayerEconomyData {
     }
 
     public void setPlayerUuid(UUID playerUuid) {
+        UUID old = this.playerUuid;
         this.playerUuid = playerUuid;
+        if (!Objects.equals(old, playerUuid)) dirty = true;
     }
 
     public String getPlayerName() {
@@ -49,7 +61,9 @@ public class PlayerEconomyData {
     }
 
     public void setPlayerName(String playerName) {
+        String old = this.playerName;
         this.playerName = playerName;
+        if (!Objects.equals(old, playerName)) dirty = true;
     }
 
     public int getArenaPoints() {
@@ -57,15 +71,23 @@ public class PlayerEconomyData {
     }
 
     public void setArenaPoints(int arenaPoints) {
+        int old = this.arenaPoints;
         this.arenaPoints = arenaPoints;
+        if (old != arenaPoints) dirty = true;
     }
 
+    /**
+     * Honor as of {@link #getLastHonorDecayTimestamp()}. Use {@link HonorManager#getHonor} for the
+     * current value with decay applied.
+     */
     public double getHonor() {
         return honor;
     }
 
     public void setHonor(double honor) {
+        double old = this.honor;
         this.honor = honor;
+        if (old != honor) dirty = true;
     }
 
     public String getCurrentRankId() {
@@ -73,7 +95,9 @@ public class PlayerEconomyData {
     }
 
     public void setCurrentRankId(String currentRankId) {
+        String old = this.currentRankId;
         this.currentRankId = currentRankId;
+        if (!Objects.equals(old, currentRankId)) dirty = true;
     }
 
     public long getLastHonorDecayTimestamp() {
@@ -81,7 +105,9 @@ public class PlayerEconomyData {
     }
 
     public void setLastHonorDecayTimestamp(long lastHonorDecayTimestamp) {
+        long old = this.lastHonorDecayTimestamp;
         this.lastHonorDecayTimestamp = lastHonorDecayTimestamp;
+        if (old != lastHonorDecayTimestamp) dirty = true;
     }
 
     public long getLastOnlineTimestamp() {
@@ -89,7 +115,9 @@ public class PlayerEconomyData {
     }
 
     public void setLastOnlineTimestamp(long lastOnlineTimestamp) {
+        long old = this.lastOnlineTimestamp;
         this.lastOnlineTimestamp = lastOnlineTimestamp;
+        if (old != lastOnlineTimestamp) dirty = true;
     }
 
     public List<String> getPurchasedItems() {
@@ -97,16 +125,25 @@ public class PlayerEconomyData {
         return purchasedItems;
     }
 
-    public void setPurchasedItems(List<String> purchasedItems) {
+    public synchronized void setPurchasedItems(List<String> purchasedItems) {
         this.purchasedItems = purchasedItems;
+        purchasedSet = null;
+        dirty = true;
     }
 
-    public boolean hasPurchased(String itemId) {
-        return getPurchasedItems().contains(itemId);
+    public synchronized boolean hasPurchased(String itemId) {
+        if (purchasedSet == null) {
+            purchasedSet = new HashSet<>(getPurchasedItems());
+        }
+        return purchasedSet.contains(itemId);
     }
 
-    public void addPurchase(String itemId) {
+    public synchronized void addPurchase(String itemId) {
         getPurchasedItems().add(itemId);
+        if (purchasedSet != null) {
+            purchasedSet.add(itemId);
+        }
+        dirty = true;
     }
 
     public boolean isHideWelcome() {
@@ -114,6 +151,33 @@ public class PlayerEconomyData {
     }
 
     public void setHideWelcome(boolean hideWelcome) {
+        boolean old = this.hideWelcome;
         this.hideWelcome = hideWelcome;
+        if (old != hideWelcome) dirty = true;
+    }
+
+    // ========== Dirty Tracking ==========
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks the data changed, for callers that modify it other than through a setter
+     * (e.g. editing the list returned by {@link #getPurchasedItems()}).
+     */
+    public void markDirty() {
+        synchronized (this) {
+            purchasedSet = null;
+        }
+        dirty = true;
+    }
+
+    /**
+     * Clears the dirty flag right before the data is serialized. A change made while it is
+     * being written sets the flag again, so it is picked up by the next save.
+     */
+    void clearDirty() {
+        dirty = false;
     }
 }
@@ -0,0 +1,141 @@
+package de.ragesith.hyarena2.economy;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import de.ragesith.hyarena2.storage.ValueCodecs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Encodes {@link PlayerEconomyData} for the data store.
+ *
+ * <p>Stored values use a compact binary format: the bytes "HP", a format version, then the fields in
+ * declaration order. Decoding picks the reader by version, so a new version only adds a reader and
+ * old values stay readable. Values stored as JSON by older plugin versions are still decoded; JSON is
+ * otherwise only used for exports ({@link #toJson}).
+ */
+public final class PlayerEconomyDataCodec {
+    private static final byte MAGIC_0 = 'H';
+    private static final byte MAGIC_1 = 'P';
+    private static final byte VERSION = 1;
+
+    private static final Gson GSON = new Gson();
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private PlayerEconomyDataCodec() {}
+
+    /**
+     * Encodes data in the current binary format.
+     */
+    public static byte[] encode(PlayerEconomyData data) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC_0);
+            out.writeByte(MAGIC_1);
+            out.writeByte(VERSION);
+
+            UUID uuid = data.getPlayerUuid();
+            out.writeBoolean(uuid != null);
+            if (uuid != null) {
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+            }
+            ValueCodecs.writeNullableString(out, data.getPlayerName());
+            out.writeInt(data.getArenaPoints());
+            out.writeDouble(data.getHonor());
+            ValueCodecs.writeNullableString(out, data.getCurrentRankId());
+            out.writeLong(data.getLastHonorDecayTimestamp());
+            out.writeLong(data.getLastOnlineTimestamp());
+            // Purchases are added under the data's monitor, possibly while this save runs
+            List<String> items;
+            synchronized (data) {
+                items = new ArrayList<>(data.getPurchasedItems());
+            }
+            out.writeInt(items.size());
+            for (String item : items) {
+                out.writeUTF(item);
+            }
+            out.writeBoolean(data.isHideWelcome());
+        } catch (IOException e) {
+            // Writing to memory can't fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a stored value, binary or legacy JSON. The result is not marked dirty.
+     */
+    public static PlayerEconomyData decode(byte[] value) throws IOException {
+        PlayerEconomyData data;
+        if (ValueCodecs.isJson(value)) {
+            try {
+                data = GSON.fromJson(new String(value, StandardCharsets.UTF_8), PlayerEconomyData.class);
+            } catch (JsonParseException e) {
+                throw new IOException("Invalid player data JSON: " + e.getMessage(), e);
+            }
+            if (data == null) {
+                throw new IOException("Empty player data");
+            }
+        } else {
+            data = decodeBinary(value);
+        }
+        data.clearDirty();
+        return data;
+    }
+
+    /**
+     * Pretty-printed JSON for exports and debugging.
+     */
+    public static String toJson(PlayerEconomyData data) {
+        return PRETTY_GSON.toJson(data);
+    }
+
+    // ========== Binary ==========
+
+    private static PlayerEconomyData decodeBinary(byte[] value) throws IOException {
+        if (value.length < 3 || value[0] != MAGIC_0 || value[1] != MAGIC_1) {
+            throw new IOException("Not encoded player data");
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value, 3, value.length - 3))) {
+            return switch (value[2]) {
+                case 1 -> readV1(in);
+                default -> throw new IOException("Unsupported player data version " + value[2]);
+            };
+        }
+    }
+
+    private static PlayerEconomyData readV1(DataInputStream in) throws IOException {
+        PlayerEconomyData data = new PlayerEconomyData();
+        if (in.readBoolean()) {
+            data.setPlayerUuid(new UUID(in.readLong(), in.readLong()));
+        }
+        data.setPlayerName(ValueCodecs.readNullableString(in));
+        data.setArenaPoints(in.readInt());
+        data.setHonor(in.readDouble());
+        data.setCurrentRankId(ValueCodecs.readNullableString(in));
+        data.setLastHonorDecayTimestamp(in.readLong());
+        data.setLastOnlineTimestamp(in.readLong());
+        int itemCount = in.readInt();
+        if (itemCount < 0) {
+            throw new IOException("Invalid purchase count " + itemCount);
+        }
+        List<String> items = new ArrayList<>(Math.min(itemCount, 256));
+        for (int i = 0; i < itemCount; i++) {
+            items.add(in.readUTF());
+        }
+        data.setPurchasedItems(items);
+        data.setHideWelcome(in.readBoolean());
+        return data;
+    }
+}
@@ -0,0 +1,527 @@
+package de.ragesith.hyarena2.economy;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only per-player transaction journal in data/transactions/&lt;uuid&gt;/.
+ *
+ * <p>Records are appended as JSON lines to active.log, so logging a transaction costs the same
+ * no matter how long the player's history is. Every {@link #INDEX_INTERVAL}th record's byte offset
+ * is written to a sparse index (active.idx), which lets a history page be read by seeking close to
+ * it instead of scanning the file. Once the active segment holds {@link #SEGMENT_RECORDS} records it
+ * is rotated out; rotated segments are gzipped in the background and kept, so the full history
+ * (including imported legacy records) stays readable.
+ *
+ * <p>Rotated segments are named segment-&lt;n&gt;.log with a per-player sequence number, so newer
+ * segments always sort after older ones and a rotation never replaces an existing segment.
+ *
+ * <p>All file work runs on one journal thread, so a player's transactions are written in the
+ * order they were logged. Legacy &lt;uuid&gt;_transactions.json files are imported on first use,
+ * as segment 0 (the oldest history).
+ */
+public class TransactionJournal {
+    private static final Gson GSON = new Gson();
+    private static final Type TRANSACTION_LIST_TYPE = new TypeToken<List<TransactionRecord>>() {}.getType();
+
+    static final int INDEX_INTERVAL = 64;
+    static final int SEGMENT_RECORDS = 1024;
+    // Sequence number of the segment holding imported legacy history
+    private static final long LEGACY_SEGMENT = 0;
+
+    private final Path journalRoot;
+    private final Path legacyDir;
+    private final ExecutorService executor;
+
+    // Active segment state per player, loaded on first use (only touched on the journal thread)
+    private final Map<UUID, SegmentState> states = new ConcurrentHashMap<>();
+
+    public TransactionJournal(Path pluginDataRoot) {
+        this.journalRoot = pluginDataRoot.resolve("data").resolve("transactions");
+        this.legacyDir = pluginDataRoot.resolve("data").resolve("players");
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "HyArena2-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Files.createDirectories(journalRoot);
+        } catch (IOException e) {
+            System.err.println("[TransactionJournal] Failed to create journal directory: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Appends a transaction to the player's journal (asynchronously, in call order).
+     */
+    public void append(UUID uuid, TransactionRecord record) {
+        try {
+            executor.execute(() -> {
+                try {
+                    appendSync(uuid, record);
+                } catch (IOException e) {
+                    System.err.println("[TransactionJournal] Failed to log transaction for " + uuid + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            System.err.println("[TransactionJournal] Journal closed, dropped " + record.getType() + " transaction for " + uuid);
+        }
+    }
+
+    /**
+     * Reads a page of a player's history, newest first.
+     *
+     * @param offset number of newer records to skip
+     * @param limit  maximum number of records to return
+     */
+    public CompletableFuture<List<TransactionRecord>> readRecent(UUID uuid, int offset, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return readRecentSync(uuid, offset, limit);
+            } catch (IOException e) {
+                System.err.println("[TransactionJournal] Failed to read transactions for " + uuid + ": " + e.getMessage());
+                return List.of();
+            }
+        }, executor);
+    }
+
+    /**
+     * Forgets a player's cached segment state (e.g. when they disconnect).
+     */
+    public void release(UUID uuid) {
+        if (!executor.isShutdown()) {
+            executor.execute(() -> states.remove(uuid));
+        }
+    }
+
+    /**
+     * Finishes queued writes and stops the journal thread.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("[TransactionJournal] Timed out writing queued transactions");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ========== Appending ==========
+
+    private void appendSync(UUID uuid, TransactionRecord record) throws IOException {
+        SegmentState state = state(uuid);
+        if (state.count >= SEGMENT_RECORDS) {
+            rotate(uuid, state);
+        }
+        byte[] line = (GSON.toJson(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        // The index entry goes in only once the line is complete, so it never points past the log
+        try {
+            try (FileChannel channel = FileChannel.open(state.logFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            if (state.count % INDEX_INTERVAL == 0) {
+                writeLong(state.indexFile, state.size);
+            }
+        } catch (IOException e) {
+            rollBack(state, e);
+            throw e;
+        }
+        state.size += line.length;
+        state.count++;
+    }
+
+    /**
+     * Cuts the log and index back to the last complete record after a failed append, so the next
+     * append doesn't land behind a torn line.
+     */
+    private static void rollBack(SegmentState state, IOException cause) {
+        try {
+            if (Files.exists(state.logFile)) {
+                truncate(state.logFile, state.size);
+            }
+            if (Files.exists(state.indexFile)) {
+                truncate(state.indexFile, (long) ((state.count + INDEX_INTERVAL - 1) / INDEX_INTERVAL) * Long.BYTES);
+            }
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Moves the full active segment aside and queues its compression.
+     */
+    private void rotate(UUID uuid, SegmentState state) throws IOException {
+        Path segment = segmentFile(state.dir, state.nextSegment++);
+        Files.move(state.logFile, segment, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(state.indexFile);
+        state.count = 0;
+        state.size = 0;
+        queueCompaction(uuid, segment);
+    }
+
+    private void queueCompaction(UUID uuid, Path segment) {
+        if (executor.isShutdown()) {
+            compact(uuid, segment); // draining on shutdown, already on the journal thread
+        } else {
+            executor.execute(() -> compact(uuid, segment));
+        }
+    }
+
+    /**
+     * Gzips a rotated segment.
+     */
+    private void compact(UUID uuid, Path segment) {
+        Path archived = segment.resolveSibling(segment.getFileName() + ".gz");
+        Path tmp = archived.resolveSibling(archived.getFileName() + ".tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                Files.copy(segment, out);
+            }
+            Files.move(tmp, archived, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(segment);
+        } catch (IOException e) {
+            System.err.println("[TransactionJournal] Failed to compact journal segment for " + uuid + ": " + e.getMessage());
+        }
+    }
+
+    // ========== Reading ==========
+
+    private List<TransactionRecord> readRecentSync(UUID uuid, int offset, int limit) throws IOException {
+        SegmentState state = state(uuid);
+        List<TransactionRecord> result = new ArrayList<>(Math.max(0, limit));
+        int skip = Math.max(0, offset);
+
+        // Active segment: seek via the sparse index
+        if (skip < state.count) {
+            int to = state.count - skip;
+            int from = Math.max(0, to - limit);
+            List<TransactionRecord> page = readActive(state, from, to);
+            Collections.reverse(page);
+            result.addAll(page);
+        }
+        skip = Math.max(0, skip - state.count);
+
+        // Older history from rotated segments, newest first
+        for (Path segment : archivedSegments(state.dir)) {
+            if (result.size() >= limit) break;
+            List<TransactionRecord> records = readSegment(segment);
+            Collections.reverse(records);
+            if (skip >= records.size()) {
+                skip -= records.size();
+                continue;
+            }
+            int end = Math.min(records.size(), skip + limit - result.size());
+            result.addAll(records.subList(skip, end));
+            skip = 0;
+        }
+        return result;
+    }
+
+    /**
+     * Reads records [from, to) of the active segment, oldest first.
+     */
+    private List<TransactionRecord> readActive(SegmentState state, int from, int to) throws IOException {
+        List<TransactionRecord> records = new ArrayList<>(to - from);
+        int block = from / INDEX_INTERVAL;
+        long start = readLong(state.indexFile, block);
+        try (FileChannel channel = FileChannel.open(state.logFile, StandardOpenOption.READ)) {
+            channel.position(start);
+            BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+            String line;
+            for (int i = block * INDEX_INTERVAL; i < to && (line = reader.readLine()) != null; i++) {
+                if (i >= from) {
+                    records.add(GSON.fromJson(line, TransactionRecord.class));
+                }
+            }
+        }
+        return records;
+    }
+
+    private List<TransactionRecord> readSegment(Path segment) throws IOException {
+        List<TransactionRecord> records = new ArrayList<>();
+        InputStream in = Files.newInputStream(segment);
+        if (segment.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    records.add(GSON.fromJson(line, TransactionRecord.class));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Gets a player's rotated segments (compressed or still waiting for compaction), newest first.
+     */
+    private static List<Path> archivedSegments(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> {
+                    String name = p.getFileName().toString();
+                    return name.startsWith("segment-") && (name.endsWith(".log") || name.endsWith(".log.gz"));
+                })
+                .sorted((a, b) -> Long.compare(segmentNumber(b), segmentNumber(a)))
+                .toList();
+        }
+    }
+
+    private static Path segmentFile(Path dir, long number) {
+        return dir.resolve("segment-" + number + ".log");
+    }
+
+    /**
+     * Sequence number from a segment's file name (older journals used the rotation time, which
+     * still orders correctly and is continued from).
+     */
+    private static long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring("segment-".length(), name.indexOf(".log")));
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    // ========== Segment State ==========
+
+    /**
+     * Gets the player's active segment state, loading it (and importing a legacy JSON log) on first use.
+     */
+    private SegmentState state(UUID uuid) throws IOException {
+        SegmentState state = states.get(uuid);
+        if (state != null) {
+            return state;
+        }
+        Path dir = journalRoot.resolve(uuid.toString());
+        Files.createDirectories(dir);
+        state = new SegmentState(dir);
+        load(state);
+        states.put(uuid, state);
+        importLegacy(uuid, state);
+        return state;
+    }
+
+    /**
+     * Recovers the record count and size of the active segment. The index gives the offset of the
+     * last indexed record, so only the records after it are counted. A torn last line (crash
+     * mid-append) is cut off, and a missing or inconsistent index is rebuilt by a full scan.
+     */
+    private void load(SegmentState state) throws IOException {
+        List<Path> segments = archivedSegments(state.dir);
+        state.nextSegment = segments.isEmpty() ? LEGACY_SEGMENT + 1
+            : Math.max(LEGACY_SEGMENT, segmentNumber(segments.get(0))) + 1;
+
+        if (!Files.exists(state.logFile)) {
+            Files.deleteIfExists(state.indexFile);
+            return;
+        }
+        long fileSize = Files.size(state.logFile);
+        long indexEntries = Files.exists(state.indexFile) ? Files.size(state.indexFile) / Long.BYTES : 0;
+        long lastIndexed = indexEntries > 0 ? readLong(state.indexFile, (int) indexEntries - 1) : -1;
+
+        if (lastIndexed < 0 || lastIndexed > fileSize) {
+            rebuildIndex(state);
+            return;
+        }
+        long[] tail = countLines(state.logFile, lastIndexed);
+        state.count = (int) ((indexEntries - 1) * INDEX_INTERVAL + tail[0]);
+        state.size = tail[1];
+        if (tail[0] == 0 || tail[0] > INDEX_INTERVAL) {
+            // Index written ahead of a record that never made it, or records missing from the index
+            rebuildIndex(state);
+        } else if (state.size < fileSize) {
+            truncate(state.logFile, state.size);
+        }
+    }
+
+    private void rebuildIndex(SegmentState state) throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        long position = 0;
+        int count = 0;
+        try (InputStream in = Files.newInputStream(state.logFile)) {
+            byte[] buffer = new byte[8192];
+            long lineStart = 0;
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        if (count % INDEX_INTERVAL == 0) {
+                            offsets.add(lineStart);
+                        }
+                        count++;
+                        lineStart = position + i + 1;
+                    }
+                }
+                position += read;
+            }
+            position = lineStart;
+        }
+        truncate(state.logFile, position);
+
+        ByteBuffer index = ByteBuffer.allocate(offsets.size() * Long.BYTES);
+        offsets.forEach(index::putLong);
+        Files.write(state.indexFile, index.array());
+        state.count = count;
+        state.size = position;
+    }
+
+    /**
+     * Counts complete lines from an offset to the end of the file.
+     * @return {line count, file offset just after the last complete line}
+     */
+    private static long[] countLines(Path file, long from) throws IOException {
+        long count = 0;
+        long end = from;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(from);
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            long position = from;
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    position++;
+                    if (buffer.get() == '\n') {
+                        count++;
+                        end = position;
+                    }
+                }
+                buffer.clear();
+            }
+        }
+        return new long[] { count, end };
+    }
+
+    /**
+     * Moves records from a legacy data/players/&lt;uuid&gt;_transactions.json file into the journal.
+     * They are written to a temp file that is moved into place as segment 0 in one step, and an
+     * existing segment 0 means an earlier import completed, so a crash before the legacy file is
+     * deleted never imports the history twice.
+     */
+    private void importLegacy(UUID uuid, SegmentState state) {
+        Path legacy = legacyDir.resolve(uuid + "_transactions.json");
+        if (!Files.exists(legacy)) {
+            return;
+        }
+        try {
+            Path segment = segmentFile(state.dir, LEGACY_SEGMENT);
+            if (Files.exists(segment) || Files.exists(segment.resolveSibling(segment.getFileName() + ".gz"))) {
+                Files.delete(legacy);
+                return;
+            }
+
+            List<TransactionRecord> records;
+            try (Reader reader = Files.newBufferedReader(legacy)) {
+                records = GSON.fromJson(reader, TRANSACTION_LIST_TYPE);
+            }
+            if (records != null && !records.isEmpty()) {
+                Path tmp = segment.resolveSibling(segment.getFileName() + ".tmp");
+                try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    for (TransactionRecord record : records) {
+                        ByteBuffer buffer = ByteBuffer.wrap((GSON.toJson(record) + "\n").getBytes(StandardCharsets.UTF_8));
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    }
+                    channel.force(true);
+                }
+                Files.move(tmp, segment, StandardCopyOption.ATOMIC_MOVE);
+                queueCompaction(uuid, segment);
+            }
+            Files.delete(legacy);
+            System.out.println("[TransactionJournal] Imported " + (records != null ? records.size() : 0) +
+                " legacy transaction(s) for " + uuid);
+        } catch (Exception e) {
+            System.err.println("[TransactionJournal] Failed to import legacy transactions for " + uuid + ": " + e.getMessage());
+        }
+    }
+
+    // ========== File Helpers ==========
+
+    private static void writeLong(Path file, long value) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(value).flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static long readLong(Path file, int entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position((long) entry * Long.BYTES);
+            while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                // keep reading
+            }
+        }
+        return buffer.flip().remaining() == Long.BYTES ? buffer.getLong() : 0;
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+        }
+    }
+
+    private static final class SegmentState {
+        final Path dir;
+        final Path logFile;
+        final Path indexFile;
+        int count;
+        long size;
+        // Sequence number for the next rotated segment
+        long nextSegment;
+
+        SegmentState(Path dir) {
+            this.dir = dir;
+            this.logFile = dir.resolve("active.log");
+            this.indexFile = dir.resolve("active.idx");
+        }
+    }
+}
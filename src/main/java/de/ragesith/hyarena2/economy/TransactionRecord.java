@@ -2,7 +2,7 @@ package de.ragesith.hyarena2.economy;
 
 /**
  * Single audit log entry for economy transactions.
- * Appended to data/players/<uuid>_transactions.json.
+ * Appended to the player's journal in data/transactions/<uuid>/ (see TransactionJournal).
  */
 public class TransactionRecord {
     private String type;      // "AP_EARN", "AP_SPEND", "HONOR_EARN", "HONOR_DECAY", "PURCHASE"
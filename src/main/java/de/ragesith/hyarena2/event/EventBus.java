@@ -1,17 +1,39 @@
 package de.ragesith.hyarena2.event;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Simple event bus for decoupled communication between components.
  * Allows publishing events and subscribing handlers without tight coupling.
  *
- * <p>Thread Safety: Uses ConcurrentHashMap and CopyOnWriteArrayList
- * for safe concurrent access.
+ * <p>Subscriptions are kept in an immutable, priority-sorted registry that is replaced on every
+ * change. Each concrete event class gets an {@link EventChannel} that compiles a flattened handler
+ * array from the registry — including handlers subscribed to a supertype or interface, e.g.
+ * {@code Event.class} — so publishing never walks the type hierarchy.
+ *
+ * <p>Handlers run synchronously on the publisher's thread unless they subscribe on an
+ * {@link EventLane}, in which case they are queued to that lane's worker in publish order.
+ *
+ * <p>Thread Safety: subscription changes are serialised; publishing is lock-free
+ * (except for a full lane with the BLOCK policy).
+ *
+ * <p>Metrics: every channel counts its publishes, and every handler invocation is timed into
+ * that subscriber's {@link HandlerStats} (named after the class and method that subscribed it).
+ * Invocations slower than the slow-handler threshold are logged, at most once per subscriber
+ * every few seconds. See {@code /hydebug events}.
  *
  * <p>Usage:
  * <pre>
@@ -22,50 +44,249 @@ import java.util.function.Consumer;
  *
  * // Publish an event
  * eventBus.publish(new MatchStartedEvent(matchId));
+ *
+ * // Hot paths: resolve the channel once, publish without a lookup
+ * EventChannel&lt;ParticipantDamagedEvent&gt; damaged = eventBus.channel(ParticipantDamagedEvent.class);
+ * damaged.publish(new ParticipantDamagedEvent(...));
+ *
+ * // Slow subscribers: run off the publisher's thread on a named lane
+ * EventLane stats = eventBus.lane("stats", 4096, EventLane.OverflowPolicy.BLOCK);
+ * eventBus.subscribe(MatchFinishedEvent.class, stats, this::onMatchFinished);
+ *
+ * // High-frequency events: merge per key, deliver once per window
+ * eventBus.subscribeCoalesced(ParticipantDamagedEvent.class, 500, ParticipantDamagedEvent::getCoalesceKey,
+ *     ParticipantDamagedEvent::merge, stats, this::onParticipantDamaged);
  * </pre>
  */
 public class EventBus {
 
-    private final Map<Class<?>, List<Consumer<?>>> handlers = new ConcurrentHashMap<>();
+    // Dispatch order: priority first, then subscription order
+    private static final Comparator<Subscription> DISPATCH_ORDER =
+        Comparator.comparing((Subscription s) -> s.priority).thenComparingLong(s -> s.order);
+
+    // Lane used by publishAsync()
+    private static final String ASYNC_LANE = "async";
+    private static final int ASYNC_LANE_CAPACITY = 1024;
+
+    // Metrics: publish rate window, and default slow-handler threshold (a tick is 50ms)
+    static final long RATE_WINDOW_MS = 5000;
+    private static final long DEFAULT_SLOW_HANDLER_THRESHOLD_MS = 5;
+
+    private final Map<Class<?>, EventChannel<?>> channels = new ConcurrentHashMap<>();
+    private final Map<String, EventLane> lanes = new ConcurrentHashMap<>();
+    private final List<EventCoalescer<?>> coalescers = new CopyOnWriteArrayList<>();
+    private volatile ScheduledExecutorService coalesceScheduler;
+    private final Object registryLock = new Object();
+    private volatile Registry registry = new Registry(0, new Subscription[0]);
+    private long nextOrder;
     private volatile boolean active = true;
+    private volatile long slowHandlerThresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_HANDLER_THRESHOLD_MS);
 
     /**
-     * Subscribes a handler to an event type.
+     * Subscribes a handler to an event type with normal priority.
+     * The handler also receives every subtype of the event type.
      *
-     * @param eventType the event class to subscribe to
+     * @param eventType the event class (or supertype / interface) to subscribe to
      * @param handler   the handler to invoke when events are published
      * @param <T>       the event type
      */
-    public <T> void subscribe(Class<T> eventType, Consumer<T> handler) {
+    public <T> void subscribe(Class<T> eventType, Consumer<? super T> handler) {
+        subscribe(eventType, EventPriority.NORMAL, handler);
+    }
+
+    /**
+     * Subscribes a handler to an event type with the given priority.
+     *
+     * @param eventType the event class (or supertype / interface) to subscribe to
+     * @param priority  dispatch priority; higher priorities run first
+     * @param handler   the handler to invoke when events are published
+     * @param <T>       the event type
+     */
+    public <T> void subscribe(Class<T> eventType, EventPriority priority, Consumer<? super T> handler) {
+        register(eventType, priority, null, null, handler);
+    }
+
+    /**
+     * Subscribes a handler that runs on an async lane instead of the publisher's thread.
+     *
+     * @param eventType the event class (or supertype / interface) to subscribe to
+     * @param lane      the lane whose worker invokes the handler
+     * @param handler   the handler to invoke when events are published
+     * @param <T>       the event type
+     */
+    public <T> void subscribe(Class<T> eventType, EventLane lane, Consumer<? super T> handler) {
+        register(eventType, EventPriority.NORMAL, lane, null, handler);
+    }
+
+    /**
+     * Subscribes a handler on a COALESCE lane. While an event for a key is still queued,
+     * newer events with the same key replace it, so the handler only sees the latest one.
+     *
+     * @param eventType   the event class (or supertype / interface) to subscribe to
+     * @param lane        the lane whose worker invokes the handler
+     * @param coalesceKey extracts the coalescing key from an event (null key = never coalesced)
+     * @param handler     the handler to invoke when events are published
+     * @param <T>         the event type
+     */
+    public <T> void subscribe(Class<T> eventType, EventLane lane, Function<? super T, ?> coalesceKey,
+                              Consumer<? super T> handler) {
+        register(eventType, EventPriority.NORMAL, lane, coalesceKey, handler);
+    }
+
+    /**
+     * Subscribes a handler that receives merged events: events with the same key are combined
+     * with {@code merge} and delivered once per window. Use for high-frequency events whose
+     * subscribers only update counters, so the counters stay exact at a fraction of the calls.
+     *
+     * @param eventType the event class (or supertype / interface) to subscribe to
+     * @param windowMs  flush window in milliseconds
+     * @param key       extracts the merge key from an event
+     * @param merge     combines two events with the same key into one
+     * @param lane      lane to deliver merged events on, or null for the bus's coalescing thread
+     * @param handler   the handler to invoke with merged events
+     * @return the coalescer, whose flush() delivers pending merged events immediately
+     */
+    public <T> EventCoalescer<T> subscribeCoalesced(Class<T> eventType, long windowMs, Function<? super T, ?> key,
+                                                    BinaryOperator<T> merge, EventLane lane,
+                                                    Consumer<? super T> handler) {
+        HandlerStats stats = new HandlerStats(describeSubscriber(), eventType, "coalesced");
+        EventCoalescer<T> coalescer = new EventCoalescer<>(this, eventType, windowMs, key, merge, lane, handler, stats);
+        coalescers.add(coalescer);
+        coalescer.setSchedule(getCoalesceScheduler().scheduleAtFixedRate(coalescer::scheduledFlush,
+            windowMs, windowMs, TimeUnit.MILLISECONDS));
+        register(eventType, EventPriority.NORMAL, null, null, coalescer, stats, handler);
+        return coalescer;
+    }
+
+    private synchronized ScheduledExecutorService getCoalesceScheduler() {
+        if (coalesceScheduler == null) {
+            coalesceScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "HyArena2-EventCoalescer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return coalesceScheduler;
+    }
+
+    private <T> void register(Class<T> eventType, EventPriority priority, EventLane lane,
+                              Function<? super T, ?> coalesceKey, Consumer<? super T> handler) {
+        HandlerStats stats = new HandlerStats(describeSubscriber(), eventType,
+            lane != null ? "lane:" + lane.getName() : "sync");
+        register(eventType, priority, lane, coalesceKey, null, stats, handler);
+    }
+
+    private <T> void register(Class<T> eventType, EventPriority priority, EventLane lane,
+                              Function<? super T, ?> coalesceKey, EventCoalescer<T> coalescer,
+                              HandlerStats stats, Consumer<? super T> handler) {
         if (eventType == null || handler == null) {
             return;
         }
 
-        handlers.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>())
-            .add(handler);
+        synchronized (registryLock) {
+            Subscription[] current = registry.subscriptions;
+            Subscription[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = new Subscription(eventType, handler,
+                priority != null ? priority : EventPriority.NORMAL, nextOrder++, lane, coalesceKey, coalescer, stats);
+            Arrays.sort(updated, DISPATCH_ORDER);
+            registry = new Registry(registry.version + 1, updated);
+        }
     }
 
     /**
-     * Unsubscribes a handler from an event type.
+     * Names a subscriber after the first caller outside the bus, e.g. "StatsManager.subscribeToEvents:142".
+     * Handlers are lambdas or method references, so the subscribing call site is the most specific
+     * name available at runtime; the line number tells apart several subscriptions in one method.
+     */
+    private static String describeSubscriber() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(frame -> !frame.getClassName().equals(EventBus.class.getName()))
+            .findFirst()
+            .map(frame -> {
+                String className = frame.getClassName();
+                return className.substring(className.lastIndexOf('.') + 1) + "." +
+                    frame.getMethodName() + ":" + frame.getLineNumber();
+            })
+            .orElse("unknown"));
+    }
+
+    /**
+     * Unsubscribes a handler from an event type. A coalesced subscription stops its flush
+     * schedule and delivers its pending merged events one last time.
      *
      * @param eventType the event class to unsubscribe from
      * @param handler   the handler to remove
      * @param <T>       the event type
      */
-    public <T> void unsubscribe(Class<T> eventType, Consumer<T> handler) {
+    public <T> void unsubscribe(Class<T> eventType, Consumer<? super T> handler) {
         if (eventType == null || handler == null) {
             return;
         }
 
-        List<Consumer<?>> list = handlers.get(eventType);
-        if (list != null) {
-            list.remove(handler);
+        Subscription removed = null;
+        synchronized (registryLock) {
+            Subscription[] current = registry.subscriptions;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i].eventType == eventType && current[i].handler == handler) {
+                    removed = current[i];
+                    Subscription[] updated = new Subscription[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    registry = new Registry(registry.version + 1, updated);
+                    break;
+                }
+            }
+        }
+        if (removed != null) {
+            stopCoalescers(List.of(removed));
+        }
+    }
+
+    /**
+     * Stops the coalescers of removed subscriptions, outside the registry lock since a final flush runs handlers.
+     */
+    private void stopCoalescers(Collection<Subscription> removed) {
+        for (Subscription subscription : removed) {
+            if (subscription.coalescer != null && coalescers.remove(subscription.coalescer)) {
+                subscription.coalescer.stop();
+            }
         }
     }
 
+    /**
+     * Gets or creates a named async lane. Settings of an existing lane are kept.
+     *
+     * @param name     lane name (also used for the worker thread name)
+     * @param capacity maximum number of queued deliveries
+     * @param policy   what publishers do when the lane is full
+     */
+    public EventLane lane(String name, int capacity, EventLane.OverflowPolicy policy) {
+        return lanes.computeIfAbsent(name, n -> new EventLane(this, n, capacity, policy));
+    }
+
+    /**
+     * Gets a lane by name, or null if it was never created.
+     */
+    public EventLane getLane(String name) {
+        return lanes.get(name);
+    }
+
+    public Collection<EventLane> getLanes() {
+        return lanes.values();
+    }
+
+    /**
+     * Gets the publish channel for a concrete event class.
+     * Publishers on hot paths should resolve this once and keep it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> EventChannel<T> channel(Class<T> eventType) {
+        return (EventChannel<T>) channels.computeIfAbsent(eventType, type -> new EventChannel<>(this, type));
+    }
+
     /**
      * Publishes an event to all subscribed handlers.
-     * Handlers are invoked synchronously in subscription order.
+     * Handlers are invoked synchronously, by priority and then subscription order.
      * Exceptions in handlers are caught and logged.
      *
      * @param event the event to publish
@@ -77,23 +298,12 @@ public class EventBus {
             return;
         }
 
-        List<Consumer<?>> list = handlers.get(event.getClass());
-        if (list == null || list.isEmpty()) {
-            return;
-        }
-
-        for (Consumer<?> handler : list) {
-            try {
-                ((Consumer<T>) handler).accept(event);
-            } catch (Exception e) {
-                System.err.println("[EventBus] Handler failed for " + event.getClass().getSimpleName() + ": " + e.getMessage());
-                e.printStackTrace();
-            }
-        }
+        ((EventChannel<T>) channel(event.getClass())).publish(event);
     }
 
     /**
-     * Publishes an event asynchronously on a virtual thread.
+     * Publishes an event asynchronously: all handlers run in order on the shared "async" lane.
+     * Publishers block if that lane falls more than its capacity behind.
      *
      * @param event the event to publish
      * @param <T>   the event type
@@ -103,43 +313,105 @@ public class EventBus {
             return;
         }
 
-        Thread.startVirtualThread(() -> publish(event));
+        lane(ASYNC_LANE, ASYNC_LANE_CAPACITY, EventLane.OverflowPolicy.BLOCK).enqueueTask(this::publish, event);
+    }
+
+    // ========== Metrics ==========
+
+    /**
+     * Gets the channels of every event class published or looked up so far, with their publish counts.
+     */
+    public Collection<EventChannel<?>> getChannels() {
+        return channels.values();
     }
 
     /**
-     * Checks if there are any handlers subscribed to an event type.
+     * Gets the invocation metrics of every current subscriber, in dispatch order.
+     */
+    public List<HandlerStats> getHandlerStats() {
+        Subscription[] subscriptions = registry.subscriptions;
+        List<HandlerStats> stats = new ArrayList<>(subscriptions.length);
+        for (Subscription subscription : subscriptions) {
+            stats.add(subscription.stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Sets the invocation time above which a handler call is logged as slow (0 disables warnings).
+     */
+    public void setSlowHandlerThresholdMs(long thresholdMs) {
+        slowHandlerThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, thresholdMs));
+    }
+
+    public long getSlowHandlerThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(slowHandlerThresholdNanos);
+    }
+
+    long getSlowHandlerThresholdNanos() {
+        return slowHandlerThresholdNanos;
+    }
+
+    /**
+     * Checks if any handler would receive events of a type (including supertype subscribers).
      */
     public boolean hasHandlers(Class<?> eventType) {
-        List<Consumer<?>> list = handlers.get(eventType);
-        return list != null && !list.isEmpty();
+        return channel(eventType).hasHandlers();
     }
 
     /**
-     * Gets the number of handlers subscribed to an event type.
+     * Gets the number of handlers that would receive events of a type (including supertype subscribers).
      */
     public int getHandlerCount(Class<?> eventType) {
-        List<Consumer<?>> list = handlers.get(eventType);
-        return list != null ? list.size() : 0;
+        return channel(eventType).handlers().length;
     }
 
     /**
-     * Clears all handlers for an event type.
+     * Clears all handlers subscribed directly to an event type.
      */
     public void clearHandlers(Class<?> eventType) {
-        handlers.remove(eventType);
+        List<Subscription> removed = new ArrayList<>();
+        synchronized (registryLock) {
+            List<Subscription> kept = new ArrayList<>();
+            for (Subscription subscription : registry.subscriptions) {
+                if (subscription.eventType != eventType) {
+                    kept.add(subscription);
+                } else {
+                    removed.add(subscription);
+                }
+            }
+            registry = new Registry(registry.version + 1, kept.toArray(new Subscription[0]));
+        }
+        stopCoalescers(removed);
     }
 
     /**
      * Clears all handlers for all event types.
      */
     public void clearAllHandlers() {
-        handlers.clear();
+        Subscription[] removed;
+        synchronized (registryLock) {
+            removed = registry.subscriptions;
+            registry = new Registry(registry.version + 1, new Subscription[0]);
+        }
+        stopCoalescers(Arrays.asList(removed));
     }
 
     /**
      * Shuts down the event bus.
      */
     public void shutdown() {
+        // Deliver pending merged events, then let lanes finish queued deliveries before handlers are dropped
+        if (coalesceScheduler != null) {
+            coalesceScheduler.shutdownNow();
+        }
+        for (EventCoalescer<?> coalescer : coalescers) {
+            coalescer.scheduledFlush();
+        }
+        coalescers.clear();
+        for (EventLane lane : lanes.values()) {
+            lane.shutdown();
+        }
         active = false;
         clearAllHandlers();
         System.out.println("[HyArena2] EventBus shutdown complete");
@@ -151,4 +423,22 @@ public class EventBus {
     public boolean isActive() {
         return active;
     }
+
+    Registry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Immutable snapshot of all subscriptions, sorted in dispatch order.
+     * The version lets channels detect that their compiled arrays are stale.
+     */
+    static final class Registry {
+        final int version;
+        final Subscription[] subscriptions;
+
+        Registry(int version, Subscription[] subscriptions) {
+            this.version = version;
+            this.subscriptions = subscriptions;
+        }
+    }
 }
@@ -0,0 +1,125 @@
+package de.ragesith.hyarena2.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pre-resolved publish handle for one concrete event class.
+ * Holds the flattened, priority-sorted handler array for that class (including supertype and
+ * interface subscribers) and recompiles it only when the bus's subscriptions change.
+ * Hot publishers keep a channel in a field so each publish is a version check plus an array loop
+ * (lane subscribers are queued rather than invoked).
+ *
+ * @param <T> the concrete event type
+ */
+public final class EventChannel<T> {
+
+    private final EventBus bus;
+    private final Class<T> eventType;
+    private volatile Compiled compiled = new Compiled(-1, new Subscription[0]);
+
+    // Publish metrics
+    private final LongAdder published = new LongAdder();
+    private long rateSampleCount;
+    private long rateSampleTime = System.currentTimeMillis();
+    private double publishRate;
+
+    EventChannel(EventBus bus, Class<T> eventType) {
+        this.bus = bus;
+        this.eventType = eventType;
+    }
+
+    /**
+     * Publishes an event to every handler of this channel's event class.
+     */
+    public void publish(T event) {
+        if (event == null || !bus.isActive()) {
+            return;
+        }
+        published.increment();
+        for (Subscription subscription : handlers()) {
+            if (subscription.coalescer != null) {
+                subscription.coalescer.add(event);
+                continue;
+            }
+            if (subscription.lane != null) {
+                subscription.lane.enqueue(subscription, event);
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                subscription.handler.accept(event);
+            } catch (Exception e) {
+                System.err.println("[EventBus] Handler " + subscription.stats.getName() + " failed for " +
+                    eventType.getSimpleName() + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+            subscription.stats.record(System.nanoTime() - start, bus.getSlowHandlerThresholdNanos());
+        }
+    }
+
+    /**
+     * Checks if any handler would receive events on this channel.
+     */
+    public boolean hasHandlers() {
+        return handlers().length > 0;
+    }
+
+    public Class<T> getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Gets how many events were published on this channel since the bus started.
+     */
+    public long getPublishCount() {
+        return published.sum();
+    }
+
+    /**
+     * Gets the publish rate in events per second, measured over the last completed window
+     * of at least {@link EventBus#RATE_WINDOW_MS}.
+     */
+    public synchronized double getPublishRate() {
+        long now = System.currentTimeMillis();
+        long elapsed = now - rateSampleTime;
+        if (elapsed >= EventBus.RATE_WINDOW_MS) {
+            long count = published.sum();
+            publishRate = (count - rateSampleCount) / (elapsed / 1000.0);
+            rateSampleCount = count;
+            rateSampleTime = now;
+        }
+        return publishRate;
+    }
+
+    /**
+     * Gets the handler array for the bus's current registry, recompiling it if subscriptions changed.
+     */
+    Subscription[] handlers() {
+        EventBus.Registry registry = bus.getRegistry();
+        Compiled current = compiled;
+        if (current.version != registry.version) {
+            // The registry is already priority-sorted, so filtering keeps dispatch order
+            List<Subscription> matching = new ArrayList<>();
+            for (Subscription subscription : registry.subscriptions) {
+                if (subscription.eventType.isAssignableFrom(eventType)) {
+                    matching.add(subscription);
+                }
+            }
+            current = new Compiled(registry.version, matching.toArray(new Subscription[0]));
+            compiled = current;
+        }
+        return current.handlers;
+    }
+
+    private static final class Compiled {
+        final int version;
+        final Subscription[] handlers;
+
+        Compiled(int version, Subscription[] handlers) {
+            this.version = version;
+            this.handlers = handlers;
+        }
+    }
+}
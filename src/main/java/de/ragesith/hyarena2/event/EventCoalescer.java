@@ -0,0 +1,124 @@
+package de.ragesith.hyarena2.event;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Merges high-frequency events per key and delivers one merged event per key each flush window.
+ * Merging is atomic per key, so no event is ever lost or counted twice — counters fed by the
+ * merged events stay exact while the subscriber runs far less often.
+ *
+ * <p>With a lane, each flush is queued as a single task on that lane and delivers inline on its
+ * worker, keeping merged events ordered with the lane's other events. Without a lane, merged
+ * events are delivered on the bus's coalescing thread.
+ *
+ * @param <T> the event type
+ */
+public class EventCoalescer<T> {
+    private final EventBus bus;
+    private final Class<T> eventType;
+    private final Function<? super T, ?> keyFunction;
+    private final BinaryOperator<T> merge;
+    private final Consumer<? super T> handler;
+    private final EventLane lane;
+    private final long windowMs;
+    private final HandlerStats stats;
+
+    private final Map<Object, T> pending = new ConcurrentHashMap<>();
+
+    // Periodic flush on the bus's coalescing thread, cancelled when the subscription is removed
+    private volatile ScheduledFuture<?> schedule;
+
+    // Counters
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+
+    EventCoalescer(EventBus bus, Class<T> eventType, long windowMs, Function<? super T, ?> keyFunction,
+                   BinaryOperator<T> merge, EventLane lane, Consumer<? super T> handler, HandlerStats stats) {
+        this.bus = bus;
+        this.eventType = eventType;
+        this.windowMs = windowMs;
+        this.keyFunction = keyFunction;
+        this.merge = merge;
+        this.lane = lane;
+        this.handler = handler;
+        this.stats = stats;
+    }
+
+    /**
+     * Merges an event into the pending event for its key. Events with a null key bypass merging
+     * and are delivered on their own at the next flush.
+     */
+    @SuppressWarnings("unchecked")
+    void add(Object event) {
+        T typed = (T) event;
+        received.incrementAndGet();
+        Object key = keyFunction.apply(typed);
+        pending.merge(key != null ? key : new Object(), typed, merge);
+    }
+
+    /**
+     * Called by the bus every window: hands the flush to the lane, or flushes directly.
+     */
+    void scheduledFlush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (lane != null) {
+            lane.enqueueTask(ignored -> flush(), eventType);
+        } else {
+            flush();
+        }
+    }
+
+    void setSchedule(ScheduledFuture<?> schedule) {
+        this.schedule = schedule;
+    }
+
+    /**
+     * Stops the periodic flush and delivers what is still pending (the subscription was removed).
+     */
+    void stop() {
+        ScheduledFuture<?> current = schedule;
+        if (current != null) {
+            current.cancel(false);
+        }
+        scheduledFlush();
+    }
+
+    /**
+     * Delivers every pending merged event on the calling thread.
+     * Call from the delivering lane's own handlers (e.g. before finalising a match record)
+     * to make sure no merged event is still waiting for the next window.
+     */
+    public void flush() {
+        for (Object key : pending.keySet()) {
+            T merged = pending.remove(key);
+            if (merged == null) {
+                continue;
+            }
+            delivered.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                handler.accept(merged);
+            } catch (Exception e) {
+                System.err.println("[EventBus] Coalesced handler " + stats.getName() + " failed for " +
+                    eventType.getSimpleName() + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+            stats.record(System.nanoTime() - start, bus.getSlowHandlerThresholdNanos());
+        }
+    }
+
+    public Class<T> getEventType() { return eventType; }
+    public long getWindowMs() { return windowMs; }
+    public int getPendingCount() { return pending.size(); }
+    public long getReceivedCount() { return received.get(); }
+    public long getDeliveredCount() { return delivered.get(); }
+    public HandlerStats getHandlerStats() { return stats; }
+}
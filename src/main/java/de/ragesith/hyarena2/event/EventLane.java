@@ -0,0 +1,273 @@
+package de.ragesith.hyarena2.event;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Named async lane for event subscribers that must not run on the publisher's thread
+ * (e.g. stats bookkeeping and web sync subscribers, which would otherwise run on a world tick).
+ *
+ * <p>Each lane is a bounded multi-producer queue drained by a single worker thread, so
+ * handlers on one lane see events in publish order and never run concurrently with each other.
+ * What happens when the queue is full is decided by the lane's {@link OverflowPolicy}.
+ */
+public class EventLane {
+
+    /**
+     * What a publisher does when the lane's queue is full.
+     */
+    public enum OverflowPolicy {
+        /** Wait for space. Nothing is lost; a slow subscriber slows the publisher down. */
+        BLOCK,
+        /** Drop the oldest queued event to make room. */
+        DROP_OLDEST,
+        /**
+         * Keyed subscriptions replace their still-queued event with the same key instead of
+         * queueing another one (at any fill level). Falls back to DROP_OLDEST when full.
+         */
+        COALESCE
+    }
+
+    private static final long SHUTDOWN_DRAIN_MS = 2000;
+
+    private final EventBus bus;
+    private final String name;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final BlockingQueue<Item> queue;
+    private final Map<PendingKey, Item> pending = new ConcurrentHashMap<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // Counters
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    EventLane(EventBus bus, String name, int capacity, OverflowPolicy policy) {
+        this.bus = bus;
+        this.name = name;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.worker = new Thread(this::drainLoop, "HyArena2-EventLane-" + name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues delivery of an event to one subscription.
+     */
+    void enqueue(Subscription subscription, Object event) {
+        PendingKey key = null;
+        if (policy == OverflowPolicy.COALESCE && subscription.coalesceKey != null) {
+            Object eventKey = subscription.coalesceKey.apply(event);
+            if (eventKey != null) {
+                key = new PendingKey(subscription, eventKey);
+                Item existing = pending.get(key);
+                if (existing != null && existing.tryReplace(event)) {
+                    coalesced.incrementAndGet();
+                    return;
+                }
+            }
+        }
+        offer(new Item(subscription.handler, subscription.stats, event, key));
+    }
+
+    /**
+     * Queues a task that runs on the lane worker (used for whole-event async publishing).
+     * Tasks are not timed themselves; the handlers they invoke are.
+     */
+    void enqueueTask(Consumer<Object> task, Object event) {
+        offer(new Item(task, null, event, null));
+    }
+
+    private void offer(Item item) {
+        if (!running) {
+            return;
+        }
+        if (item.key != null) {
+            pending.put(item.key, item);
+        }
+        enqueued.incrementAndGet();
+
+        if (queue.offer(item)) {
+            return;
+        }
+
+        if (policy == OverflowPolicy.BLOCK) {
+            if (Thread.currentThread() == worker) {
+                // A handler on this lane published back into it — waiting would deadlock
+                run(item);
+                processed.incrementAndGet();
+                return;
+            }
+            try {
+                queue.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                discard(item);
+            }
+            return;
+        }
+
+        // DROP_OLDEST / COALESCE: evict until the new item fits
+        while (!queue.offer(item)) {
+            Item oldest = queue.poll();
+            if (oldest != null) {
+                discard(oldest);
+            }
+        }
+    }
+
+    private void discard(Item item) {
+        item.take();
+        if (item.key != null) {
+            pending.remove(item.key, item);
+        }
+        processed.incrementAndGet();
+        dropped.incrementAndGet();
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            Item item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                if (!running) {
+                    // Drain whatever is left without blocking, then exit
+                    while ((item = queue.poll()) != null) {
+                        run(item);
+                        processed.incrementAndGet();
+                    }
+                    return;
+                }
+                continue;
+            }
+            run(item);
+            processed.incrementAndGet();
+        }
+    }
+
+    private void run(Item item) {
+        Object event = item.take();
+        if (item.key != null) {
+            pending.remove(item.key, item);
+        }
+        long start = System.nanoTime();
+        try {
+            item.handler.accept(event);
+        } catch (Exception e) {
+            System.err.println("[EventLane] Handler " + (item.stats != null ? item.stats.getName() + " " : "") +
+                "on lane '" + name + "' failed for " + event.getClass().getSimpleName() + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        if (item.stats != null) {
+            item.stats.record(System.nanoTime() - start, bus.getSlowHandlerThresholdNanos());
+        }
+    }
+
+    /**
+     * Waits until every event queued so far has been handled.
+     * @return true if the lane went idle within the timeout
+     */
+    public boolean awaitIdle(long timeoutMs) {
+        long target = enqueued.get();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (processed.get() < target) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting events, handles what is already queued, and stops the worker.
+     */
+    void shutdown() {
+        if (!awaitIdle(SHUTDOWN_DRAIN_MS)) {
+            System.err.println("[EventLane] Lane '" + name + "' did not drain within " + SHUTDOWN_DRAIN_MS +
+                "ms (" + queue.size() + " events left)");
+        }
+        running = false;
+        worker.interrupt();
+    }
+
+    public String getName() { return name; }
+    public int getCapacity() { return capacity; }
+    public OverflowPolicy getPolicy() { return policy; }
+    public int getQueueSize() { return queue.size(); }
+    public long getProcessedCount() { return processed.get() - dropped.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public long getCoalescedCount() { return coalesced.get(); }
+
+    /**
+     * One queued delivery. Synchronised so a coalescing publisher can never replace the event
+     * after the worker has taken it.
+     */
+    private static final class Item {
+        final Consumer<Object> handler;
+        final HandlerStats stats;  // null = untimed task
+        final PendingKey key;
+        private Object event;
+        private boolean taken;
+
+        Item(Consumer<Object> handler, HandlerStats stats, Object event, PendingKey key) {
+            this.handler = handler;
+            this.stats = stats;
+            this.event = event;
+            this.key = key;
+        }
+
+        synchronized boolean tryReplace(Object newEvent) {
+            if (taken) {
+                return false;
+            }
+            event = newEvent;
+            return true;
+        }
+
+        synchronized Object take() {
+            taken = true;
+            return event;
+        }
+    }
+
+    /**
+     * Coalescing key: the subscription plus the key it extracted from the event.
+     */
+    private static final class PendingKey {
+        final Subscription subscription;
+        final Object key;
+
+        PendingKey(Subscription subscription, Object key) {
+            this.subscription = subscription;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PendingKey other)) return false;
+            return subscription == other.subscription && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(subscription) + key.hashCode();
+        }
+    }
+}
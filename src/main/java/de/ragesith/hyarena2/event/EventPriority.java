@@ -0,0 +1,13 @@
+package de.ragesith.hyarena2.event;
+
+/**
+ * Order in which subscribers receive an event. Higher priorities run first;
+ * handlers with the same priority run in subscription order.
+ */
+public enum EventPriority {
+    HIGHEST,
+    HIGH,
+    NORMAL,
+    LOW,
+    LOWEST
+}
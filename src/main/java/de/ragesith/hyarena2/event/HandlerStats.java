@@ -0,0 +1,118 @@
+package de.ragesith.hyarena2.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Invocation metrics for one subscriber: call count, total/max time, and a latency histogram.
+ *
+ * <p>The histogram has one bucket per power of two nanoseconds, so recording is a single
+ * atomic increment and percentiles are reported as the upper bound of their bucket
+ * (within a factor of two, which is plenty to spot a handler that blocks a world thread).
+ */
+public final class HandlerStats {
+    private static final int BUCKETS = 64;
+
+    // Minimum time between two slow-handler warnings for the same subscriber
+    private static final long SLOW_WARNING_INTERVAL_MS = 10_000;
+
+    private final String name;
+    private final Class<?> eventType;
+    private final String delivery;
+
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    // Slow-call tracking
+    private final LongAdder slowInvocations = new LongAdder();
+    private final AtomicLong lastWarningMs = new AtomicLong();
+    private final AtomicLong suppressedWarnings = new AtomicLong();
+
+    HandlerStats(String name, Class<?> eventType, String delivery) {
+        this.name = name;
+        this.eventType = eventType;
+        this.delivery = delivery;
+    }
+
+    /**
+     * Records one invocation and logs a (rate-limited) warning if it exceeded the slow threshold.
+     */
+    void record(long nanos, long slowThresholdNanos) {
+        invocations.increment();
+        totalNanos.add(nanos);
+        histogram.incrementAndGet(bucketOf(nanos));
+        maxNanos.accumulateAndGet(nanos, Math::max);
+
+        if (slowThresholdNanos > 0 && nanos >= slowThresholdNanos) {
+            slowInvocations.increment();
+            warnSlow(nanos);
+        }
+    }
+
+    private void warnSlow(long nanos) {
+        long now = System.currentTimeMillis();
+        long last = lastWarningMs.get();
+        if (now - last < SLOW_WARNING_INTERVAL_MS || !lastWarningMs.compareAndSet(last, now)) {
+            suppressedWarnings.incrementAndGet();
+            return;
+        }
+        long suppressed = suppressedWarnings.getAndSet(0);
+        System.err.println("[EventBus] Slow handler " + name + " for " + eventType.getSimpleName() +
+            " took " + String.format("%.2f", nanos / 1_000_000.0) + "ms on thread '" +
+            Thread.currentThread().getName() + "'" +
+            (suppressed > 0 ? " (" + suppressed + " more slow calls since last warning)" : ""));
+    }
+
+    private static int bucketOf(long nanos) {
+        return nanos <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    /**
+     * Gets the approximate latency at a percentile, in nanoseconds (upper bound of its histogram bucket).
+     *
+     * @param percentile 0-100
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) {
+                return i == 0 ? 0 : Math.min(1L << i, getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Gets the subscriber name: the class, method and line that subscribed the handler.
+     */
+    public String getName() { return name; }
+    public Class<?> getEventType() { return eventType; }
+
+    /**
+     * Gets how the handler is delivered: "sync", "lane:&lt;name&gt;", or "coalesced".
+     */
+    public String getDelivery() { return delivery; }
+    public long getInvocationCount() { return invocations.sum(); }
+    public long getTotalNanos() { return totalNanos.sum(); }
+    public long getMaxNanos() { return maxNanos.get(); }
+    public long getSlowInvocationCount() { return slowInvocations.sum(); }
+
+    public long getAverageNanos() {
+        long count = invocations.sum();
+        return count == 0 ? 0 : totalNanos.sum() / count;
+    }
+}
@@ -0,0 +1,36 @@
+package de.ragesith.hyarena2.event;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * One registered handler: the type it subscribed to, its priority, and its registration order.
+ * The handler is stored pre-cast so dispatch needs no per-call cast.
+ * Subscriptions with a lane are delivered on that lane's worker instead of the publisher's thread;
+ * coalesced subscriptions hand events to their coalescer, which delivers merged events later.
+ * Every delivery, wherever it runs, is timed into the subscription's {@link HandlerStats}.
+ */
+final class Subscription {
+    final Class<?> eventType;
+    final Consumer<Object> handler;
+    final EventPriority priority;
+    final long order;
+    final EventLane lane;                        // null = synchronous
+    final Function<Object, Object> coalesceKey;  // null = never coalesced
+    final EventCoalescer<?> coalescer;           // null = delivered per event
+    final HandlerStats stats;
+
+    @SuppressWarnings("unchecked")
+    Subscription(Class<?> eventType, Consumer<?> handler, EventPriority priority, long order,
+                 EventLane lane, Function<?, ?> coalesceKey, EventCoalescer<?> coalescer,
+                 HandlerStats stats) {
+        this.eventType = eventType;
+        this.handler = (Consumer<Object>) handler;
+        this.priority = priority;
+        this.order = order;
+        this.lane = lane;
+        this.coalesceKey = (Function<Object, Object>) coalesceKey;
+        this.coalescer = coalescer;
+        this.stats = stats;
+    }
+}
@@ -0,0 +1,29 @@
+package de.ragesith.hyarena2.event.match;
+
+import de.ragesith.hyarena2.event.Event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fired once at match end with the rewards of every player still in the match,
+ * so they can be paid out as one batch. Players eliminated earlier get their own
+ * {@link PlayerMatchRewardEvent}.
+ */
+public class MatchRewardsEvent implements Event {
+    private final UUID matchId;
+    private final List<PlayerMatchRewardEvent> rewards;
+
+    public MatchRewardsEvent(UUID matchId, List<PlayerMatchRewardEvent> rewards) {
+        this.matchId = matchId;
+        this.rewards = List.copyOf(rewards);
+    }
+
+    public UUID getMatchId() {
+        return matchId;
+    }
+
+    public List<PlayerMatchRewardEvent> getRewards() {
+        return rewards;
+    }
+}
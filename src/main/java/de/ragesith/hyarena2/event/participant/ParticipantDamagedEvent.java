@@ -13,12 +13,32 @@ public class ParticipantDamagedEvent implements Event {
     private final Participant victim;
     private final Participant attacker; // null for environmental damage
     private final double damage;
+    private final int hits; // > 1 when several hits were coalesced into this event
 
     public ParticipantDamagedEvent(UUID matchId, Participant victim, Participant attacker, double damage) {
+        this(matchId, victim, attacker, damage, 1);
+    }
+
+    private ParticipantDamagedEvent(UUID matchId, Participant victim, Participant attacker, double damage, int hits) {
         this.matchId = matchId;
         this.victim = victim;
         this.attacker = attacker;
         this.damage = damage;
+        this.hits = hits;
+    }
+
+    /**
+     * Key for coalescing: damage is only merged within the same match, victim and attacker.
+     */
+    public CoalesceKey getCoalesceKey() {
+        return new CoalesceKey(matchId, victim.getUniqueId(), attacker != null ? attacker.getUniqueId() : null);
+    }
+
+    /**
+     * Merges two events with the same coalescing key into one carrying the summed damage and hits.
+     */
+    public ParticipantDamagedEvent merge(ParticipantDamagedEvent other) {
+        return new ParticipantDamagedEvent(matchId, victim, attacker, damage + other.damage, hits + other.hits);
     }
 
     public UUID getMatchId() {
@@ -37,7 +57,14 @@ public class ParticipantDamagedEvent implements Event {
         return damage;
     }
 
+    public int getHits() {
+        return hits;
+    }
+
     public boolean isEnvironmentalDamage() {
         return attacker == null;
     }
+
+    public record CoalesceKey(UUID matchId, UUID victimId, UUID attackerId) {
+    }
 }
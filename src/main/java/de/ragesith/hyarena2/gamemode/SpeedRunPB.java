@@ -23,6 +23,15 @@ public class SpeedRunPB {
         this.finishTimestamp = finishTimestamp;
     }
 
+    SpeedRunPB(String arenaId, String playerUuid, long totalTimeNanos,
+               long[] checkpointSplitNanos, long finishTimestamp) {
+        this.arenaId = arenaId;
+        this.playerUuid = playerUuid;
+        this.totalTimeNanos = totalTimeNanos;
+        this.checkpointSplitNanos = checkpointSplitNanos;
+        this.finishTimestamp = finishTimestamp;
+    }
+
     public String getArenaId() { return arenaId; }
     public String getPlayerUuid() { return playerUuid; }
     public long getTotalTimeNanos() { return totalTimeNanos; }
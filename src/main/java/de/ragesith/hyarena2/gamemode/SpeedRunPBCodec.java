@@ -0,0 +1,153 @@
+package de.ragesith.hyarena2.gamemode;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import de.ragesith.hyarena2.storage.ValueCodecs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Encodes {@link SpeedRunPB} for the data store.
+ *
+ * <p>Same scheme as the player data codec: the bytes "HS", a format version, then the fields in
+ * declaration order. Legacy JSON values are still decoded; JSON is otherwise only used for
+ * exports ({@link #toJson}).
+ */
+public final class SpeedRunPBCodec {
+    private static final byte MAGIC_0 = 'H';
+    private static final byte MAGIC_1 = 'S';
+    private static final byte VERSION = 1;
+    private static final byte UUID_NONE = 0;
+    private static final byte UUID_BINARY = 1;
+    private static final byte UUID_STRING = 2;
+
+    private static final Gson GSON = new Gson();
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    private SpeedRunPBCodec() {}
+
+    /**
+     * Encodes a PB in the current binary format.
+     */
+    public static byte[] encode(SpeedRunPB pb) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC_0);
+            out.writeByte(MAGIC_1);
+            out.writeByte(VERSION);
+
+            ValueCodecs.writeNullableString(out, pb.getArenaId());
+            writePlayerUuid(out, pb.getPlayerUuid());
+            out.writeLong(pb.getTotalTimeNanos());
+            long[] splits = pb.getCheckpointSplitNanos();
+            out.writeInt(splits != null ? splits.length : -1);
+            if (splits != null) {
+                for (long split : splits) {
+                    out.writeLong(split);
+                }
+            }
+            out.writeLong(pb.getFinishTimestamp());
+        } catch (IOException e) {
+            // Writing to memory can't fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a stored value, binary or legacy JSON.
+     */
+    public static SpeedRunPB decode(byte[] value) throws IOException {
+        if (ValueCodecs.isJson(value)) {
+            try {
+                SpeedRunPB pb = GSON.fromJson(new String(value, StandardCharsets.UTF_8), SpeedRunPB.class);
+                if (pb == null) {
+                    throw new IOException("Empty PB");
+                }
+                return pb;
+            } catch (JsonParseException e) {
+                throw new IOException("Invalid PB JSON: " + e.getMessage(), e);
+            }
+        }
+        if (value.length < 3 || value[0] != MAGIC_0 || value[1] != MAGIC_1) {
+            throw new IOException("Not an encoded PB");
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value, 3, value.length - 3))) {
+            return switch (value[2]) {
+                case 1 -> readV1(in);
+                default -> throw new IOException("Unsupported PB version " + value[2]);
+            };
+        }
+    }
+
+    /**
+     * Pretty-printed JSON for exports and debugging.
+     */
+    public static String toJson(SpeedRunPB pb) {
+        return PRETTY_GSON.toJson(pb);
+    }
+
+    // ========== Binary ==========
+
+    private static SpeedRunPB readV1(DataInputStream in) throws IOException {
+        String arenaId = ValueCodecs.readNullableString(in);
+        String playerUuid = readPlayerUuid(in);
+        long totalTimeNanos = in.readLong();
+        int splitCount = in.readInt();
+        long[] splits = null;
+        if (splitCount >= 0) {
+            // Each split is 8 bytes; a count beyond what's left means a corrupt value
+            if (splitCount > in.available() / 8) {
+                throw new IOException("Invalid split count " + splitCount);
+            }
+            splits = new long[splitCount];
+            for (int i = 0; i < splitCount; i++) {
+                splits[i] = in.readLong();
+            }
+        }
+        long finishTimestamp = in.readLong();
+        return new SpeedRunPB(arenaId, playerUuid, totalTimeNanos, splits, finishTimestamp);
+    }
+
+    /**
+     * Writes the UUID as 16 bytes, or as a string if it doesn't parse.
+     */
+    private static void writePlayerUuid(DataOutputStream out, String playerUuid) throws IOException {
+        UUID uuid = null;
+        if (playerUuid != null) {
+            try {
+                uuid = UUID.fromString(playerUuid);
+            } catch (IllegalArgumentException ignored) {
+                // kept as a string below
+            }
+        }
+        if (uuid != null && uuid.toString().equals(playerUuid)) {
+            out.writeByte(UUID_BINARY);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (playerUuid != null) {
+            out.writeByte(UUID_STRING);
+            out.writeUTF(playerUuid);
+        } else {
+            out.writeByte(UUID_NONE);
+        }
+    }
+
+    private static String readPlayerUuid(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        return switch (kind) {
+            case UUID_NONE -> null;
+            case UUID_BINARY -> new UUID(in.readLong(), in.readLong()).toString();
+            case UUID_STRING -> in.readUTF();
+            default -> throw new IOException("Invalid player UUID tag " + kind);
+        };
+    }
+}
@@ -1,54 +1,48 @@
 package de.ragesith.hyarena2.gamemode;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import de.ragesith.hyarena2.storage.DataStore;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages personal best times for speedrun arenas.
- * PBs are stored as JSON files: config/speedrun/pbs/{playerUuid}/{arenaId}.json
+ * PBs are stored in the {@link DataStore#SPEEDRUN_PBS} namespace under "{playerUuid}/{arenaId}"
+ * (with the file backend: config/speedrun/pbs/{playerUuid}/{arenaId}.dat), encoded with
+ * {@link SpeedRunPBCodec}.
  */
 public class SpeedRunPBManager {
-    private final Path pbRoot;
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final DataStore store;
     private final ConcurrentHashMap<String, SpeedRunPB> cache = new ConcurrentHashMap<>();
 
-    public SpeedRunPBManager(Path configRoot) {
-        this.pbRoot = configRoot.resolve("speedrun").resolve("pbs");
-        try {
-            Files.createDirectories(pbRoot);
-        } catch (IOException e) {
-            System.err.println("[SpeedRunPBManager] Failed to create PB directory: " + e.getMessage());
-        }
+    public SpeedRunPBManager(DataStore store) {
+        this.store = store;
     }
 
-    private String cacheKey(UUID playerUuid, String arenaId) {
-        return playerUuid.toString() + ":" + arenaId;
+    private String storeKey(UUID playerUuid, String arenaId) {
+        return playerUuid.toString() + "/" + arenaId;
     }
 
     /**
      * Loads the personal best for a player+arena. Returns null if no PB exists.
      */
     public SpeedRunPB loadPB(UUID playerUuid, String arenaId) {
-        String key = cacheKey(playerUuid, arenaId);
+        String key = storeKey(playerUuid, arenaId);
         SpeedRunPB cached = cache.get(key);
         if (cached != null) return cached;
 
-        Path file = pbRoot.resolve(playerUuid.toString()).resolve(arenaId + ".json");
-        if (!Files.exists(file)) return null;
-
         try {
-            String json = Files.readString(file);
-            SpeedRunPB pb = gson.fromJson(json, SpeedRunPB.class);
-            if (pb != null) {
-                cache.put(key, pb);
-            }
+            byte[] value = store.get(DataStore.SPEEDRUN_PBS, key);
+            if (value == null) return null;
+            SpeedRunPB pb = SpeedRunPBCodec.decode(value);
+            cache.put(key, pb);
             return pb;
         } catch (Exception e) {
             System.err.println("[SpeedRunPBManager] Failed to load PB: " + e.getMessage());
@@ -56,21 +50,37 @@ public class SpeedRunPBManager {
         }
     }
 
+    /**
+     * Loads all of a player's personal bests (one prefix scan of the store).
+     */
+    public List<SpeedRunPB> loadPBs(UUID playerUuid) {
+        List<SpeedRunPB> pbs = new ArrayList<>();
+        try {
+            String prefix = playerUuid.toString() + "/";
+            for (String key : store.keys(DataStore.SPEEDRUN_PBS, prefix)) {
+                SpeedRunPB pb = loadPB(playerUuid, key.substring(prefix.length()));
+                if (pb != null) {
+                    pbs.add(pb);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("[SpeedRunPBManager] Failed to list PBs: " + e.getMessage());
+        }
+        return pbs;
+    }
+
     /**
      * Saves a personal best asynchronously.
      */
     public void savePB(SpeedRunPB pb) {
         if (pb == null) return;
         UUID playerUuid = UUID.fromString(pb.getPlayerUuid());
-        String key = cacheKey(playerUuid, pb.getArenaId());
+        String key = storeKey(playerUuid, pb.getArenaId());
         cache.put(key, pb);
 
         CompletableFuture.runAsync(() -> {
             try {
-                Path playerDir = pbRoot.resolve(pb.getPlayerUuid());
-                Files.createDirectories(playerDir);
-                Path file = playerDir.resolve(pb.getArenaId() + ".json");
-                Files.writeString(file, gson.toJson(pb));
+                store.put(DataStore.SPEEDRUN_PBS, key, SpeedRunPBCodec.encode(pb));
                 System.out.println("[SpeedRunPBManager] Saved PB for " + pb.getPlayerUuid()
                     + " on " + pb.getArenaId() + ": " + pb.getFormattedTime());
             } catch (IOException e) {
@@ -79,6 +89,23 @@ public class SpeedRunPBManager {
         });
     }
 
+    /**
+     * Writes every stored PB as pretty-printed JSON to {dir}/{playerUuid}/{arenaId}.json.
+     * @return number of PBs exported
+     */
+    public int exportJson(Path dir) throws IOException {
+        int exported = 0;
+        for (String key : store.keys(DataStore.SPEEDRUN_PBS, "")) {
+            byte[] value = store.get(DataStore.SPEEDRUN_PBS, key);
+            if (value == null) continue;
+            Path file = dir.resolve(key + ".json");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, SpeedRunPBCodec.toJson(SpeedRunPBCodec.decode(value)), StandardCharsets.UTF_8);
+            exported++;
+        }
+        return exported;
+    }
+
     /**
      * Checks if a time is a new personal best.
      */
@@ -125,7 +125,8 @@ public class WaveDefenseGameMode implements GameMode {
                         state.apEarnedPerPlayer.merge(p.getUniqueId(), apReward, Integer::sum);
                         if (economyManager != null) {
                             economyManager.addArenaPoints(p.getUniqueId(), apReward,
-                                "wave_defense_wave_" + state.currentWave);
+                                "wave_defense_wave_" + state.currentWave,
+                                "wave:" + matchId + ":" + state.currentWave + ":" + p.getUniqueId());
                         }
                         String bonusText = (matchDuration > 0 && waveClearBonus > 0) ? " +" + waveClearBonus + "s" : "";
                         p.sendMessage("<color:#f1c40f>Wave " + state.currentWave + " cleared! +" + apReward + " AP" + bonusText + "</color>");
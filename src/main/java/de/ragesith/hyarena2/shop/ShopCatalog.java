@@ -0,0 +1,98 @@
+package de.ragesith.hyarena2.shop;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable lookup index over the shop config, rebuilt whenever the config changes.
+ * Item, category and item-to-category lookups are map hits, and the display order of
+ * categories and of each category's items is sorted once here instead of on every render.
+ */
+final class ShopCatalog {
+    private static final Comparator<ShopCategory> CATEGORY_ORDER = Comparator.comparingInt(ShopCategory::getSort)
+        .thenComparing(ShopCategory::getDisplayName, Comparator.nullsLast(Comparator.naturalOrder()));
+    private static final Comparator<ShopItem> ITEM_ORDER = Comparator.comparingInt(ShopItem::getSort)
+        .thenComparing(ShopItem::getDisplayName, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Map<String, ShopItem> itemsById;
+    private final Map<String, String> categoryIdByItem;
+    private final Map<String, ShopCategory> categoriesById;
+    // Category id -> items in config order / display order
+    private final Map<String, List<ShopItem>> itemsByCategory;
+    private final Map<String, List<ShopItem>> sortedItemsByCategory;
+    private final List<ShopCategory> sortedCategories;
+    private final List<ShopItem> allItems;
+
+    private ShopCatalog(List<ShopCategory> categories) {
+        Map<String, ShopItem> items = new HashMap<>();
+        Map<String, String> categoryIds = new HashMap<>();
+        Map<String, ShopCategory> categoryMap = new HashMap<>();
+        Map<String, List<ShopItem>> byCategory = new HashMap<>();
+        Map<String, List<ShopItem>> sortedByCategory = new HashMap<>();
+        List<ShopItem> all = new ArrayList<>();
+
+        for (ShopCategory category : categories) {
+            categoryMap.putIfAbsent(category.getId(), category);
+            List<ShopItem> categoryItems = Collections.unmodifiableList(new ArrayList<>(category.getItems()));
+            byCategory.putIfAbsent(category.getId(), categoryItems);
+            List<ShopItem> sorted = new ArrayList<>(categoryItems);
+            sorted.sort(ITEM_ORDER);
+            sortedByCategory.putIfAbsent(category.getId(), Collections.unmodifiableList(sorted));
+            for (ShopItem item : categoryItems) {
+                items.put(item.getId(), item);
+                categoryIds.putIfAbsent(item.getId(), category.getId());
+                all.add(item);
+            }
+        }
+        List<ShopCategory> sortedCategoryList = new ArrayList<>(categories);
+        sortedCategoryList.sort(CATEGORY_ORDER);
+
+        this.itemsById = Collections.unmodifiableMap(items);
+        this.categoryIdByItem = Collections.unmodifiableMap(categoryIds);
+        this.categoriesById = Collections.unmodifiableMap(categoryMap);
+        this.itemsByCategory = Collections.unmodifiableMap(byCategory);
+        this.sortedItemsByCategory = Collections.unmodifiableMap(sortedByCategory);
+        this.sortedCategories = Collections.unmodifiableList(sortedCategoryList);
+        this.allItems = Collections.unmodifiableList(all);
+    }
+
+    static ShopCatalog build(ShopConfig config) {
+        return new ShopCatalog(config.getCategories());
+    }
+
+    ShopItem getItem(String itemId) {
+        return itemsById.get(itemId);
+    }
+
+    String getCategoryId(String itemId) {
+        return categoryIdByItem.get(itemId);
+    }
+
+    ShopCategory getCategory(String categoryId) {
+        return categoriesById.get(categoryId);
+    }
+
+    List<ShopItem> getItems(String categoryId) {
+        return itemsByCategory.getOrDefault(categoryId, List.of());
+    }
+
+    List<ShopItem> getSortedItems(String categoryId) {
+        return sortedItemsByCategory.getOrDefault(categoryId, List.of());
+    }
+
+    List<ShopCategory> getSortedCategories() {
+        return sortedCategories;
+    }
+
+    List<ShopItem> getAllItems() {
+        return allItems;
+    }
+
+    int size() {
+        return itemsById.size();
+    }
+}
@@ -9,9 +9,7 @@ import de.ragesith.hyarena2.event.EventBus;
 import de.ragesith.hyarena2.utils.PermissionHelper;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -25,8 +23,8 @@ public class ShopManager {
     private final PlayerDataManager playerDataManager;
     private final EventBus eventBus;
 
-    // Item lookup cache (built on init)
-    private final Map<String, ShopItem> itemsById = new HashMap<>();
+    // Lookup index over the config, replaced whenever the config changes
+    private volatile ShopCatalog catalog;
 
     public ShopManager(ShopConfig config, ConfigManager configManager,
                        EconomyManager economyManager,
@@ -39,17 +37,12 @@ public class ShopManager {
 
         rebuildCache();
 
-        System.out.println("[ShopManager] Loaded " + itemsById.size() + " shop items across "
+        System.out.println("[ShopManager] Loaded " + catalog.size() + " shop items across "
             + config.getCategories().size() + " categories");
     }
 
     private void rebuildCache() {
-        itemsById.clear();
-        for (ShopCategory category : config.getCategories()) {
-            for (ShopItem item : category.getItems()) {
-                itemsById.put(item.getId(), item);
-            }
-        }
+        catalog = ShopCatalog.build(config);
     }
 
     // ========== Browse ==========
@@ -58,17 +51,29 @@ public class ShopManager {
         return config.getCategories();
     }
 
+    /**
+     * Categories in display order (by sort, then name).
+     */
+    public List<ShopCategory> getSortedCategories() {
+        return catalog.getSortedCategories();
+    }
+
     public ShopItem getItem(String itemId) {
-        return itemsById.get(itemId);
+        return catalog.getItem(itemId);
     }
 
+    /**
+     * Items of a category in config order (read-only).
+     */
     public List<ShopItem> getItemsByCategory(String categoryId) {
-        for (ShopCategory category : config.getCategories()) {
-            if (category.getId().equals(categoryId)) {
-                return category.getItems();
-            }
-        }
-        return List.of();
+        return catalog.getItems(categoryId);
+    }
+
+    /**
+     * Items of a category in display order (by sort, then name; read-only).
+     */
+    public List<ShopItem> getSortedItemsByCategory(String categoryId) {
+        return catalog.getSortedItems(categoryId);
     }
 
     // ========== Purchase ==========
@@ -77,25 +82,34 @@ public class ShopManager {
      * Attempts to purchase a shop item for a player.
      */
     public PurchaseResult purchase(UUID uuid, String itemId) {
-        ShopItem item = itemsById.get(itemId);
+        ShopItem item = catalog.getItem(itemId);
         if (item == null) {
             return PurchaseResult.ITEM_NOT_FOUND;
         }
 
-        // Check if already owned (for one-time purchases)
-        if (item.isOneTimePurchase() && ownsItem(uuid, itemId)) {
-            return PurchaseResult.ALREADY_OWNED;
-        }
+        // Ownership check, payment and recording run under the player's ledger lock,
+        // so concurrent purchases or payouts can't double-buy or overspend
+        PurchaseResult result = economyManager.getLedger().withLock(uuid, () -> {
+            // Check if already owned (for one-time purchases)
+            if (item.isOneTimePurchase() && ownsItem(uuid, itemId)) {
+                return PurchaseResult.ALREADY_OWNED;
+            }
 
-        // Check balance
-        if (economyManager.getArenaPoints(uuid) < item.getCost()) {
-            return PurchaseResult.INSUFFICIENT_FUNDS;
-        }
+            // Check balance and deduct AP
+            boolean spent = economyManager.spendArenaPoints(uuid, item.getCost(), "Purchase: " + item.getDisplayName());
+            if (!spent) {
+                return PurchaseResult.INSUFFICIENT_FUNDS;
+            }
 
-        // Deduct AP
-        boolean spent = economyManager.spendArenaPoints(uuid, item.getCost(), "Purchase: " + item.getDisplayName());
-        if (!spent) {
-            return PurchaseResult.INSUFFICIENT_FUNDS;
+            // Record purchase
+            PlayerEconomyData owner = playerDataManager.getData(uuid);
+            if (owner != null) {
+                owner.addPurchase(itemId);
+            }
+            return PurchaseResult.SUCCESS;
+        });
+        if (result != PurchaseResult.SUCCESS) {
+            return result;
         }
 
         // Grant permission
@@ -108,16 +122,11 @@ public class ShopManager {
             PermissionHelper.addToGroup(uuid, item.getGroupGranted());
         }
 
-        // Record purchase
-        PlayerEconomyData data = playerDataManager.getData(uuid);
-        if (data != null) {
-            data.addPurchase(itemId);
-        }
-
         // Log transaction
         playerDataManager.logTransaction(uuid,
             new TransactionRecord("PURCHASE", item.getCost(), "Purchased " + item.getDisplayName()));
 
+        PlayerEconomyData data = playerDataManager.getData(uuid);
         System.out.println("[ShopManager] " + (data != null ? data.getPlayerName() : uuid)
             + " purchased " + item.getDisplayName() + " for " + item.getCost() + " AP");
 
@@ -148,20 +157,13 @@ public class ShopManager {
      * Category must already exist (selected from dropdown).
      */
     public void saveItem(ShopItem item, String categoryId) {
-        // Remove item from any existing category first
-        for (ShopCategory cat : config.getCategories()) {
-            cat.getItems().removeIf(i -> i.getId().equals(item.getId()));
-        }
-
-        // Find category
-        ShopCategory targetCategory = null;
-        for (ShopCategory cat : config.getCategories()) {
-            if (cat.getId().equals(categoryId)) {
-                targetCategory = cat;
-                break;
-            }
+        // Remove item from its current category first
+        ShopCategory currentCategory = catalog.getCategory(catalog.getCategoryId(item.getId()));
+        if (currentCategory != null) {
+            currentCategory.getItems().removeIf(i -> i.getId().equals(item.getId()));
         }
 
+        ShopCategory targetCategory = catalog.getCategory(categoryId);
         if (targetCategory == null) {
             System.err.println("[ShopManager] Cannot save item: category not found: " + categoryId);
             return;
@@ -179,12 +181,8 @@ public class ShopManager {
      * Deletes an item by ID.
      */
     public boolean deleteItem(String itemId) {
-        boolean removed = false;
-        for (ShopCategory cat : config.getCategories()) {
-            if (cat.getItems().removeIf(i -> i.getId().equals(itemId))) {
-                removed = true;
-            }
-        }
+        ShopCategory category = catalog.getCategory(catalog.getCategoryId(itemId));
+        boolean removed = category != null && category.getItems().removeIf(i -> i.getId().equals(itemId));
 
         if (removed) {
             rebuildCache();
@@ -199,7 +197,7 @@ public class ShopManager {
      * Checks if an item ID exists.
      */
     public boolean itemExists(String itemId) {
-        return itemsById.containsKey(itemId);
+        return catalog.getItem(itemId) != null;
     }
 
     // ========== Category CRUD ==========
@@ -208,14 +206,7 @@ public class ShopManager {
      * Saves or updates a category (by id).
      */
     public void saveCategory(ShopCategory category) {
-        ShopCategory existing = null;
-        for (ShopCategory cat : config.getCategories()) {
-            if (cat.getId().equals(category.getId())) {
-                existing = cat;
-                break;
-            }
-        }
-
+        ShopCategory existing = catalog.getCategory(category.getId());
         if (existing != null) {
             existing.setDisplayName(category.getDisplayName());
             existing.setSort(category.getSort());
@@ -223,6 +214,7 @@ public class ShopManager {
             config.getCategories().add(category);
         }
 
+        rebuildCache();
         saveShopConfig();
         System.out.println("[ShopManager] Saved category: " + category.getId());
     }
@@ -231,19 +223,13 @@ public class ShopManager {
      * Deletes a category by id. Only succeeds if the category has no items.
      */
     public boolean deleteCategory(String categoryId) {
-        ShopCategory target = null;
-        for (ShopCategory cat : config.getCategories()) {
-            if (cat.getId().equals(categoryId)) {
-                target = cat;
-                break;
-            }
-        }
-
+        ShopCategory target = catalog.getCategory(categoryId);
         if (target == null) return false;
 
         if (!target.getItems().isEmpty()) return false;
 
         config.getCategories().remove(target);
+        rebuildCache();
         saveShopConfig();
         System.out.println("[ShopManager] Deleted category: " + categoryId);
         return true;
@@ -253,10 +239,7 @@ public class ShopManager {
      * Checks if a category ID exists.
      */
     public boolean categoryExists(String categoryId) {
-        for (ShopCategory cat : config.getCategories()) {
-            if (cat.getId().equals(categoryId)) return true;
-        }
-        return false;
+        return catalog.getCategory(categoryId) != null;
     }
 
     /**
@@ -268,43 +251,27 @@ public class ShopManager {
             this.config = loaded;
         }
         rebuildCache();
-        System.out.println("[ShopManager] Reloaded " + itemsById.size() + " shop items");
+        System.out.println("[ShopManager] Reloaded " + catalog.size() + " shop items");
     }
 
     /**
      * Gets a flat list of all items across all categories.
      */
     public List<ShopItem> getAllItems() {
-        List<ShopItem> all = new ArrayList<>();
-        for (ShopCategory category : config.getCategories()) {
-            all.addAll(category.getItems());
-        }
-        return all;
+        return new ArrayList<>(catalog.getAllItems());
     }
 
     /**
      * Finds which category contains an item.
      */
     public String getCategoryForItem(String itemId) {
-        for (ShopCategory category : config.getCategories()) {
-            for (ShopItem item : category.getItems()) {
-                if (item.getId().equals(itemId)) {
-                    return category.getId();
-                }
-            }
-        }
-        return null;
+        return catalog.getCategoryId(itemId);
     }
 
     /**
      * Gets a category by ID.
      */
     public ShopCategory getCategory(String categoryId) {
-        for (ShopCategory category : config.getCategories()) {
-            if (category.getId().equals(categoryId)) {
-                return category;
-            }
-        }
-        return null;
+        return catalog.getCategory(categoryId);
     }
 }
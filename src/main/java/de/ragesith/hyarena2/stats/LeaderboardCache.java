@@ -0,0 +1,78 @@
+package de.ragesith.hyarena2.stats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of leaderboard pages fetched from the web API, keyed by "scope:sort:page".
+ *
+ * <p>Entries are never dropped for age, only when the cache is full: an expired page is still
+ * returned so it can be shown while a refresh runs in the background (stale-while-revalidate).
+ * Each scope can have its own time-to-live.
+ */
+public class LeaderboardCache {
+    private final int maxEntries;
+    private final long defaultTtlMs;
+    private final Map<String, Long> scopeTtlMs;
+
+    // Access-ordered, so the eldest entry is the least recently used (guarded by this)
+    private final LinkedHashMap<String, Entry> entries;
+
+    public LeaderboardCache(int maxEntries, long defaultTtlMs, Map<String, Long> scopeTtlMs) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.defaultTtlMs = defaultTtlMs;
+        this.scopeTtlMs = Map.copyOf(scopeTtlMs);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > LeaderboardCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static String key(String scope, String sort, int page) {
+        return scope + ":" + sort + ":" + page;
+    }
+
+    /**
+     * Gets a cached page, fresh or expired, or null if it is not cached.
+     */
+    public synchronized Entry get(String scope, String sort, int page) {
+        return entries.get(key(scope, sort, page));
+    }
+
+    public synchronized void put(String scope, String sort, int page, LeaderboardResult result) {
+        long ttl = scopeTtlMs.getOrDefault(scope, defaultTtlMs);
+        entries.put(key(scope, sort, page), new Entry(result, System.currentTimeMillis(), ttl));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * A cached page and when it was fetched.
+     */
+    public static final class Entry {
+        private final LeaderboardResult result;
+        private final long fetchedAt;
+        private final long ttlMs;
+
+        private Entry(LeaderboardResult result, long fetchedAt, long ttlMs) {
+            this.result = result;
+            this.fetchedAt = fetchedAt;
+            this.ttlMs = ttlMs;
+        }
+
+        public LeaderboardResult getResult() { return result; }
+        public long getFetchedAt() { return fetchedAt; }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() - fetchedAt > ttlMs;
+        }
+    }
+}
@@ -14,9 +14,15 @@ public class LeaderboardResult {
     private final int totalPages;
     private final String gameMode;
     private final boolean error;
+    private final long staleSince; // 0 = fresh from the API
 
     public LeaderboardResult(List<LeaderboardEntry> entries, int total, int page,
                              int perPage, int totalPages, String gameMode) {
+        this(entries, total, page, perPage, totalPages, gameMode, 0);
+    }
+
+    private LeaderboardResult(List<LeaderboardEntry> entries, int total, int page,
+                              int perPage, int totalPages, String gameMode, long staleSince) {
         this.entries = entries;
         this.total = total;
         this.page = page;
@@ -24,6 +30,7 @@ public class LeaderboardResult {
         this.totalPages = totalPages;
         this.gameMode = gameMode;
         this.error = false;
+        this.staleSince = staleSince;
     }
 
     private LeaderboardResult(boolean error) {
@@ -34,6 +41,17 @@ public class LeaderboardResult {
         this.totalPages = 0;
         this.gameMode = null;
         this.error = error;
+        this.staleSince = 0;
+    }
+
+    /**
+     * Copy of this page marked as cached data served because the web API is unavailable.
+     *
+     * @param fetchedAt when the cached page was fetched (epoch millis)
+     */
+    public LeaderboardResult asStale(long fetchedAt) {
+        if (error) return this;
+        return new LeaderboardResult(entries, total, page, perPage, totalPages, gameMode, fetchedAt);
     }
 
     /** Sentinel for API errors — triggers retry on next request. */
@@ -50,4 +68,10 @@ public class LeaderboardResult {
     public String getGameMode() { return gameMode; }
     public boolean isError() { return error; }
     public boolean isEmpty() { return !error && entries.isEmpty(); }
+    public boolean isStale() { return staleSince > 0; }
+
+    /**
+     * Gets when the cached data of a stale result was fetched (epoch millis), or 0 if fresh.
+     */
+    public long getStaleSince() { return staleSince; }
 }
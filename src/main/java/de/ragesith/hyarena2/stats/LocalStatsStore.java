@@ -0,0 +1,562 @@
+package de.ragesith.hyarena2.stats;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded stats store that answers leaderboard queries without the web backend.
+ *
+ * <p>Every finished match is appended to a binary match log (data/stats/matches.log) and folded
+ * into per-player aggregates for the "global" scope, its game mode and its arena. The aggregates
+ * are kept in memory and periodically written to a snapshot (data/stats/aggregates.bin) that
+ * records how much of the log it covers, so startup only replays the log tail. Rankings per scope
+ * and sort field are kept in a {@link RankingIndex}, built on first query and then updated
+ * incrementally as matches finish and balances change.
+ *
+ * <p>Log records are framed as {@code [int length][int crc32][payload]}; a torn or corrupt tail
+ * from a crash mid-append is cut off on startup. The log and snapshot files are guarded by their
+ * own lock, so queries (which only need the in-memory aggregates, guarded by this) never wait
+ * for an fsync. The web API still receives every match through
+ * the outbox and acts as a replica of this data.
+ */
+public class LocalStatsStore {
+    public static final String GLOBAL_SCOPE = "global";
+    private static final String ARENA_SCOPE_PREFIX = "arena:";
+
+    private static final byte LOG_VERSION = 2; // 2: economy snapshot per participant
+    private static final int SNAPSHOT_MAGIC = 0x48414732; // "HAG2"
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+
+    // Matches appended between two aggregate snapshots
+    private static final int SNAPSHOT_INTERVAL = 50;
+
+    // Sort fields an index can be built for; anything else ranks by kills
+    private static final Set<String> SORT_FIELDS = Set.of("pvp_kills", "pvp_deaths", "pvp_kd_ratio",
+        "matches_won", "win_rate", "pve_kills", "pve_deaths", "matches_played", "best_waves_survived",
+        "best_time_ms", "arena_points", "honor");
+
+    private final Path logFile;
+    private final Path snapshotFile;
+
+    // scope -> player -> aggregate (guarded by this)
+    private final Map<String, Map<UUID, PlayerAggregate>> scopes = new HashMap<>();
+    // scope -> sort field -> ranking, created on first use (guarded by this)
+    private final Map<String, Map<String, RankingIndex>> indexes = new HashMap<>();
+
+    // Guards the log channel, logEnd, matchesSinceSnapshot and snapshot writes. Taken before this, never after.
+    private final Object logLock = new Object();
+    private FileChannel log;
+    private long logEnd;
+    private int matchesSinceSnapshot;
+
+    public LocalStatsStore(Path pluginDataRoot) {
+        Path statsDir = pluginDataRoot.resolve("data").resolve("stats");
+        this.logFile = statsDir.resolve("matches.log");
+        this.snapshotFile = statsDir.resolve("aggregates.bin");
+        try {
+            Files.createDirectories(statsDir);
+            load();
+        } catch (IOException e) {
+            System.err.println("[LocalStatsStore] Failed to open stats store: " + e.getMessage());
+        }
+    }
+
+    // ========== Recording ==========
+
+    /**
+     * Appends a finished match to the log and updates the aggregates of its player participants.
+     */
+    public void record(MatchRecord record) {
+        LoggedMatch match = LoggedMatch.of(record);
+        if (match.participants().isEmpty()) {
+            return;
+        }
+        synchronized (logLock) {
+            try {
+                append(encode(match));
+            } catch (IOException e) {
+                // Still counted in memory; only lost if the server also stops before the next snapshot
+                System.err.println("[LocalStatsStore] Failed to log match " + match.matchId() + ": " + e.getMessage());
+            }
+            // Applied while still holding logLock, so a snapshot never covers a logged but unapplied match
+            synchronized (this) {
+                apply(match);
+            }
+            if (++matchesSinceSnapshot >= SNAPSHOT_INTERVAL) {
+                writeSnapshot();
+            }
+        }
+    }
+
+    private void apply(LoggedMatch match) {
+        boolean countsWin = !"wave_defense".equals(match.gameMode()) && !"speed_run".equals(match.gameMode());
+        for (String scope : new String[] { GLOBAL_SCOPE, match.gameMode(), ARENA_SCOPE_PREFIX + match.arenaId() }) {
+            Map<UUID, PlayerAggregate> players = scopes.computeIfAbsent(scope, k -> new HashMap<>());
+            Map<String, RankingIndex> scopeIndexes = indexes.getOrDefault(scope, Map.of());
+            for (LoggedParticipant p : match.participants()) {
+                PlayerAggregate aggregate = players.computeIfAbsent(p.uuid(), uuid -> new PlayerAggregate(uuid, p.username()));
+                aggregate.add(p.username(), countsWin, p.winner(), p.pvpKills(), p.pvpDeaths(),
+                    p.pveKills(), p.pveDeaths(), p.wavesSurvived(), p.finishTimeMs());
+                if (scope.equals(GLOBAL_SCOPE)) {
+                    aggregate.setEconomy(p.arenaPoints(), p.honor());
+                }
+                for (RankingIndex index : scopeIndexes.values()) {
+                    index.update(aggregate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates a player's arena points and honor for the global economy rankings.
+     * Players who have not finished a match yet are not ranked.
+     */
+    public synchronized void updateEconomy(UUID uuid, int arenaPoints, int honor) {
+        Map<UUID, PlayerAggregate> players = scopes.get(GLOBAL_SCOPE);
+        PlayerAggregate aggregate = players != null ? players.get(uuid) : null;
+        if (aggregate == null || !aggregate.setEconomy(arenaPoints, honor)) {
+            return;
+        }
+        RankingIndex arenaPointsIndex = indexes.getOrDefault(GLOBAL_SCOPE, Map.of()).get("arena_points");
+        if (arenaPointsIndex != null) {
+            arenaPointsIndex.update(aggregate);
+        }
+        RankingIndex honorIndex = indexes.getOrDefault(GLOBAL_SCOPE, Map.of()).get("honor");
+        if (honorIndex != null) {
+            honorIndex.update(aggregate);
+        }
+    }
+
+    // ========== Queries ==========
+
+    /**
+     * Gets a leaderboard page, ranked the same way as the web API.
+     *
+     * @param scope "global" or a game mode id
+     * @param sort  API sort field (e.g. "pvp_kills", "win_rate"); unknown fields sort by kills
+     * @param page  1-based page number
+     */
+    public synchronized LeaderboardResult query(String scope, String sort, int page, int perPage) {
+        RankingIndex index = index(scope, sort);
+        int from = (Math.max(1, page) - 1) * perPage;
+        List<PlayerAggregate> players = index != null ? index.page(from, perPage) : List.of();
+        if (players.isEmpty()) {
+            return LeaderboardResult.EMPTY;
+        }
+        List<LeaderboardEntry> entries = new ArrayList<>(players.size());
+        for (PlayerAggregate player : players) {
+            entries.add(player.toEntry(from + entries.size() + 1));
+        }
+        int totalPages = (index.size() + perPage - 1) / perPage;
+        return new LeaderboardResult(entries, index.size(), page, perPage, totalPages,
+            GLOBAL_SCOPE.equals(scope) ? null : scope);
+    }
+
+    /**
+     * Gets a player's 1-based rank in a scope, or 0 if they have no stats there.
+     */
+    public synchronized int getRank(UUID uuid, String scope, String sort) {
+        RankingIndex index = index(scope, sort);
+        return index != null ? index.rankOf(uuid) : 0;
+    }
+
+    /**
+     * Gets how many players are ranked in a scope.
+     */
+    public synchronized int getRankedCount(String scope) {
+        Map<UUID, PlayerAggregate> players = scopes.get(scope);
+        return players != null ? players.size() : 0;
+    }
+
+    /**
+     * Gets the player at a 1-based rank (e.g. for a top-3 display), or null if there is none.
+     */
+    public synchronized PlayerAggregate getPlayerAtRank(String scope, String sort, int rank) {
+        RankingIndex index = index(scope, sort);
+        return index != null ? index.get(rank) : null;
+    }
+
+    /**
+     * Gets the player with the best finished speed run time on an arena, or null if nobody finished it.
+     */
+    public synchronized PlayerAggregate getBestTime(String arenaId) {
+        RankingIndex index = index(ARENA_SCOPE_PREFIX + arenaId, "best_time_ms");
+        PlayerAggregate best = index != null ? index.get(1) : null;
+        return best != null && best.getBestTimeMs() > 0 ? best : null;
+    }
+
+    /**
+     * Gets the ranking for a scope and sort field, building it on first use. Null if the scope has no players.
+     */
+    private RankingIndex index(String scope, String sort) {
+        Map<UUID, PlayerAggregate> players = scopes.get(scope);
+        if (players == null) {
+            return null;
+        }
+        String field = SORT_FIELDS.contains(sort) ? sort : "pvp_kills";
+        return indexes.computeIfAbsent(scope, k -> new HashMap<>()).computeIfAbsent(field, k -> {
+            RankingIndex index = new RankingIndex(field);
+            for (PlayerAggregate player : players.values()) {
+                index.update(player);
+            }
+            return index;
+        });
+    }
+
+    // ========== Lifecycle ==========
+
+    /**
+     * Writes a final aggregate snapshot and closes the log.
+     */
+    public void close() {
+        synchronized (logLock) {
+            if (matchesSinceSnapshot > 0) {
+                writeSnapshot();
+            }
+            if (log != null) {
+                try {
+                    log.close();
+                } catch (IOException e) {
+                    System.err.println("[LocalStatsStore] Failed to close match log: " + e.getMessage());
+                }
+                log = null;
+            }
+        }
+    }
+
+    /**
+     * Loads the snapshot, replays the log records written after it, and cuts off a torn tail.
+     */
+    private void load() throws IOException {
+        long logSize = Files.exists(logFile) ? Files.size(logFile) : 0;
+        long offset = loadSnapshot();
+        if (offset > logSize) {
+            System.err.println("[LocalStatsStore] Snapshot is ahead of the match log, rebuilding from the log");
+            scopes.clear();
+            offset = 0;
+        }
+
+        int replayed = 0;
+        logEnd = offset;
+        if (offset < logSize) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (logSize - offset));
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+                channel.position(offset);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading
+                }
+            }
+            buffer.flip();
+            LoggedMatch match;
+            while ((match = readFrame(buffer)) != null) {
+                apply(match);
+                logEnd = offset + buffer.position();
+                replayed++;
+            }
+            if (logEnd < logSize) {
+                System.err.println("[LocalStatsStore] Discarding " + (logSize - logEnd) + " byte(s) of torn match log tail");
+                try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+                    channel.truncate(logEnd);
+                }
+            }
+        }
+
+        int players = scopes.containsKey(GLOBAL_SCOPE) ? scopes.get(GLOBAL_SCOPE).size() : 0;
+        System.out.println("[LocalStatsStore] Loaded stats for " + players + " player(s)" +
+            (replayed > 0 ? " (" + replayed + " match(es) replayed from log)" : ""));
+        if (replayed > 0) {
+            matchesSinceSnapshot = replayed;
+            writeSnapshot();
+        }
+    }
+
+    // ========== Match Log ==========
+
+    private void append(byte[] payload) throws IOException {
+        if (log == null) {
+            log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer frame = ByteBuffer.allocate(8 + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        try {
+            while (frame.hasRemaining()) {
+                log.write(frame);
+            }
+            log.force(false);
+        } catch (IOException e) {
+            // Drop a partial frame so later records are not appended behind it
+            log.truncate(logEnd);
+            throw e;
+        }
+        logEnd += frame.limit();
+    }
+
+    /**
+     * Reads one framed record, or returns null at the end of the log or at a torn/corrupt record
+     * (the buffer position is then left at the start of that record).
+     */
+    private static LoggedMatch readFrame(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < 8) {
+            return null;
+        }
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length <= 0 || length > MAX_RECORD_BYTES || buffer.remaining() < length) {
+            buffer.position(start);
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            buffer.position(start);
+            return null;
+        }
+        try {
+            return decode(ByteBuffer.wrap(payload));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            buffer.position(start);
+            return null;
+        }
+    }
+
+    private static byte[] encode(LoggedMatch match) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(LOG_VERSION);
+        writeUuid(out, match.matchId());
+        writeString(out, match.gameMode());
+        writeString(out, match.arenaId());
+        out.writeLong(match.endedAt());
+        out.writeInt(match.durationSeconds());
+        out.writeShort(match.participants().size());
+        for (LoggedParticipant p : match.participants()) {
+            writeUuid(out, p.uuid());
+            writeString(out, p.username());
+            out.writeBoolean(p.winner());
+            out.writeInt(p.pvpKills());
+            out.writeInt(p.pvpDeaths());
+            out.writeInt(p.pveKills());
+            out.writeInt(p.pveDeaths());
+            out.writeInt(p.wavesSurvived());
+            out.writeInt(p.finishTimeMs());
+            out.writeInt(p.arenaPoints());
+            out.writeInt(p.honor());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static LoggedMatch decode(ByteBuffer in) {
+        byte version = in.get();
+        if (version < 1 || version > LOG_VERSION) {
+            throw new IllegalArgumentException("Unknown match log version " + version);
+        }
+        UUID matchId = readUuid(in);
+        String gameMode = readString(in);
+        String arenaId = readString(in);
+        long endedAt = in.getLong();
+        int durationSeconds = in.getInt();
+        int count = Short.toUnsignedInt(in.getShort());
+        List<LoggedParticipant> participants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            participants.add(new LoggedParticipant(readUuid(in), readString(in), in.get() != 0,
+                in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt(),
+                version >= 2 ? in.getInt() : 0, version >= 2 ? in.getInt() : 0));
+        }
+        return new LoggedMatch(matchId, gameMode, arenaId, endedAt, durationSeconds, participants);
+    }
+
+    // ========== Aggregate Snapshot ==========
+
+    /**
+     * Writes all aggregates plus the log offset they cover (temp file + atomic move).
+     * Called with logLock held; the aggregates are only locked while they are encoded.
+     */
+    private void writeSnapshot() {
+        try {
+            byte[] bytes;
+            synchronized (this) {
+                bytes = encodeSnapshot();
+            }
+
+            Path tmp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            matchesSinceSnapshot = 0;
+        } catch (IOException e) {
+            System.err.println("[LocalStatsStore] Failed to write aggregate snapshot: " + e.getMessage());
+        }
+    }
+
+    private byte[] encodeSnapshot() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeLong(logEnd);
+        out.writeInt(scopes.size());
+        for (Map.Entry<String, Map<UUID, PlayerAggregate>> scope : scopes.entrySet()) {
+            writeString(out, scope.getKey());
+            out.writeInt(scope.getValue().size());
+            for (PlayerAggregate a : scope.getValue().values()) {
+                writeUuid(out, a.getUuid());
+                writeString(out, a.getUsername());
+                out.writeInt(a.getMatchesPlayed());
+                out.writeInt(a.getMatchesWon());
+                out.writeInt(a.getPvpKills());
+                out.writeInt(a.getPvpDeaths());
+                out.writeInt(a.getPveKills());
+                out.writeInt(a.getPveDeaths());
+                out.writeInt(a.getBestWavesSurvived());
+                out.writeInt(a.getBestTimeMs());
+                out.writeInt(a.getArenaPoints());
+                out.writeInt(a.getHonor());
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Loads the aggregate snapshot.
+     * @return the match log offset it covers, or 0 if there is no usable snapshot
+     */
+    private long loadSnapshot() {
+        if (!Files.exists(snapshotFile)) {
+            return 0;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(snapshotFile);
+            if (bytes.length < 16) {
+                throw new IllegalArgumentException("truncated");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, bytes.length - 4);
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            if (in.getInt(bytes.length - 4) != (int) crc.getValue() || in.getInt() != SNAPSHOT_MAGIC) {
+                throw new IllegalArgumentException("checksum mismatch");
+            }
+            long offset = in.getLong();
+            int scopeCount = in.getInt();
+            for (int s = 0; s < scopeCount; s++) {
+                String scope = readString(in);
+                int count = in.getInt();
+                Map<UUID, PlayerAggregate> players = new HashMap<>(Math.max(16, count * 2));
+                for (int i = 0; i < count; i++) {
+                    UUID uuid = readUuid(in);
+                    players.put(uuid, new PlayerAggregate(uuid, readString(in), in.getInt(), in.getInt(),
+                        in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt(),
+                        in.getInt(), in.getInt()));
+                }
+                scopes.put(scope, players);
+            }
+            return offset;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[LocalStatsStore] Ignoring unreadable aggregate snapshot (" + e.getMessage() +
+                "), rebuilding from the match log");
+            scopes.clear();
+            return 0;
+        }
+    }
+
+    // ========== Encoding Helpers ==========
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+        out.writeShort(length);
+        out.write(bytes, 0, length);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ========== Log Records ==========
+
+    private record LoggedMatch(UUID matchId, String gameMode, String arenaId, long endedAt,
+                               int durationSeconds, List<LoggedParticipant> participants) {
+
+        /**
+         * Captures the player participants of a match record (bots are not ranked).
+         */
+        static LoggedMatch of(MatchRecord record) {
+            List<LoggedParticipant> participants = new ArrayList<>();
+            for (ParticipantRecord rec : record.getParticipants().values()) {
+                if (rec.isBot() || rec.getUuid() == null) continue;
+                participants.add(new LoggedParticipant(rec.getUuid(), rec.getUsername(), rec.isWinner(),
+                    rec.getPvpKills(), rec.getPvpDeaths(), rec.getPveKills(), rec.getPveDeaths(),
+                    Math.max(0, rec.getWavesSurvived()),
+                    "speed_run".equals(record.getGameMode()) ? finishTimeMs(rec.getJsonData()) : 0,
+                    rec.getArenaPoints(), (int) rec.getHonor()));
+            }
+            long endedAt = record.getEndedAt() != null ? record.getEndedAt().toEpochMilli() : System.currentTimeMillis();
+            return new LoggedMatch(record.getMatchId(), record.getGameMode(), record.getArenaId(), endedAt,
+                (int) record.getDurationSeconds(), participants);
+        }
+
+        /**
+         * Extracts the finish time of a completed speed run from its JSON data (0 for a DNF).
+         */
+        private static int finishTimeMs(String jsonData) {
+            if (jsonData == null) return 0;
+            try {
+                JsonObject json = JsonParser.parseString(jsonData).getAsJsonObject();
+                JsonElement dnf = json.get("is_dnf");
+                JsonElement nanos = json.get("finish_time_nanos");
+                if (dnf == null || dnf.getAsBoolean() || nanos == null) return 0;
+                return (int) Math.round(nanos.getAsLong() / 1_000_000.0);
+            } catch (RuntimeException e) {
+                return 0;
+            }
+        }
+    }
+
+    private record LoggedParticipant(UUID uuid, String username, boolean winner,
+                                     int pvpKills, int pvpDeaths, int pveKills, int pveDeaths,
+                                     int wavesSurvived, int finishTimeMs, int arenaPoints, int honor) {
+    }
+}
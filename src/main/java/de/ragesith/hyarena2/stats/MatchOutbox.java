@@ -0,0 +1,323 @@
+package de.ragesith.hyarena2.stats;
+
+import de.ragesith.hyarena2.api.ApiClient;
+import de.ragesith.hyarena2.api.ApiResult;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disk-backed outbox for match submissions to the web API.
+ *
+ * <p>Every finished match is appended to an append-only segment file (data/outbox/matches.log)
+ * and fsynced before delivery is attempted, so a web host outage or a server restart can no
+ * longer lose a match. Entries are delivered one at a time in enqueue order, with exponential
+ * backoff while the backend is failing, and acknowledged in the same file once the backend
+ * accepted them. On startup the file is replayed and compacted down to the unacknowledged entries.
+ *
+ * <p>Each submission carries the match UUID as its idempotency key, so a retry after a lost
+ * response is recognised by the backend instead of counted twice. Up to {@link #MAX_BATCH_SIZE}
+ * pending entries go out in one /api/batch request; the backend stops at the first failure so
+ * later matches are never recorded ahead of an earlier one.
+ *
+ * <p>Segment lines: {@code E<tab>matchId<tab>json} (enqueued) and {@code A<tab>matchId} (acknowledged).
+ */
+public class MatchOutbox {
+    private static final String SUBMIT_PATH = "/api/match/submit";
+    private static final int MAX_BATCH_SIZE = 16;
+
+    // Retry backoff
+    private static final long INITIAL_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 5 * 60_000;
+
+    // Compact once this many acknowledged entries outnumber the pending ones
+    private static final int COMPACT_THRESHOLD = 64;
+
+    private final ApiClient apiClient;
+    private final Path segmentFile;
+    private final Path rejectedFile;
+
+    // Unacknowledged submissions in enqueue order (matchId -> payload JSON)
+    private final LinkedHashMap<UUID, String> pending = new LinkedHashMap<>();
+    private FileChannel segment;
+    private int acknowledgedInSegment;
+
+    // Delivery state (guarded by this)
+    private ScheduledExecutorService scheduler;
+    private boolean delivering;
+    private long backoffMs = INITIAL_BACKOFF_MS;
+    private volatile boolean running;
+
+    public MatchOutbox(Path pluginDataRoot, ApiClient apiClient) {
+        this.apiClient = apiClient;
+        Path outboxDir = pluginDataRoot.resolve("data").resolve("outbox");
+        this.segmentFile = outboxDir.resolve("matches.log");
+        this.rejectedFile = outboxDir.resolve("matches.rejected.log");
+        try {
+            Files.createDirectories(outboxDir);
+            replay();
+            compact();
+        } catch (IOException e) {
+            System.err.println("[MatchOutbox] Failed to open outbox: " + e.getMessage());
+        }
+        if (!pending.isEmpty()) {
+            System.out.println("[MatchOutbox] Recovered " + pending.size() + " unsubmitted match(es)");
+        }
+    }
+
+    /**
+     * Starts delivering pending and future submissions on the given scheduler.
+     */
+    public synchronized void start(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+        this.running = true;
+        scheduleDelivery(0);
+    }
+
+    /**
+     * Stops delivery. Pending entries stay on disk and are replayed on next start.
+     */
+    public synchronized void stop() {
+        running = false;
+        closeSegment();
+    }
+
+    /**
+     * Durably stores a match submission and schedules its delivery.
+     * A match that is already pending is not enqueued twice.
+     */
+    public synchronized void enqueue(UUID matchId, String json) {
+        if (pending.containsKey(matchId)) {
+            return;
+        }
+        try {
+            append("E\t" + matchId + "\t" + json + "\n");
+        } catch (IOException e) {
+            // Still deliver from memory — the match is only lost if the server also stops before it is sent
+            System.err.println("[MatchOutbox] Failed to persist match " + matchId + ": " + e.getMessage());
+        }
+        pending.put(matchId, json);
+        scheduleDelivery(0);
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    // ========== Delivery ==========
+
+    private void scheduleDelivery(long delayMs) {
+        if (!running || delivering || scheduler == null || pending.isEmpty()) {
+            return;
+        }
+        delivering = true;
+        try {
+            scheduler.schedule(this::deliverNext, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Scheduler shut down; pending entries stay in the log for the next start
+            delivering = false;
+        }
+    }
+
+    /**
+     * Sends the oldest pending entries in one batch. Only one batch is in flight at a time, and the
+     * backend handles it in order, which keeps delivery in enqueue order.
+     */
+    private void deliverNext() {
+        List<UUID> matchIds = new ArrayList<>();
+        List<ApiClient.BatchItem> items = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<UUID, String> entry : pending.entrySet()) {
+                if (items.size() >= MAX_BATCH_SIZE) break;
+                matchIds.add(entry.getKey());
+                items.add(new ApiClient.BatchItem(SUBMIT_PATH, entry.getValue(), entry.getKey().toString()));
+            }
+            if (!running || items.isEmpty()) {
+                delivering = false;
+                return;
+            }
+        }
+
+        CompletableFuture<List<ApiResult>> sent;
+        try {
+            sent = apiClient.postBatch(items, true);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        // Every path must clear 'delivering' and reschedule, or delivery stops until restart
+        sent.whenComplete((results, error) -> {
+            synchronized (this) {
+                delivering = false;
+                boolean failed = true;
+                try {
+                    if (error != null) {
+                        System.err.println("[MatchOutbox] Match submission failed, retrying in " + backoffMs + "ms: " + error.getMessage());
+                    } else if (results == null || results.size() < items.size()) {
+                        System.err.println("[MatchOutbox] Incomplete batch response, retrying in " + backoffMs + "ms");
+                    } else {
+                        failed = false;
+                        for (int i = 0; !failed && i < items.size(); i++) {
+                            failed = !handleResult(matchIds.get(i), items.get(i).jsonBody(), results.get(i));
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failed = true;
+                    System.err.println("[MatchOutbox] Error handling batch response: " + e.getMessage());
+                } finally {
+                    if (failed) {
+                        long delay = backoffMs;
+                        backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+                        scheduleDelivery(delay);
+                    } else {
+                        backoffMs = INITIAL_BACKOFF_MS;
+                        scheduleDelivery(0);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Acknowledges or rejects one delivered entry.
+     * @return false if it should be retried (and nothing after it handled yet)
+     */
+    private boolean handleResult(UUID matchId, String json, ApiResult result) {
+        int status = result.statusCode();
+        if (status == 200 || status == 201 || status == 409) {
+            // 409: the backend already has this match (an earlier attempt's response was lost)
+            System.out.println("[MatchOutbox] Match " + matchId + " submitted successfully");
+            acknowledge(matchId);
+            return true;
+        }
+        if (isPermanentFailure(status)) {
+            System.err.println("[MatchOutbox] Match " + matchId + " rejected with HTTP " + status +
+                ": " + result.body() + " — moved to " + rejectedFile.getFileName());
+            reject(matchId, json);
+            return true;
+        }
+        if (status > 0 && status != 424) {
+            System.err.println("[MatchOutbox] Match submission returned HTTP " + status +
+                ", retrying in " + backoffMs + "ms");
+        }
+        return false;
+    }
+
+    /**
+     * Client errors other than timeouts, rate limits and "not attempted" (424, an earlier batch
+     * item failed) will fail the same way on every retry.
+     */
+    private static boolean isPermanentFailure(int status) {
+        return status >= 400 && status < 500 && status != 408 && status != 424 && status != 429;
+    }
+
+    private void acknowledge(UUID matchId) {
+        if (pending.remove(matchId) == null) {
+            return;
+        }
+        try {
+            append("A\t" + matchId + "\n");
+            acknowledgedInSegment++;
+            if (acknowledgedInSegment >= COMPACT_THRESHOLD && acknowledgedInSegment > pending.size()) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("[MatchOutbox] Failed to record acknowledgement for " + matchId + ": " + e.getMessage());
+        }
+    }
+
+    private void reject(UUID matchId, String json) {
+        try {
+            Files.writeString(rejectedFile, matchId + "\t" + json + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("[MatchOutbox] Failed to write rejected match " + matchId + ": " + e.getMessage());
+        }
+        acknowledge(matchId);
+    }
+
+    // ========== Segment File ==========
+
+    private void append(String line) throws IOException {
+        if (segment == null) {
+            segment = FileChannel.open(segmentFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        segment.force(false);
+    }
+
+    /**
+     * Rebuilds the pending set from the segment file. A torn last line from a crash mid-append
+     * (no trailing newline) is skipped; the compaction that follows removes it from disk.
+     */
+    private void replay() throws IOException {
+        if (!Files.exists(segmentFile)) {
+            return;
+        }
+        String content = Files.readString(segmentFile, StandardCharsets.UTF_8);
+        int end = content.lastIndexOf('\n');
+        if (end < 0) {
+            return;
+        }
+        for (String line : content.substring(0, end).split("\n")) {
+            String[] parts = line.split("\t", 3);
+            try {
+                if (parts.length == 3 && parts[0].equals("E")) {
+                    pending.putIfAbsent(UUID.fromString(parts[1]), parts[2]);
+                } else if (parts.length == 2 && parts[0].equals("A")) {
+                    pending.remove(UUID.fromString(parts[1]));
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("[MatchOutbox] Skipping corrupt outbox line");
+            }
+        }
+    }
+
+    /**
+     * Rewrites the segment with only unacknowledged entries (temp file + atomic move).
+     */
+    private void compact() throws IOException {
+        closeSegment();
+        Path tmp = segmentFile.resolveSibling(segmentFile.getFileName() + ".tmp");
+        List<String> lines = new ArrayList<>(pending.size());
+        for (Map.Entry<UUID, String> entry : pending.entrySet()) {
+            lines.add("E\t" + entry.getKey() + "\t" + entry.getValue());
+        }
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tmp, segmentFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        acknowledgedInSegment = 0;
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            System.err.println("[MatchOutbox] Failed to close outbox segment: " + e.getMessage());
+        }
+        segment = null;
+    }
+}
@@ -2,6 +2,8 @@ package de.ragesith.hyarena2.stats;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import de.ragesith.hyarena2.arena.CombatLog;
+import de.ragesith.hyarena2.arena.CombatSummary;
 
 import java.time.Instant;
 import java.time.ZoneOffset;
@@ -52,6 +54,7 @@ public class MatchRecord {
      */
     public JsonObject toJsonObject() {
         JsonObject json = new JsonObject();
+        json.addProperty("match_id", matchId.toString());
         json.addProperty("arena_id", arenaId);
         json.addProperty("game_mode", gameMode);
         json.addProperty("duration_seconds", getDurationSeconds());
@@ -123,6 +126,11 @@ public class MatchRecord {
                 p.addProperty("json_data", rec.getJsonData());
             }
 
+            // Damage breakdown from the match combat log
+            if (rec.getCombatBreakdown() != null) {
+                p.add("damage_breakdown", buildDamageBreakdown(rec.getCombatBreakdown()));
+            }
+
             participantsArray.add(p);
         }
         json.add("participants", participantsArray);
@@ -130,6 +138,35 @@ public class MatchRecord {
         return json;
     }
 
+    /**
+     * Builds the per-participant damage_breakdown object from a combat log summary entry.
+     */
+    private static JsonObject buildDamageBreakdown(CombatSummary.Entry entry) {
+        JsonObject json = new JsonObject();
+        json.addProperty("hits_landed", entry.getHitsLanded());
+        json.addProperty("hits_taken", entry.getHitsTaken());
+        json.addProperty("hits_blocked", entry.getHitsBlocked());
+        json.addProperty("biggest_hit", entry.getBiggestHit());
+        json.addProperty("melee_damage", entry.getDamageDealt(CombatLog.TYPE_MELEE));
+        json.addProperty("ranged_damage", entry.getDamageDealt(CombatLog.TYPE_RANGED));
+        json.addProperty("environment_damage_taken", entry.getEnvironmentDamageTaken());
+        // Hits missing from the opponents list because the combat log ring wrapped
+        json.addProperty("dropped_hits", entry.getDroppedHits());
+
+        JsonArray opponents = new JsonArray();
+        for (CombatSummary.Opponent opponent : entry.getOpponents()) {
+            JsonObject o = new JsonObject();
+            o.addProperty("name", opponent.getName());
+            o.addProperty("damage_dealt", opponent.getDamageDealt());
+            o.addProperty("hits_dealt", opponent.getHitsDealt());
+            o.addProperty("damage_taken", opponent.getDamageTaken());
+            o.addProperty("hits_taken", opponent.getHitsTaken());
+            opponents.add(o);
+        }
+        json.add("opponents", opponents);
+        return json;
+    }
+
     // Getters and setters
     public UUID getMatchId() { return matchId; }
     public String getArenaId() { return arenaId; }
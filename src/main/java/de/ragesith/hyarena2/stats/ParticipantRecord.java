@@ -1,5 +1,6 @@
 package de.ragesith.hyarena2.stats;
 
+import de.ragesith.hyarena2.arena.CombatSummary;
 import de.ragesith.hyarena2.bot.BotDifficulty;
 
 import java.util.UUID;
@@ -35,6 +36,9 @@ public class ParticipantRecord {
     // Game-mode-specific JSON data (e.g., speedrun splits)
     private String jsonData;
 
+    // Damage breakdown from the match combat log (null if the match never ended)
+    private CombatSummary.Entry combatBreakdown;
+
     public ParticipantRecord(UUID uuid, String username, boolean isBot, BotDifficulty botDifficulty, String kitId) {
         this.uuid = uuid;
         this.username = username;
@@ -83,4 +87,6 @@ public class ParticipantRecord {
     public void setWavesSurvived(int wavesSurvived) { this.wavesSurvived = wavesSurvived; }
     public String getJsonData() { return jsonData; }
     public void setJsonData(String jsonData) { this.jsonData = jsonData; }
+    public CombatSummary.Entry getCombatBreakdown() { return combatBreakdown; }
+    public void setCombatBreakdown(CombatSummary.Entry combatBreakdown) { this.combatBreakdown = combatBreakdown; }
 }
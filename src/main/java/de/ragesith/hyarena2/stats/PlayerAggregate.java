@@ -0,0 +1,131 @@
+package de.ragesith.hyarena2.stats;
+
+import java.util.UUID;
+
+/**
+ * Running stat totals for one player in one leaderboard scope ("global", a game mode, or an arena).
+ * Mirrors the web backend's player_stats row, so local leaderboards rank the same way.
+ * Arena points and honor are only tracked in the global scope.
+ */
+public class PlayerAggregate {
+    private final UUID uuid;
+    private String username;
+    private int matchesPlayed;
+    private int matchesWon;
+    private int pvpKills;
+    private int pvpDeaths;
+    private int pveKills;
+    private int pveDeaths;
+    private int bestWavesSurvived;
+    private int bestTimeMs; // 0 = no finished run
+    private int arenaPoints;
+    private int honor;
+
+    public PlayerAggregate(UUID uuid, String username) {
+        this.uuid = uuid;
+        this.username = username;
+    }
+
+    PlayerAggregate(UUID uuid, String username, int matchesPlayed, int matchesWon,
+                    int pvpKills, int pvpDeaths, int pveKills, int pveDeaths,
+                    int bestWavesSurvived, int bestTimeMs, int arenaPoints, int honor) {
+        this.uuid = uuid;
+        this.username = username;
+        this.matchesPlayed = matchesPlayed;
+        this.matchesWon = matchesWon;
+        this.pvpKills = pvpKills;
+        this.pvpDeaths = pvpDeaths;
+        this.pveKills = pveKills;
+        this.pveDeaths = pveDeaths;
+        this.bestWavesSurvived = bestWavesSurvived;
+        this.bestTimeMs = bestTimeMs;
+        this.arenaPoints = arenaPoints;
+        this.honor = honor;
+    }
+
+    /**
+     * Adds one match. Wave defense and speed run matches count as played but never as won.
+     */
+    void add(String username, boolean countsWin, boolean won, int pvpKills, int pvpDeaths,
+             int pveKills, int pveDeaths, int wavesSurvived, int finishTimeMs) {
+        this.username = username;
+        this.matchesPlayed++;
+        if (countsWin && won) {
+            this.matchesWon++;
+        }
+        this.pvpKills += pvpKills;
+        this.pvpDeaths += pvpDeaths;
+        this.pveKills += pveKills;
+        this.pveDeaths += pveDeaths;
+        this.bestWavesSurvived = Math.max(this.bestWavesSurvived, wavesSurvived);
+        if (finishTimeMs > 0 && (this.bestTimeMs == 0 || finishTimeMs < this.bestTimeMs)) {
+            this.bestTimeMs = finishTimeMs;
+        }
+    }
+
+    /**
+     * Sets the latest economy balances.
+     * @return true if either value changed
+     */
+    boolean setEconomy(int arenaPoints, int honor) {
+        if (this.arenaPoints == arenaPoints && this.honor == honor) {
+            return false;
+        }
+        this.arenaPoints = arenaPoints;
+        this.honor = honor;
+        return true;
+    }
+
+    /**
+     * Gets a numeric value by API sort field name (e.g. "pvp_kills", "win_rate").
+     */
+    public double getValue(String field) {
+        return switch (field) {
+            case "pvp_deaths" -> pvpDeaths;
+            case "pvp_kd_ratio" -> getKdRatio();
+            case "matches_won" -> matchesWon;
+            case "win_rate" -> getWinRate();
+            case "pve_kills" -> pveKills;
+            case "pve_deaths" -> pveDeaths;
+            case "matches_played" -> matchesPlayed;
+            case "best_waves_survived" -> bestWavesSurvived;
+            case "best_time_ms" -> bestTimeMs;
+            case "arena_points" -> arenaPoints;
+            case "honor" -> honor;
+            default -> pvpKills;
+        };
+    }
+
+    /**
+     * K/D rounded to 2 decimals; kills alone if the player never died (same as the web backend).
+     */
+    public double getKdRatio() {
+        return pvpDeaths > 0 ? Math.round(pvpKills * 100.0 / pvpDeaths) / 100.0 : pvpKills;
+    }
+
+    /**
+     * Win percentage rounded to 1 decimal.
+     */
+    public double getWinRate() {
+        return matchesPlayed > 0 ? Math.round(matchesWon * 1000.0 / matchesPlayed) / 10.0 : 0.0;
+    }
+
+    public LeaderboardEntry toEntry(int rank) {
+        return new LeaderboardEntry(rank, username, uuid.toString(),
+            pvpKills, pvpDeaths, getKdRatio(), matchesWon, getWinRate(),
+            pveKills, pveDeaths, bestWavesSurvived, matchesPlayed, bestTimeMs);
+    }
+
+    public UUID getUuid() { return uuid; }
+    public String getUsername() { return username; }
+    public int getMatchesPlayed() { return matchesPlayed; }
+    public int getMatchesWon() { return matchesWon; }
+    public int getPvpKills() { return pvpKills; }
+    public int getPvpDeaths() { return pvpDeaths; }
+    public int getPveKills() { return pveKills; }
+    public int getPveDeaths() { return pveDeaths; }
+    public int getBestWavesSurvived() { return bestWavesSurvived; }
+    public int getBestTimeMs() { return bestTimeMs; }
+    public int getArenaPoints() { return arenaPoints; }
+    public int getHonor() { return honor; }
+}
@@ -0,0 +1,226 @@
+package de.ragesith.hyarena2.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic index over one leaderboard scope and sort field.
+ *
+ * <p>An indexed skip list: every link also stores how many entries it skips, so the rank of a
+ * player and the entry at an offset are both found in O(log n), and a changed player is moved by
+ * one remove + insert instead of re-sorting the scope. Entries hold a copy of the sort value and
+ * name taken when the player was last updated, so the order stays consistent while the live
+ * aggregate changes.
+ *
+ * <p>Not thread-safe; {@link LocalStatsStore} guards it.
+ */
+public class RankingIndex {
+    private static final int MAX_LEVEL = 24;
+
+    private final String sort;
+    private final Comparator<Key> order;
+    private final Map<UUID, Key> keys = new HashMap<>();
+
+    // Skip list; positions are 1-based, a null link points just past the last entry
+    private final Node head = new Node(null, MAX_LEVEL);
+    private int level = 1;
+    private int size;
+
+    public RankingIndex(String sort) {
+        this.sort = sort;
+        this.order = rankOrder(sort);
+    }
+
+    /**
+     * Adds a player or moves them to their new position after their stats changed.
+     */
+    public void update(PlayerAggregate player) {
+        Key old = keys.get(player.getUuid());
+        Key key = new Key(player, player.getValue(sort), player.getUsername());
+        if (old != null) {
+            if (old.value == key.value && old.username.equals(key.username)) {
+                return;
+            }
+            remove(old);
+        }
+        insert(key);
+        keys.put(player.getUuid(), key);
+    }
+
+    /**
+     * Gets a player's 1-based rank, or 0 if they are not in this index.
+     */
+    public int rankOf(UUID uuid) {
+        Key key = keys.get(uuid);
+        if (key == null) {
+            return 0;
+        }
+        Node x = head;
+        int pos = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && order.compare(x.next[i].key, key) <= 0) {
+                pos += x.width[i];
+                x = x.next[i];
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Gets up to {@code count} players starting at a 0-based offset, in rank order.
+     */
+    public List<PlayerAggregate> page(int offset, int count) {
+        if (offset < 0 || offset >= size || count <= 0) {
+            return List.of();
+        }
+        List<PlayerAggregate> result = new ArrayList<>(Math.min(count, size - offset));
+        for (Node x = nodeAt(offset + 1); x != null && result.size() < count; x = x.next[0]) {
+            result.add(x.key.player);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the player at a 1-based rank, or null if out of range.
+     */
+    public PlayerAggregate get(int rank) {
+        return rank >= 1 && rank <= size ? nodeAt(rank).key.player : null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    /**
+     * Highest value first, except best time: fastest first with unfinished (0) last.
+     * Ties are broken by name so pages stay stable.
+     */
+    private static Comparator<Key> rankOrder(String sort) {
+        Comparator<Key> byValue;
+        if ("best_time_ms".equals(sort)) {
+            byValue = Comparator.<Key>comparingInt(k -> k.value > 0 ? 0 : 1).thenComparingDouble(k -> k.value);
+        } else {
+            byValue = Comparator.<Key>comparingDouble(k -> k.value).reversed();
+        }
+        return byValue.thenComparing((Key k) -> k.username, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(k -> k.player.getUuid());
+    }
+
+    // ========== Skip List ==========
+
+    private Node nodeAt(int position) {
+        Node x = head;
+        int pos = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && pos + x.width[i] <= position) {
+                pos += x.width[i];
+                x = x.next[i];
+            }
+        }
+        return x;
+    }
+
+    private void insert(Key key) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] updatePos = new int[MAX_LEVEL];
+        Node x = head;
+        int pos = 0;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && order.compare(x.next[i].key, key) < 0) {
+                pos += x.width[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+            updatePos[i] = pos;
+        }
+
+        int nodeLevel = randomLevel();
+        for (int i = level; i < nodeLevel; i++) {
+            update[i] = head;
+            updatePos[i] = 0;
+            head.width[i] = size + 1;
+        }
+        level = Math.max(level, nodeLevel);
+
+        Node node = new Node(key, nodeLevel);
+        int nodePos = updatePos[0] + 1;
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.width[i] = update[i].width[i] - (nodePos - updatePos[i]) + 1;
+            update[i].width[i] = nodePos - updatePos[i];
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].width[i]++;
+        }
+        size++;
+    }
+
+    private void remove(Key key) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && order.compare(x.next[i].key, key) < 0) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        Node target = update[0].next[0];
+        if (target == null || target.key != key) {
+            return;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == target) {
+                update[i].width[i] += target.width[i] - 1;
+                update[i].next[i] = target.next[i];
+            } else {
+                update[i].width[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && (ThreadLocalRandom.current().nextInt() & 3) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Key {
+        final PlayerAggregate player;
+        final double value;
+        final String username;
+
+        Key(PlayerAggregate player, double value, String username) {
+            this.player = player;
+            this.value = value;
+            this.username = username != null ? username : "";
+        }
+    }
+
+    private static final class Node {
+        final Key key;
+        final Node[] next;
+        final int[] width;
+
+        Node(Key key, int level) {
+            this.key = key;
+            this.next = new Node[level];
+            this.width = new int[level];
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package de.ragesith.hyarena2.stats;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Configuration for stats tracking and web API integration.
  * Loaded from config/stats.json.
@@ -9,6 +12,13 @@ public class StatsConfig {
     private String baseUrl = "http://localhost:8080";
     private String apiKey = "";
     private boolean syncOnStartup = true;
+    private int apiThreads = 4;
+    private boolean apiBatching = true;
+    private boolean apiCompression = true;
+    private boolean localLeaderboards = true;
+    private int leaderboardCacheSize = 128;
+    private int leaderboardCacheTtlSeconds = 60;
+    private Map<String, Integer> leaderboardScopeTtlSeconds = new HashMap<>();
 
     public boolean isEnabled() {
         return enabled;
@@ -41,4 +51,84 @@ public class StatsConfig {
     public void setSyncOnStartup(boolean syncOnStartup) {
         this.syncOnStartup = syncOnStartup;
     }
+
+    /**
+     * Size of the thread pool that runs web API requests and response handling.
+     */
+    public int getApiThreads() {
+        return apiThreads;
+    }
+
+    public void setApiThreads(int apiThreads) {
+        this.apiThreads = apiThreads;
+    }
+
+    /**
+     * Whether syncs and match submissions are combined into /api/batch requests.
+     * Disable for a web backend without the batch endpoint.
+     */
+    public boolean isApiBatching() {
+        return apiBatching;
+    }
+
+    public void setApiBatching(boolean apiBatching) {
+        this.apiBatching = apiBatching;
+    }
+
+    /**
+     * Whether large request bodies are gzip-compressed.
+     */
+    public boolean isApiCompression() {
+        return apiCompression;
+    }
+
+    public void setApiCompression(boolean apiCompression) {
+        this.apiCompression = apiCompression;
+    }
+
+    /**
+     * Whether leaderboards are served from the local stats store instead of the web API.
+     * The local store only knows matches played since it was introduced; disable to show
+     * the web backend's full history instead.
+     */
+    public boolean isLocalLeaderboards() {
+        return localLeaderboards;
+    }
+
+    public void setLocalLeaderboards(boolean localLeaderboards) {
+        this.localLeaderboards = localLeaderboards;
+    }
+
+    /**
+     * Maximum number of web API leaderboard pages kept in memory (least recently used are dropped).
+     */
+    public int getLeaderboardCacheSize() {
+        return leaderboardCacheSize;
+    }
+
+    public void setLeaderboardCacheSize(int leaderboardCacheSize) {
+        this.leaderboardCacheSize = leaderboardCacheSize;
+    }
+
+    /**
+     * Age after which a cached leaderboard page is refreshed in the background.
+     */
+    public int getLeaderboardCacheTtlSeconds() {
+        return leaderboardCacheTtlSeconds;
+    }
+
+    public void setLeaderboardCacheTtlSeconds(int leaderboardCacheTtlSeconds) {
+        this.leaderboardCacheTtlSeconds = leaderboardCacheTtlSeconds;
+    }
+
+    /**
+     * Per-scope overrides of the leaderboard cache TTL (scope id, e.g. "global" or "duel", to seconds).
+     */
+    public Map<String, Integer> getLeaderboardScopeTtlSeconds() {
+        return leaderboardScopeTtlSeconds != null ? leaderboardScopeTtlSeconds : Map.of();
+    }
+
+    public void setLeaderboardScopeTtlSeconds(Map<String, Integer> leaderboardScopeTtlSeconds) {
+        this.leaderboardScopeTtlSeconds = leaderboardScopeTtlSeconds;
+    }
 }
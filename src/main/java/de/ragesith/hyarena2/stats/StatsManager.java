@@ -7,6 +7,7 @@ import com.google.gson.JsonObject;
 import de.ragesith.hyarena2.api.ApiClient;
 import de.ragesith.hyarena2.arena.Arena;
 import de.ragesith.hyarena2.arena.ArenaConfig;
+import de.ragesith.hyarena2.arena.CombatSummary;
 import de.ragesith.hyarena2.arena.Match;
 import de.ragesith.hyarena2.arena.MatchManager;
 import de.ragesith.hyarena2.bot.BotDifficulty;
@@ -17,6 +18,8 @@ import de.ragesith.hyarena2.gamemode.WaveDefenseGameMode;
 import de.ragesith.hyarena2.economy.EconomyManager;
 import de.ragesith.hyarena2.economy.HonorManager;
 import de.ragesith.hyarena2.event.EventBus;
+import de.ragesith.hyarena2.event.EventCoalescer;
+import de.ragesith.hyarena2.event.EventLane;
 import de.ragesith.hyarena2.event.economy.ArenaPointsEarnedEvent;
 import de.ragesith.hyarena2.event.economy.ArenaPointsSpentEvent;
 import de.ragesith.hyarena2.event.economy.HonorEarnedEvent;
@@ -40,12 +43,16 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -57,7 +64,17 @@ import java.util.concurrent.TimeUnit;
  */
 public class StatsManager {
     private static final long FLUSH_DELAY_MS = 2000; // 2s debounce
-    private static final long CACHE_TTL_MS = 60_000; // 1 minute
+    private static final long SYNC_RETRY_INITIAL_MS = 5_000; // backoff after a failed economy flush
+    private static final long SYNC_RETRY_MAX_MS = 5 * 60_000;
+    private static final String LEADERBOARD_PATH = "/api/leaderboard";
+    private static final int LEADERBOARD_PAGE_SIZE = 10;
+
+    // Async event lanes — keep stats bookkeeping and web sync off the world threads
+    private static final int STATS_LANE_CAPACITY = 4096;
+    private static final int SYNC_LANE_CAPACITY = 1024;
+    private static final long LANE_DRAIN_TIMEOUT_MS = 2000;
+    private static final long DAMAGE_COALESCE_WINDOW_MS = 500; // per-hit damage merged per victim/attacker pair
+    private static final long STORE_DRAIN_TIMEOUT_MS = 5000;
 
     private final StatsConfig config;
     private final ApiClient apiClient;
@@ -66,22 +83,40 @@ public class StatsManager {
     private final KitManager kitManager;
     private final EconomyManager economyManager;
     private final HonorManager honorManager;
+    private final MatchOutbox matchOutbox;
+    private final LocalStatsStore localStore;
     private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Gson compactGson = new Gson(); // outbox entries are stored one per line
 
     private final Map<UUID, MatchRecord> activeRecords = new ConcurrentHashMap<>();
 
+    // Finished records are written (local store + outbox, both fsync) here, off the BLOCK stats lane
+    private final ExecutorService storeExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "HyArena2-StatsStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private EventLane statsLane;
+    private EventLane syncLane;
+    private EventCoalescer<ParticipantDamagedEvent> damageCoalescer;
+
     // Dirty-player sync for economy pushes
     private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
     private volatile ScheduledExecutorService syncScheduler;
     private volatile ScheduledFuture<?> pendingFlush;
+    private volatile long syncRetryDelayMs = SYNC_RETRY_INITIAL_MS;
+    private volatile long syncRetryAt; // no flush before this while the backend is failing
 
-    // Leaderboard cache
-    private final Map<String, CachedLeaderboard> leaderboardCache = new ConcurrentHashMap<>();
+    // Leaderboard cache (web API pages)
+    private final LeaderboardCache leaderboardCache;
     private final Map<String, CompletableFuture<LeaderboardResult>> inFlightRequests = new ConcurrentHashMap<>();
+    private volatile List<SpeedRunRecord> lastSpeedRunRecords = List.of();
 
     public StatsManager(StatsConfig config, ApiClient apiClient, EventBus eventBus,
                         MatchManager matchManager, KitManager kitManager,
-                        EconomyManager economyManager, HonorManager honorManager) {
+                        EconomyManager economyManager, HonorManager honorManager,
+                        MatchOutbox matchOutbox, LocalStatsStore localStore) {
         this.config = config;
         this.apiClient = apiClient;
         this.eventBus = eventBus;
@@ -89,26 +124,48 @@ public class StatsManager {
         this.kitManager = kitManager;
         this.economyManager = economyManager;
         this.honorManager = honorManager;
+        this.matchOutbox = matchOutbox;
+        this.localStore = localStore;
+
+        Map<String, Long> scopeTtlMs = new HashMap<>();
+        config.getLeaderboardScopeTtlSeconds().forEach((scope, seconds) -> scopeTtlMs.put(scope, seconds * 1000L));
+        this.leaderboardCache = new LeaderboardCache(config.getLeaderboardCacheSize(),
+            config.getLeaderboardCacheTtlSeconds() * 1000L, scopeTtlMs);
     }
 
     /**
      * Subscribes to all match/participant events for stats tracking.
      * Always subscribes (even when API is disabled) so records are built for logging.
+     *
+     * Kill and damage bookkeeping runs in order on the "stats" lane (BLOCK, so no counter is ever
+     * lost). Damage events are merged per victim/attacker pair and applied once per window.
+     * Created/started/joined/ended stay synchronous: the record and its participants must exist
+     * before any lane event for them, and onMatchEnded walks the participants and reads game mode
+     * state that is cleaned up in finish(). Finished records are written on their own thread.
      */
     public void subscribeToEvents() {
+        statsLane = eventBus.lane("stats", STATS_LANE_CAPACITY, EventLane.OverflowPolicy.BLOCK);
+        syncLane = eventBus.lane("web-sync", SYNC_LANE_CAPACITY, EventLane.OverflowPolicy.COALESCE);
+
         eventBus.subscribe(MatchCreatedEvent.class, this::onMatchCreated);
         eventBus.subscribe(MatchStartedEvent.class, this::onMatchStarted);
         eventBus.subscribe(ParticipantJoinedEvent.class, this::onParticipantJoined);
-        eventBus.subscribe(ParticipantKilledEvent.class, this::onParticipantKilled);
-        eventBus.subscribe(ParticipantDamagedEvent.class, this::onParticipantDamaged);
+        eventBus.subscribe(ParticipantKilledEvent.class, statsLane, this::onParticipantKilled);
+        damageCoalescer = eventBus.subscribeCoalesced(ParticipantDamagedEvent.class, DAMAGE_COALESCE_WINDOW_MS,
+            ParticipantDamagedEvent::getCoalesceKey, ParticipantDamagedEvent::merge, statsLane, this::onParticipantDamaged);
         eventBus.subscribe(MatchEndedEvent.class, this::onMatchEnded);
-        eventBus.subscribe(MatchFinishedEvent.class, this::onMatchFinished);
-
-        // Economy events — mark players dirty for web sync
-        eventBus.subscribe(ArenaPointsEarnedEvent.class, e -> markDirty(e.getPlayerUuid()));
-        eventBus.subscribe(ArenaPointsSpentEvent.class, e -> markDirty(e.getPlayerUuid()));
-        eventBus.subscribe(HonorEarnedEvent.class, e -> markDirty(e.getPlayerUuid()));
-        eventBus.subscribe(HonorRankChangedEvent.class, e -> markDirty(e.getPlayerUuid()));
+        eventBus.subscribe(MatchFinishedEvent.class, statsLane, this::onMatchFinished);
+
+        // Economy events — mark players dirty for web sync and re-rank them locally
+        // (only the player matters, so coalesce per player)
+        eventBus.subscribe(ArenaPointsEarnedEvent.class, syncLane, ArenaPointsEarnedEvent::getPlayerUuid,
+            e -> onEconomyChanged(e.getPlayerUuid()));
+        eventBus.subscribe(ArenaPointsSpentEvent.class, syncLane, ArenaPointsSpentEvent::getPlayerUuid,
+            e -> onEconomyChanged(e.getPlayerUuid()));
+        eventBus.subscribe(HonorEarnedEvent.class, syncLane, HonorEarnedEvent::getPlayerUuid,
+            e -> onEconomyChanged(e.getPlayerUuid()));
+        eventBus.subscribe(HonorRankChangedEvent.class, syncLane, HonorRankChangedEvent::getPlayerUuid,
+            e -> onEconomyChanged(e.getPlayerUuid()));
 
         System.out.println("[StatsManager] Subscribed to match/participant/economy events");
     }
@@ -228,6 +285,14 @@ public class StatsManager {
                 }
             }
 
+            // Damage breakdowns from the combat log (summarised by Match before MatchEndedEvent)
+            CombatSummary combatSummary = match.getCombatSummary();
+            if (combatSummary != null) {
+                for (Map.Entry<UUID, ParticipantRecord> entry : record.getParticipants().entrySet()) {
+                    entry.getValue().setCombatBreakdown(combatSummary.get(entry.getKey()));
+                }
+            }
+
             // SpeedRun: capture per-player JSON data (splits, finish time, PB info)
             if (gameMode instanceof SpeedRunGameMode srMode) {
                 for (Map.Entry<UUID, ParticipantRecord> entry : record.getParticipants().entrySet()) {
@@ -256,6 +321,11 @@ public class StatsManager {
     }
 
     private void onMatchFinished(MatchFinishedEvent event) {
+        // Apply damage still waiting in the coalescing window before the record is finalised
+        if (damageCoalescer != null) {
+            damageCoalescer.flush();
+        }
+
         MatchRecord record = activeRecords.remove(event.getMatchId());
         if (record == null) return;
 
@@ -279,26 +349,38 @@ public class StatsManager {
             }
         }
 
-        if (config.isEnabled()) {
-            submitMatchRecord(record);
+        storeExecutor.execute(() -> storeMatchRecord(record));
+    }
+
+    /**
+     * Writes a finished record to the local store and the outbox. Both fsync, so this runs on
+     * the store thread rather than the stats lane, which would otherwise back up into the world threads.
+     */
+    private void storeMatchRecord(MatchRecord record) {
+        try {
+            // Local leaderboards are kept even when the web API is disabled
+            localStore.record(record);
+
+            if (config.isEnabled()) {
+                submitMatchRecord(record);
+            }
+        } catch (Exception e) {
+            System.err.println("[StatsManager] Failed to store match " + record.getMatchId() + ": " + e.getMessage());
         }
     }
 
+    private void onEconomyChanged(UUID uuid) {
+        localStore.updateEconomy(uuid, economyManager.getArenaPoints(uuid), (int) economyManager.getHonor(uuid));
+        markDirty(uuid);
+    }
+
     // ========== API Submission ==========
 
+    /**
+     * Hands the record to the durable outbox, which retries until the backend accepts it.
+     */
     private void submitMatchRecord(MatchRecord record) {
-        String json = gson.toJson(record.toJsonObject());
-
-        apiClient.postAsync("/api/match/submit", json)
-            .thenAccept(response -> {
-                if (response == null) return; // error already logged by ApiClient
-                if (response.statusCode() == 200) {
-                    System.out.println("[StatsManager] Match " + record.getMatchId() + " submitted successfully");
-                } else {
-                    System.err.println("[StatsManager] Match submission returned HTTP " +
-                        response.statusCode() + ": " + response.body());
-                }
-            });
+        matchOutbox.enqueue(record.getMatchId(), compactGson.toJson(record.toJsonObject()));
     }
 
     /**
@@ -355,9 +437,13 @@ public class StatsManager {
         System.out.println("[StatsManager] Syncing " + arenasArray.size() + " arenas, " +
             kitsArray.size() + " kits, and " + gameModesArray.size() + " game modes to web API...");
 
-        apiClient.postAsync("/api/sync", json)
-            .thenAccept(response -> {
-                if (response == null) return;
+        apiClient.postBatched("/api/sync", json)
+            .thenAccept(result -> {
+                HttpResponse<String> response = result.getResponse();
+                if (response == null) {
+                    System.err.println("[StatsManager] Config sync failed (" + result.getOutcome() + ")");
+                    return;
+                }
                 if (response.statusCode() == 200) {
                     System.out.println("[StatsManager] Config sync successful: " + response.body());
                 } else {
@@ -378,14 +464,29 @@ public class StatsManager {
         dirtyPlayers.add(uuid);
 
         if (pendingFlush == null || pendingFlush.isDone()) {
-            pendingFlush = syncScheduler.schedule(this::flushDirtyPlayers, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+            // While backing off, wait for the retry instead of flushing into a failing backend
+            long delay = Math.max(FLUSH_DELAY_MS, syncRetryAt - System.currentTimeMillis());
+            pendingFlush = syncScheduler.schedule(this::flushDirtyPlayers, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Re-adds players whose flush failed and retries with exponential backoff.
+     */
+    private void onEconomyFlushFailed(List<UUID> players) {
+        dirtyPlayers.addAll(players);
+        long delay = syncRetryDelayMs;
+        syncRetryDelayMs = Math.min(delay * 2, SYNC_RETRY_MAX_MS);
+        syncRetryAt = System.currentTimeMillis() + delay;
+        if (syncScheduler != null && (pendingFlush == null || pendingFlush.isDone())) {
+            pendingFlush = syncScheduler.schedule(this::flushDirtyPlayers, delay, TimeUnit.MILLISECONDS);
         }
     }
 
     /**
      * Flushes all dirty players' economy data to the web API.
      * Snapshots and clears the dirty set, then POSTs a batch update.
-     * On failure, re-adds UUIDs for retry on the next flush.
+     * On failure, re-adds UUIDs and retries with backoff.
      */
     private void flushDirtyPlayers() {
         if (dirtyPlayers.isEmpty()) return;
@@ -417,20 +518,21 @@ public class StatsManager {
 
         System.out.println("[StatsManager] Flushing economy data for " + playersArray.size() + " player(s)");
 
-        apiClient.postAsync("/api/player/sync", json)
-            .thenAccept(response -> {
-                if (response == null) {
-                    // Network error — re-add for retry
-                    dirtyPlayers.addAll(toFlush);
+        apiClient.postBatched("/api/player/sync", json)
+            .thenAccept(result -> {
+                if (result.isOk()) {
+                    System.out.println("[StatsManager] Economy sync successful for " + playersArray.size() + " player(s)");
+                    syncRetryDelayMs = SYNC_RETRY_INITIAL_MS;
+                    syncRetryAt = 0;
                     return;
                 }
-                if (response.statusCode() == 200) {
-                    System.out.println("[StatsManager] Economy sync successful for " + playersArray.size() + " player(s)");
-                } else {
+                if (result.getResponse() != null) {
                     System.err.println("[StatsManager] Economy sync returned HTTP " +
-                        response.statusCode() + ": " + response.body());
-                    dirtyPlayers.addAll(toFlush);
+                        result.statusCode() + ": " + result.body());
+                } else if (result.isCircuitOpen()) {
+                    System.err.println("[StatsManager] Economy sync skipped, web API unavailable");
                 }
+                onEconomyFlushFailed(toFlush);
             });
     }
 
@@ -460,10 +562,12 @@ public class StatsManager {
         payload.add("players", playersArray);
         String json = gson.toJson(payload);
 
-        apiClient.postAsync("/api/player/sync", json)
-            .thenAccept(response -> {
-                if (response != null && response.statusCode() == 200) {
+        apiClient.postBatched("/api/player/sync", json)
+            .thenAccept(result -> {
+                if (result.isOk()) {
                     System.out.println("[StatsManager] Disconnect flush for " + playerData.getPlayerName() + " successful");
+                } else {
+                    onEconomyFlushFailed(List.of(uuid));
                 }
             });
     }
@@ -475,6 +579,11 @@ public class StatsManager {
     public void initSyncScheduler(ScheduledExecutorService scheduler) {
         this.syncScheduler = scheduler;
 
+        // Deliver match submissions left over from a previous run, then new ones as they finish
+        if (config.isEnabled()) {
+            matchOutbox.start(scheduler);
+        }
+
         // Safety-net periodic flush every 5 minutes
         scheduler.scheduleAtFixedRate(() -> {
             try {
@@ -490,36 +599,58 @@ public class StatsManager {
     // ========== Leaderboard Cache ==========
 
     /**
-     * Fetches a leaderboard page. Returns cached data if fresh (<60s),
-     * piggybacks on in-flight requests, or fires a new API call.
+     * Fetches a leaderboard page. With local leaderboards enabled the page is answered from the
+     * local stats store right away. Otherwise a cached page is returned immediately, even if it
+     * has expired, and refreshed in the background (stale-while-revalidate); only a page that was
+     * never fetched waits for the web API. The pages before and after are prefetched so paging
+     * does not wait either. While the web API is unhealthy, an expired page is marked stale.
      *
      * @param scope "global" or a game mode id (e.g. "duel", "wave_defense")
      * @param sort  API sort field (e.g. "pvp_kills", "win_rate")
      * @param page  1-based page number
      */
     public CompletableFuture<LeaderboardResult> fetchLeaderboard(String scope, String sort, int page) {
-        String cacheKey = scope + ":" + sort + ":" + page;
+        if (config.isLocalLeaderboards()) {
+            return CompletableFuture.completedFuture(localStore.query(scope, sort, page, LEADERBOARD_PAGE_SIZE));
+        }
 
-        // 1. Check cache
-        CachedLeaderboard cached = leaderboardCache.get(cacheKey);
-        if (cached != null && !cached.isExpired()) {
-            return CompletableFuture.completedFuture(cached.result);
+        LeaderboardCache.Entry cached = leaderboardCache.get(scope, sort, page);
+        if (cached == null) {
+            return loadLeaderboard(scope, sort, page).thenApply(result -> {
+                prefetchAdjacent(scope, sort, page, result.getTotalPages());
+                return result;
+            });
         }
 
-        // 2. Piggyback on in-flight request
+        LeaderboardResult result = cached.getResult();
+        if (cached.isExpired()) {
+            if (!apiClient.getCircuitBreaker(LEADERBOARD_PATH).isHealthy()) {
+                // Backend down — no point refreshing, tell the player how old the page is
+                return CompletableFuture.completedFuture(result.asStale(cached.getFetchedAt()));
+            }
+            loadLeaderboard(scope, sort, page);
+        }
+        prefetchAdjacent(scope, sort, page, result.getTotalPages());
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * Fetches a page from the web API into the cache, piggybacking on a request already in flight.
+     */
+    private CompletableFuture<LeaderboardResult> loadLeaderboard(String scope, String sort, int page) {
+        String cacheKey = LeaderboardCache.key(scope, sort, page);
         CompletableFuture<LeaderboardResult> inFlight = inFlightRequests.get(cacheKey);
         if (inFlight != null) {
             return inFlight;
         }
 
-        // 3. Fire new request
         CompletableFuture<LeaderboardResult> future = doFetchLeaderboard(scope, sort, page);
         inFlightRequests.put(cacheKey, future);
 
         future.whenComplete((result, ex) -> {
             inFlightRequests.remove(cacheKey);
             if (result != null && !result.isError()) {
-                leaderboardCache.put(cacheKey, new CachedLeaderboard(result, System.currentTimeMillis()));
+                leaderboardCache.put(scope, sort, page, result);
             }
         });
 
@@ -527,22 +658,91 @@ public class StatsManager {
     }
 
     /**
-     * Fetches per-arena speed run records (one record holder per map).
+     * Warms the cache with the previous and next page if they are missing or expired.
+     */
+    private void prefetchAdjacent(String scope, String sort, int page, int totalPages) {
+        if (!apiClient.getCircuitBreaker(LEADERBOARD_PATH).isHealthy()) {
+            return;
+        }
+        for (int adjacent : new int[] { page - 1, page + 1 }) {
+            if (adjacent < 1 || adjacent > totalPages) continue;
+            LeaderboardCache.Entry entry = leaderboardCache.get(scope, sort, adjacent);
+            if (entry == null || entry.isExpired()) {
+                loadLeaderboard(scope, sort, adjacent);
+            }
+        }
+    }
+
+    /**
+     * Gets a player's rank on a local leaderboard, e.g. for hub holograms or chat.
+     *
+     * @param scope "global" or a game mode id
+     * @param sort  API sort field; "arena_points" and "honor" rank the global scope by balance
+     * @return 1-based rank, or 0 if the player has no stats in the scope
+     */
+    public int getPlayerRank(UUID uuid, String scope, String sort) {
+        return localStore.getRank(uuid, scope, sort);
+    }
+
+    /**
+     * Gets how many players are on a local leaderboard.
+     */
+    public int getRankedPlayerCount(String scope) {
+        return localStore.getRankedCount(scope);
+    }
+
+    /**
+     * Gets the player at a rank of a local leaderboard (e.g. the top 3 for a hologram), or null.
+     */
+    public PlayerAggregate getPlayerAtRank(String scope, String sort, int rank) {
+        return localStore.getPlayerAtRank(scope, sort, rank);
+    }
+
+    /**
+     * Fetches per-arena speed run records (one record holder per map), from the local stats store
+     * if local leaderboards are enabled. Falls back to the last fetched records if the web API is unavailable.
      */
     public CompletableFuture<List<SpeedRunRecord>> fetchSpeedRunRecords() {
-        return apiClient.getAsync("/api/leaderboard?game_mode=speed_run")
-            .thenApply(response -> {
-                if (response == null || response.statusCode() != 200) {
-                    return List.<SpeedRunRecord>of();
+        if (config.isLocalLeaderboards()) {
+            return CompletableFuture.completedFuture(getLocalSpeedRunRecords());
+        }
+        return apiClient.get(LEADERBOARD_PATH + "?game_mode=speed_run")
+            .thenApply(result -> {
+                if (!result.isOk()) {
+                    return lastSpeedRunRecords;
+                }
+                List<SpeedRunRecord> records = parseSpeedRunRecords(result.body());
+                if (!records.isEmpty()) {
+                    lastSpeedRunRecords = records;
                 }
-                return parseSpeedRunRecords(response.body());
+                return records;
             })
             .exceptionally(ex -> {
                 System.err.println("[StatsManager] Speed run records fetch error: " + ex.getMessage());
-                return List.of();
+                return lastSpeedRunRecords;
             });
     }
 
+    private List<SpeedRunRecord> getLocalSpeedRunRecords() {
+        List<Arena> arenas = new ArrayList<>();
+        for (Arena arena : matchManager.getArenas()) {
+            if ("speed_run".equals(arena.getGameMode())) {
+                arenas.add(arena);
+            }
+        }
+        arenas.sort(Comparator.comparing(Arena::getDisplayName, String.CASE_INSENSITIVE_ORDER));
+
+        List<SpeedRunRecord> records = new ArrayList<>(arenas.size());
+        for (Arena arena : arenas) {
+            PlayerAggregate best = localStore.getBestTime(arena.getId());
+            records.add(new SpeedRunRecord(arena.getId(), arena.getDisplayName(),
+                best != null ? best.getUuid().toString() : null,
+                best != null ? best.getUsername() : null,
+                best != null ? best.getBestTimeMs() : 0));
+        }
+        return records;
+    }
+
     private List<SpeedRunRecord> parseSpeedRunRecords(String json) {
         try {
             JsonObject root = gson.fromJson(json, JsonObject.class);
@@ -573,7 +773,7 @@ public class StatsManager {
     }
 
     private CompletableFuture<LeaderboardResult> doFetchLeaderboard(String scope, String sort, int page) {
-        StringBuilder path = new StringBuilder("/api/leaderboard?");
+        StringBuilder path = new StringBuilder(LEADERBOARD_PATH + "?");
         if ("global".equals(scope)) {
             path.append("arena=global");
         } else {
@@ -583,12 +783,12 @@ public class StatsManager {
         path.append("&page=").append(page);
         path.append("&per_page=10");
 
-        return apiClient.getAsync(path.toString())
-            .thenApply(response -> {
-                if (response == null || response.statusCode() != 200) {
+        return apiClient.get(path.toString())
+            .thenApply(result -> {
+                if (!result.isOk()) {
                     return LeaderboardResult.ERROR;
                 }
-                return parseLeaderboardResponse(response.body());
+                return parseLeaderboardResponse(result.body());
             })
             .exceptionally(ex -> {
                 System.err.println("[StatsManager] Leaderboard fetch error: " + ex.getMessage());
@@ -666,26 +866,29 @@ public class StatsManager {
         return el.getAsString();
     }
 
-    private static class CachedLeaderboard {
-        final LeaderboardResult result;
-        final long timestamp;
-
-        CachedLeaderboard(LeaderboardResult result, long timestamp) {
-            this.result = result;
-            this.timestamp = timestamp;
-        }
-
-        boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_TTL_MS;
-        }
-    }
-
     /**
      * Performs a final flush of all dirty players on shutdown.
      */
     public void shutdown() {
         System.out.println("[StatsManager] Shutting down, flushing remaining dirty players...");
+        // Let queued lane events land first (finished matches, dirty marks)
+        if (statsLane != null) {
+            statsLane.awaitIdle(LANE_DRAIN_TIMEOUT_MS);
+        }
+        if (syncLane != null) {
+            syncLane.awaitIdle(LANE_DRAIN_TIMEOUT_MS);
+        }
+        storeExecutor.shutdown();
+        try {
+            if (!storeExecutor.awaitTermination(STORE_DRAIN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                System.err.println("[StatsManager] Timed out writing finished match records");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
         flushDirtyPlayers();
+        matchOutbox.stop();
+        localStore.close();
     }
 
     public StatsConfig getConfig() {
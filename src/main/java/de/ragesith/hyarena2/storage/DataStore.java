@@ -0,0 +1,66 @@
+package de.ragesith.hyarena2.storage;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Key-value storage for persistent player data.
+ *
+ * <p>Values are opaque byte arrays, encoded by the owning manager's codec, grouped into namespaces
+ * (one per kind of data, e.g. player economy data or speedrun PBs). Implementations must make every single value write atomic: a
+ * crash leaves either the old or the new value, never a partial one. Whether a {@link #putAll} batch is atomic as a whole is
+ * reported by {@link #supportsAtomicBatches}. All methods are thread-safe.
+ */
+public interface DataStore extends AutoCloseable {
+
+    /** Player economy data, keyed by player UUID. */
+    String PLAYERS = "players";
+
+    /** Speedrun personal bests, keyed by "playerUuid/arenaId". */
+    String SPEEDRUN_PBS = "speedrun_pbs";
+
+    /**
+     * Short backend name as used in storage.json ("file", "embedded").
+     */
+    String getName();
+
+    /**
+     * Gets a value, or null if the key does not exist.
+     */
+    byte[] get(String namespace, String key) throws IOException;
+
+    void put(String namespace, String key, byte[] value) throws IOException;
+
+    /**
+     * Writes several values of one namespace. If it throws, callers must assume any subset was written,
+     * unless {@link #supportsAtomicBatches} is true.
+     */
+    void putAll(String namespace, Map<String, byte[]> values) throws IOException;
+
+    /**
+     * Whether {@link #putAll} applies a batch all-or-nothing, even across a crash.
+     */
+    default boolean supportsAtomicBatches() {
+        return false;
+    }
+
+    /**
+     * Deletes a value.
+     * @return true if it existed
+     */
+    boolean delete(String namespace, String key) throws IOException;
+
+    /**
+     * Lists all keys of a namespace that start with a prefix (empty prefix for all), sorted.
+     */
+    List<String> keys(String namespace, String prefix) throws IOException;
+
+    /**
+     * Lists the namespaces that hold at least one value.
+     */
+    List<String> namespaces() throws IOException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,105 @@
+package de.ragesith.hyarena2.storage;
+
+import de.ragesith.hyarena2.config.ConfigManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opens the configured {@link DataStore} and migrates data between backends.
+ */
+public final class DataStores {
+    private static final String CONFIG_FILE = "storage.json";
+    private static final int MIGRATE_BATCH = 500;
+
+    private DataStores() {}
+
+    /**
+     * Opens a backend by name ("file" or "embedded").
+     */
+    public static DataStore open(Path configRoot, String backend) throws IOException {
+        return switch (backend == null ? "" : backend.toLowerCase()) {
+            case "file" -> new FileDataStore(configRoot);
+            case "embedded" -> new EmbeddedDataStore(configRoot);
+            default -> throw new IOException("Unknown storage backend: " + backend);
+        };
+    }
+
+    /**
+     * Loads storage.json, runs a pending migration and opens the configured backend.
+     * Falls back to the file backend if the configured one cannot be opened.
+     */
+    public static DataStore openConfigured(ConfigManager configManager) {
+        Path configRoot = configManager.getConfigRoot();
+        StorageConfig config = configManager.loadConfig(CONFIG_FILE, StorageConfig.class);
+        if (config == null) {
+            config = new StorageConfig();
+            configManager.saveConfig(CONFIG_FILE, config);
+            System.out.println("[HyArena2] Created default " + CONFIG_FILE);
+        }
+
+        DataStore store;
+        try {
+            store = open(configRoot, config.getBackend());
+        } catch (IOException e) {
+            System.err.println("[DataStores] Failed to open '" + config.getBackend() + "' storage, using files: " + e.getMessage());
+            return new FileDataStore(configRoot);
+        }
+
+        String source = config.getMigrateFrom();
+        if (source != null && !source.isBlank()) {
+            if (source.equalsIgnoreCase(store.getName())) {
+                System.err.println("[DataStores] migrateFrom is the active backend, nothing to migrate");
+            } else {
+                try (DataStore from = open(configRoot, source)) {
+                    migrate(from, store);
+                } catch (IOException e) {
+                    // Keep migrateFrom set so the next startup retries
+                    System.err.println("[DataStores] Migration from '" + source + "' failed: " + e.getMessage());
+                    return store;
+                }
+            }
+            config.setMigrateFrom("");
+            configManager.saveConfig(CONFIG_FILE, config);
+        }
+
+        System.out.println("[DataStores] Using '" + store.getName() + "' storage");
+        return store;
+    }
+
+    /**
+     * Copies every value of every namespace from one store into another, in batches.
+     * Values already in the target are overwritten; values only in the target are kept.
+     *
+     * @return number of values copied
+     */
+    public static int migrate(DataStore from, DataStore to) throws IOException {
+        int copied = 0;
+        for (String namespace : from.namespaces()) {
+            List<String> keys = from.keys(namespace, "");
+            Map<String, byte[]> batch = new LinkedHashMap<>();
+            for (String key : keys) {
+                byte[] value = from.get(namespace, key);
+                if (value == null) {
+                    continue;
+                }
+                batch.put(key, value);
+                if (batch.size() == MIGRATE_BATCH) {
+                    to.putAll(namespace, batch);
+                    copied += batch.size();
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                to.putAll(namespace, batch);
+                copied += batch.size();
+            }
+            System.out.println("[DataStores] Migrated " + keys.size() + " value(s) in '" + namespace + "' from "
+                + from.getName() + " to " + to.getName());
+        }
+        return copied;
+    }
+}
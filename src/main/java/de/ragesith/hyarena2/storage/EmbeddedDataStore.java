@@ -0,0 +1,445 @@
+package de.ragesith.hyarena2.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Embedded transactional key-value store kept in a single file (data/store/hyarena.db).
+ *
+ * <p>The file is a log of commit frames ({@code [int length][int crc32][payload]}); each frame holds
+ * every put and delete of one {@link #put}/{@link #putAll}/{@link #delete} call and is fsynced before
+ * the call returns, so a batch is applied entirely or not at all. On open the log is replayed into an
+ * in-memory index of key to value position; a torn or corrupt last frame is cut off. Lookups read the
+ * value straight from its position, and key scans come from the sorted index without touching disk.
+ * Once more than half of the file is overwritten values, it is compacted into a fresh file that
+ * replaces the old one atomically.
+ */
+public class EmbeddedDataStore implements DataStore {
+    private static final int MAGIC = 0x48594442; // "HYDB"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int FRAME_HEADER_SIZE = 8;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_DELETE = 2;
+    private static final long COMPACT_MIN_GARBAGE = 4L * 1024 * 1024;
+    private static final int COMPACT_BATCH = 1000;
+
+    private final Path file;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // namespace -> key -> position of the value (guarded by lock)
+    private final Map<String, TreeMap<String, Pointer>> index = new HashMap<>();
+    private FileChannel channel;
+    private long end;
+    private long garbageBytes;
+    private boolean closed;
+
+    public EmbeddedDataStore(Path configRoot) throws IOException {
+        Path storeDir = configRoot.resolve("data").resolve("store");
+        Files.createDirectories(storeDir);
+        this.file = storeDir.resolve("hyarena.db");
+        open();
+    }
+
+    @Override
+    public String getName() {
+        return "embedded";
+    }
+
+    @Override
+    public byte[] get(String namespace, String key) throws IOException {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            TreeMap<String, Pointer> keys = index.get(namespace);
+            Pointer pointer = keys != null ? keys.get(key) : null;
+            return pointer != null ? readValue(pointer) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(String namespace, String key, byte[] value) throws IOException {
+        putAll(namespace, Map.of(key, value));
+    }
+
+    @Override
+    public void putAll(String namespace, Map<String, byte[]> values) throws IOException {
+        if (values.isEmpty()) {
+            return;
+        }
+        List<Op> ops = new ArrayList<>(values.size());
+        for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+            ops.add(new Op(OP_PUT, namespace, entry.getKey(), entry.getValue()));
+        }
+        commit(ops);
+    }
+
+    @Override
+    public boolean supportsAtomicBatches() {
+        return true;
+    }
+
+    @Override
+    public boolean delete(String namespace, String key) throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            TreeMap<String, Pointer> keys = index.get(namespace);
+            if (keys == null || !keys.containsKey(key)) {
+                return false;
+            }
+            commit(List.of(new Op(OP_DELETE, namespace, key, null)));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> keys(String namespace, String prefix) throws IOException {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            TreeMap<String, Pointer> keys = index.get(namespace);
+            if (keys == null) {
+                return List.of();
+            }
+            List<String> result = new ArrayList<>();
+            for (String key : keys.tailMap(prefix, true).keySet()) {
+                if (!key.startsWith(prefix)) {
+                    break;
+                }
+                result.add(key);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> namespaces() throws IOException {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            List<String> result = new ArrayList<>();
+            for (Map.Entry<String, TreeMap<String, Pointer>> entry : index.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    result.add(entry.getKey());
+                }
+            }
+            result.sort(null);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("[EmbeddedDataStore] Failed to close store: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========== Log ==========
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            writeFully(header, 0);
+            channel.force(true);
+            end = HEADER_SIZE;
+            return;
+        }
+
+        ByteBuffer header = readFully(0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            channel.close();
+            throw new IOException("Not a HyArena2 store file: " + file);
+        }
+
+        int frames = 0;
+        long pos = HEADER_SIZE;
+        while (pos + FRAME_HEADER_SIZE <= size) {
+            ByteBuffer frameHeader = readFully(pos, FRAME_HEADER_SIZE);
+            int length = frameHeader.getInt();
+            int crc = frameHeader.getInt();
+            if (length <= 0 || pos + FRAME_HEADER_SIZE + length > size) {
+                break;
+            }
+            byte[] payload = readFully(pos + FRAME_HEADER_SIZE, length).array();
+            CRC32 check = new CRC32();
+            check.update(payload);
+            if ((int) check.getValue() != crc) {
+                break;
+            }
+            apply(decode(payload, pos + FRAME_HEADER_SIZE));
+            pos += FRAME_HEADER_SIZE + length;
+            frames++;
+        }
+        if (pos < size) {
+            System.err.println("[EmbeddedDataStore] Discarding " + (size - pos) + " bytes of incomplete commit at the end of " + file.getFileName());
+            channel.truncate(pos);
+            channel.force(true);
+        }
+        end = pos;
+        System.out.println("[EmbeddedDataStore] Opened " + file.getFileName() + " (" + frames + " commits, " + countKeys() + " keys)");
+        compactIfNeeded();
+    }
+
+    private void commit(List<Op> ops) throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            List<Pointer> pointers = new ArrayList<>(ops.size());
+            ByteBuffer frame = encodeFrame(ops, end, pointers);
+            try {
+                writeFully(frame, end);
+                channel.force(false);
+            } catch (IOException e) {
+                channel.truncate(end); // drop the partial frame so the next commit starts clean
+                throw e;
+            }
+            end += frame.limit();
+
+            List<Applied> applied = new ArrayList<>(ops.size());
+            for (int i = 0; i < ops.size(); i++) {
+                Op op = ops.get(i);
+                applied.add(new Applied(op.namespace, op.key, pointers.get(i)));
+            }
+            apply(applied);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(List<Applied> ops) {
+        for (Applied op : ops) {
+            TreeMap<String, Pointer> keys = index.computeIfAbsent(op.namespace, k -> new TreeMap<>());
+            Pointer old = op.pointer != null ? keys.put(op.key, op.pointer) : keys.remove(op.key);
+            if (old != null) {
+                garbageBytes += old.length;
+            }
+        }
+    }
+
+    private static List<Applied> decode(byte[] payload, long payloadStart) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int count = in.readInt();
+        List<Applied> ops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte type = in.readByte();
+            String namespace = in.readUTF();
+            String key = in.readUTF();
+            Pointer pointer = null;
+            if (type == OP_PUT) {
+                int length = in.readInt();
+                pointer = new Pointer(payloadStart + payload.length - in.available(), length);
+                in.skipNBytes(length);
+            }
+            ops.add(new Applied(namespace, key, pointer));
+        }
+        return ops;
+    }
+
+    // ========== Compaction ==========
+
+    /**
+     * Rewrites the live values into a new file once overwritten values take up more than half of it.
+     *
+     * <p>The compacted file and its index are built next to the live ones, and the new channel is
+     * opened before the file is moved into place, so the store switches over only once nothing can
+     * fail anymore. On any error the old file, channel and index stay in use. Errors are logged, not
+     * thrown: the commit that triggered compaction is already durable.
+     */
+    private void compactIfNeeded() {
+        if (garbageBytes < COMPACT_MIN_GARBAGE || garbageBytes * 2 < end) {
+            return;
+        }
+        long before = end;
+        Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+        Map<String, TreeMap<String, Pointer>> newIndex = new HashMap<>();
+        FileChannel out = null;
+        long pos;
+        try {
+            out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            pos = writeAll(out, ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip(), 0);
+            for (Map.Entry<String, TreeMap<String, Pointer>> ns : index.entrySet()) {
+                TreeMap<String, Pointer> keys = new TreeMap<>();
+                List<Op> batch = new ArrayList<>(COMPACT_BATCH);
+                for (Map.Entry<String, Pointer> entry : ns.getValue().entrySet()) {
+                    byte[] value = readFully(entry.getValue().offset, entry.getValue().length).array();
+                    batch.add(new Op(OP_PUT, ns.getKey(), entry.getKey(), value));
+                    if (batch.size() == COMPACT_BATCH) {
+                        pos = writeCompactBatch(out, batch, pos, keys);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    pos = writeCompactBatch(out, batch, pos, keys);
+                }
+                if (!keys.isEmpty()) {
+                    newIndex.put(ns.getKey(), keys);
+                }
+            }
+            out.force(true);
+
+            // The open channel follows the file through the move
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("[EmbeddedDataStore] Compaction failed, keeping the current file: " + e.getMessage());
+            closeQuietly(out);
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // Overwritten by the next compaction
+            }
+            return;
+        }
+
+        FileChannel old = channel;
+        channel = out;
+        index.clear();
+        index.putAll(newIndex);
+        end = pos;
+        garbageBytes = 0;
+        closeQuietly(old);
+        System.out.println("[EmbeddedDataStore] Compacted " + file.getFileName() + " from " + before + " to " + end + " bytes");
+    }
+
+    /**
+     * Writes one frame of live values to the compacted file and records their new positions.
+     * @return the file position after the frame
+     */
+    private long writeCompactBatch(FileChannel out, List<Op> batch, long pos, TreeMap<String, Pointer> keys) throws IOException {
+        List<Pointer> pointers = new ArrayList<>(batch.size());
+        ByteBuffer frame = encodeFrame(batch, pos, pointers);
+        for (int i = 0; i < batch.size(); i++) {
+            keys.put(batch.get(i).key, pointers.get(i));
+        }
+        batch.clear();
+        return writeAll(out, frame, pos);
+    }
+
+    /**
+     * Encodes ops as one commit frame starting at {@code frameStart}, adding the position each
+     * put's value will have in the file to {@code pointers} (null for deletes).
+     */
+    private static ByteBuffer encodeFrame(List<Op> ops, long frameStart, List<Pointer> pointers) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        long payloadStart = frameStart + FRAME_HEADER_SIZE;
+        out.writeInt(ops.size());
+        for (Op op : ops) {
+            out.writeByte(op.type);
+            out.writeUTF(op.namespace);
+            out.writeUTF(op.key);
+            if (op.type == OP_PUT) {
+                out.writeInt(op.value.length);
+                pointers.add(new Pointer(payloadStart + out.size(), op.value.length));
+                out.write(op.value);
+            } else {
+                pointers.add(null);
+            }
+        }
+        out.flush();
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length)
+            .putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+    }
+
+    // ========== IO Helpers ==========
+
+    private byte[] readValue(Pointer pointer) throws IOException {
+        return readFully(pointer.offset, pointer.length).array();
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of " + file.getFileName());
+            }
+        }
+        return buffer.flip();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        writeAll(channel, buffer, position);
+    }
+
+    private static long writeAll(FileChannel target, ByteBuffer buffer, long position) throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            pos += target.write(buffer, pos);
+        }
+        return pos;
+    }
+
+    private static void closeQuietly(FileChannel target) {
+        if (target == null) {
+            return;
+        }
+        try {
+            target.close();
+        } catch (IOException e) {
+            System.err.println("[EmbeddedDataStore] Failed to close store file: " + e.getMessage());
+        }
+    }
+
+    private int countKeys() {
+        int count = 0;
+        for (TreeMap<String, Pointer> keys : index.values()) {
+            count += keys.size();
+        }
+        return count;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Store is closed");
+        }
+    }
+
+    private record Pointer(long offset, int length) {}
+
+    private record Op(byte type, String namespace, String key, byte[] value) {}
+
+    private record Applied(String namespace, String key, Pointer pointer) {}
+}
@@ -0,0 +1,225 @@
+package de.ragesith.hyarena2.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Stores every value as its own file, keeping the original directory layout:
+ * data/players/{uuid}.dat and speedrun/pbs/{uuid}/{arenaId}.dat. Other namespaces go to
+ * data/{namespace}/. A "/" in a key becomes a subdirectory.
+ *
+ * <p>Values written by older versions as {key}.json are still read; the .json file is removed once
+ * the value is written again.
+ *
+ * <p>Files are replaced atomically (temp file + move). {@link #putAll} writes every temp file before
+ * moving any of them, so a failed write applies nothing; a crash while moving can still leave only part
+ * of the batch applied. Use the embedded backend where that matters.
+ */
+public class FileDataStore implements DataStore {
+    private static final String EXTENSION = ".dat";
+    private static final String LEGACY_EXTENSION = ".json";
+
+    private final Path configRoot;
+
+    // Per-file locks so two writers of the same key don't share a temp file
+    private final ConcurrentHashMap<Path, Object> fileLocks = new ConcurrentHashMap<>();
+
+    public FileDataStore(Path configRoot) {
+        this.configRoot = configRoot;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public byte[] get(String namespace, String key) throws IOException {
+        Path file = file(namespace, key);
+        try {
+            return Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            try {
+                return Files.readAllBytes(legacyFile(file));
+            } catch (NoSuchFileException legacyMissing) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void put(String namespace, String key, byte[] value) throws IOException {
+        Path file = file(namespace, key);
+        Object lock = fileLocks.computeIfAbsent(file, k -> new Object());
+        synchronized (lock) {
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            writeTemp(tmp, value);
+            replace(tmp, file);
+        }
+    }
+
+    @Override
+    public void putAll(String namespace, Map<String, byte[]> values) throws IOException {
+        // Stage every value first; the batch id keeps these temp files apart from concurrent puts
+        String suffix = "." + UUID.randomUUID() + ".tmp";
+        Map<Path, Path> staged = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+                Path file = file(namespace, entry.getKey());
+                Path tmp = file.resolveSibling(file.getFileName() + suffix);
+                staged.put(file, tmp);
+                writeTemp(tmp, entry.getValue());
+            }
+        } catch (IOException e) {
+            for (Path tmp : staged.values()) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // Best effort, a leftover temp file is never read as a value
+                }
+            }
+            throw e;
+        }
+        for (Map.Entry<Path, Path> entry : staged.entrySet()) {
+            Path file = entry.getKey();
+            synchronized (fileLocks.computeIfAbsent(file, k -> new Object())) {
+                replace(entry.getValue(), file);
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsAtomicBatches() {
+        return false;
+    }
+
+    @Override
+    public boolean delete(String namespace, String key) throws IOException {
+        Path file = file(namespace, key);
+        synchronized (fileLocks.computeIfAbsent(file, k -> new Object())) {
+            boolean deleted = Files.deleteIfExists(file);
+            return Files.deleteIfExists(legacyFile(file)) || deleted;
+        }
+    }
+
+    @Override
+    public List<String> keys(String namespace, String prefix) throws IOException {
+        Path dir = namespaceDir(namespace);
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        // A key not yet rewritten since the format change can briefly have both files
+        TreeSet<String> keys = new TreeSet<>();
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                String name = file.getFileName().toString();
+                String extension;
+                if (name.endsWith(EXTENSION)) {
+                    extension = EXTENSION;
+                } else if (name.endsWith(LEGACY_EXTENSION) && !name.endsWith("_transactions" + LEGACY_EXTENSION)) {
+                    // The legacy <uuid>_transactions.json files in data/players/ are not values
+                    extension = LEGACY_EXTENSION;
+                } else {
+                    return;
+                }
+                String path = dir.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+                String key = path.substring(0, path.length() - extension.length());
+                if (key.startsWith(prefix)) {
+                    keys.add(key);
+                }
+            });
+        }
+        return new ArrayList<>(keys);
+    }
+
+    @Override
+    public List<String> namespaces() throws IOException {
+        List<String> result = new ArrayList<>();
+        if (!keys(PLAYERS, "").isEmpty()) {
+            result.add(PLAYERS);
+        }
+        if (!keys(SPEEDRUN_PBS, "").isEmpty()) {
+            result.add(SPEEDRUN_PBS);
+        }
+        Path dataDir = configRoot.resolve("data");
+        if (Files.isDirectory(dataDir)) {
+            try (Stream<Path> dirs = Files.list(dataDir)) {
+                for (Path dir : dirs.filter(Files::isDirectory).toList()) {
+                    String namespace = dir.getFileName().toString();
+                    if (isGenericNamespace(namespace) && !keys(namespace, "").isEmpty()) {
+                        result.add(namespace);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        // Nothing held open
+    }
+
+    // ========== Layout ==========
+
+    private Path namespaceDir(String namespace) {
+        return switch (namespace) {
+            case PLAYERS -> configRoot.resolve("data").resolve("players");
+            case SPEEDRUN_PBS -> configRoot.resolve("speedrun").resolve("pbs");
+            default -> configRoot.resolve("data").resolve(namespace);
+        };
+    }
+
+    /**
+     * Directories in data/ that belong to other subsystems, not to this store.
+     */
+    private static boolean isGenericNamespace(String namespace) {
+        return switch (namespace) {
+            case "players", "transactions", "stats", "store", "outbox" -> false;
+            default -> true;
+        };
+    }
+
+    private static void writeTemp(Path tmp, byte[] value) throws IOException {
+        Files.createDirectories(tmp.getParent());
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(value);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    private static void replace(Path tmp, Path file) throws IOException {
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(legacyFile(file));
+    }
+
+    private Path file(String namespace, String key) throws IOException {
+        if (key.isEmpty() || key.contains("..") || key.contains("\\") || key.startsWith("/")) {
+            throw new IOException("Invalid key: " + key);
+        }
+        return namespaceDir(namespace).resolve(key + EXTENSION);
+    }
+
+    private static Path legacyFile(Path file) {
+        String name = file.getFileName().toString();
+        return file.resolveSibling(name.substring(0, name.length() - EXTENSION.length()) + LEGACY_EXTENSION);
+    }
+}
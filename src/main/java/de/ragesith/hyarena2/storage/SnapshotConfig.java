@@ -0,0 +1,70 @@
+package de.ragesith.hyarena2.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for data snapshots.
+ * Loaded from config/snapshots.json.
+ */
+public class SnapshotConfig {
+    private boolean enabled = true;
+    private int intervalMinutes = 360;
+    private int retain = 20;
+    private long maxBytesPerSecond = 4L * 1024 * 1024;
+    private List<String> roots = new ArrayList<>(List.of("data", "speedrun/pbs"));
+
+    /**
+     * Whether snapshots are taken on a schedule. Manual snapshots work either way.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getIntervalMinutes() {
+        return intervalMinutes;
+    }
+
+    public void setIntervalMinutes(int intervalMinutes) {
+        this.intervalMinutes = intervalMinutes;
+    }
+
+    /**
+     * Number of snapshots to keep; older ones are deleted after each new snapshot.
+     */
+    public int getRetain() {
+        return retain;
+    }
+
+    public void setRetain(int retain) {
+        this.retain = retain;
+    }
+
+    /**
+     * Disk read/write budget for snapshotting and verifying, so a snapshot during peak hours
+     * doesn't compete with the live server. 0 = unlimited.
+     */
+    public long getMaxBytesPerSecond() {
+        return maxBytesPerSecond;
+    }
+
+    public void setMaxBytesPerSecond(long maxBytesPerSecond) {
+        this.maxBytesPerSecond = maxBytesPerSecond;
+    }
+
+    /**
+     * Directories to snapshot, relative to the config folder.
+     */
+    public List<String> getRoots() {
+        if (roots == null) roots = new ArrayList<>();
+        return roots;
+    }
+
+    public void setRoots(List<String> roots) {
+        this.roots = roots;
+    }
+}
@@ -0,0 +1,674 @@
+package de.ragesith.hyarena2.storage;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import de.ragesith.hyarena2.config.ConfigManager;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Takes incremental, deduplicated snapshots of the plugin's data directories (config/snapshots/).
+ *
+ * <p>Files are split into {@link #CHUNK_SIZE} chunks, and each distinct chunk is stored once,
+ * deflate-compressed, under its SHA-256 (objects/ab/abcd...). A snapshot is a manifest listing every
+ * file's path, content hash and chunks (manifests/{id}.json.gz), so unchanged files cost nothing in
+ * later snapshots, and a large file that changes on every write (the data store, append-only logs)
+ * only adds the chunks that changed. A file whose size and modification time match the previous
+ * snapshot is not even read again. All snapshot and
+ * verify I/O runs on one low-priority background thread, throttled to
+ * {@link SnapshotConfig#getMaxBytesPerSecond()}.
+ *
+ * <p>Restores never touch live data while the server runs: {@link #scheduleRestore} verifies a
+ * snapshot and marks it, and {@link #applyPendingRestore} unpacks it on the next startup, before
+ * any data is loaded.
+ */
+public class SnapshotManager {
+    private static final String CONFIG_FILE = "snapshots.json";
+    private static final String PENDING_RESTORE_FILE = "restore.pending";
+    private static final String MANIFEST_EXTENSION = ".json.gz";
+    private static final DateTimeFormatter ID_FORMAT =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final Pattern ID_PATTERN = Pattern.compile("[0-9A-Za-z-]+");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    static final int CHUNK_SIZE = 1024 * 1024;
+    private static final Gson GSON = new Gson();
+
+    private final Path configRoot;
+    private final Path snapshotDir;
+    private final Path objectsDir;
+    private final Path manifestsDir;
+    private final Path incomingDir;
+    private final SnapshotConfig config;
+    private final ExecutorService worker;
+
+    // I/O budget of the current operation (only touched on the worker thread, or at startup)
+    private boolean throttled;
+    private long throttleStartNanos;
+    private long throttledBytes;
+
+    public SnapshotManager(ConfigManager configManager) {
+        this.configRoot = configManager.getConfigRoot();
+        this.snapshotDir = configRoot.resolve("snapshots");
+        this.objectsDir = snapshotDir.resolve("objects");
+        this.manifestsDir = snapshotDir.resolve("manifests");
+        this.incomingDir = snapshotDir.resolve("incoming");
+
+        SnapshotConfig loaded = configManager.loadConfig(CONFIG_FILE, SnapshotConfig.class);
+        if (loaded == null) {
+            loaded = new SnapshotConfig();
+            configManager.saveConfig(CONFIG_FILE, loaded);
+            System.out.println("[HyArena2] Created default " + CONFIG_FILE);
+        }
+        this.config = loaded;
+
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "HyArena2-Snapshot");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    public SnapshotConfig getConfig() {
+        return config;
+    }
+
+    // ========== Commands ==========
+
+    /**
+     * Takes a snapshot in the background.
+     */
+    public CompletableFuture<SnapshotManifest> snapshotAsync() {
+        return submit(() -> takeSnapshot(true, true));
+    }
+
+    /**
+     * Checks in the background that every file of a snapshot can be restored.
+     * @return one message per problem; empty if the snapshot is intact
+     */
+    public CompletableFuture<List<String>> verifyAsync(String id) {
+        return submit(() -> {
+            resetThrottle(true);
+            return verify(readManifest(id));
+        });
+    }
+
+    /**
+     * Verifies a snapshot and marks it to be restored on the next startup.
+     * Fails if the snapshot doesn't exist or doesn't verify.
+     */
+    public CompletableFuture<SnapshotManifest> scheduleRestore(String id) {
+        return submit(() -> {
+            resetThrottle(true);
+            SnapshotManifest manifest = readManifest(id);
+            List<String> problems = verify(manifest);
+            if (!problems.isEmpty()) {
+                throw new IOException("Snapshot " + id + " failed verification (" + problems.size()
+                    + " problem(s), first: " + problems.get(0) + ")");
+            }
+            Files.writeString(snapshotDir.resolve(PENDING_RESTORE_FILE), id, StandardCharsets.UTF_8);
+            return manifest;
+        });
+    }
+
+    /**
+     * Cancels a restore scheduled with {@link #scheduleRestore}.
+     * @return true if one was pending
+     */
+    public boolean cancelRestore() throws IOException {
+        return Files.deleteIfExists(snapshotDir.resolve(PENDING_RESTORE_FILE));
+    }
+
+    /**
+     * Id of the snapshot that will be restored on the next startup, or null.
+     */
+    public String getPendingRestore() {
+        try {
+            String id = Files.readString(snapshotDir.resolve(PENDING_RESTORE_FILE), StandardCharsets.UTF_8).trim();
+            return id.isEmpty() ? null : id;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * All snapshots, oldest first.
+     */
+    public List<SnapshotManifest> list() {
+        List<SnapshotManifest> manifests = new ArrayList<>();
+        for (String id : manifestIds()) {
+            try {
+                manifests.add(readManifest(id));
+            } catch (IOException e) {
+                // Pruned while listing, or unreadable
+                System.err.println("[SnapshotManager] Skipping snapshot " + id + ": " + e.getMessage());
+            }
+        }
+        return manifests;
+    }
+
+    public void shutdown() {
+        // An interrupted snapshot leaves only files in incoming/, which the next one clears
+        worker.shutdownNow();
+    }
+
+    // ========== Startup Restore ==========
+
+    /**
+     * Restores the snapshot marked by {@link #scheduleRestore}, if any. Must run before any data is
+     * loaded. The current data is snapshotted first, so the restore can itself be undone.
+     */
+    public void applyPendingRestore() {
+        String id = getPendingRestore();
+        if (id == null) {
+            return;
+        }
+        try {
+            SnapshotManifest manifest = readManifest(id);
+            // Not pruned: that could collect objects of the snapshot being restored
+            SnapshotManifest before = takeSnapshot(false, false);
+            System.out.println("[SnapshotManager] Saved current data as snapshot " + before.getId() + " before restoring " + id);
+            restore(manifest);
+            System.out.println("[SnapshotManager] Restored snapshot " + id + " (" + manifest.getFiles().size() + " files)");
+        } catch (IOException e) {
+            System.err.println("[SnapshotManager] Failed to restore snapshot " + id + ": " + e.getMessage());
+        } finally {
+            try {
+                cancelRestore();
+            } catch (IOException e) {
+                System.err.println("[SnapshotManager] Failed to clear pending restore: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Unpacks every file into a staging directory first, checking each against its hash, and only
+     * then replaces the live files. A missing or corrupt object aborts before live data is touched.
+     */
+    private void restore(SnapshotManifest manifest) throws IOException {
+        Path staging = snapshotDir.resolve("restore-staging");
+        deleteRecursively(staging);
+        Files.createDirectories(staging);
+        resetThrottle(false);
+
+        Set<Path> restored = new HashSet<>();
+        for (SnapshotManifest.FileEntry entry : manifest.getFiles()) {
+            Path target = resolveInside(staging, entry.getPath());
+            Files.createDirectories(target.getParent());
+            MessageDigest digest = sha256();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(target), digest)) {
+                for (String chunk : entry.getChunks()) {
+                    if (!inflate(objectFile(chunk), out).equals(chunk)) {
+                        throw new IOException("Content of " + entry.getPath() + " does not match its hash");
+                    }
+                }
+            }
+            if (!HexFormat.of().formatHex(digest.digest()).equals(entry.getHash())) {
+                throw new IOException("Content of " + entry.getPath() + " does not match its hash");
+            }
+            restored.add(resolveInside(configRoot, entry.getPath()));
+        }
+
+        // Files created after the snapshot would otherwise survive the restore
+        for (String root : manifest.getRoots()) {
+            Path dir = resolveInside(configRoot, root);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path file : files.filter(Files::isRegularFile).toList()) {
+                    if (!restored.contains(file.normalize()) && !file.startsWith(snapshotDir)) {
+                        Files.delete(file);
+                    }
+                }
+            }
+        }
+        for (SnapshotManifest.FileEntry entry : manifest.getFiles()) {
+            Path live = resolveInside(configRoot, entry.getPath());
+            Files.createDirectories(live.getParent());
+            Files.move(resolveInside(staging, entry.getPath()), live,
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        deleteRecursively(staging);
+    }
+
+    // ========== Snapshot ==========
+
+    private SnapshotManifest takeSnapshot(boolean throttle, boolean prune) throws IOException {
+        long startMs = System.currentTimeMillis();
+        resetThrottle(throttle);
+        deleteRecursively(incomingDir);
+        Files.createDirectories(incomingDir);
+        Files.createDirectories(manifestsDir);
+
+        // Unchanged files are taken from the previous snapshot without reading them
+        Map<String, SnapshotManifest.FileEntry> previous = new HashMap<>();
+        SnapshotManifest latest = latest();
+        if (latest != null) {
+            for (SnapshotManifest.FileEntry entry : latest.getFiles()) {
+                previous.put(entry.getPath(), entry);
+            }
+        }
+
+        List<String> roots = new ArrayList<>(config.getRoots());
+        List<SnapshotManifest.FileEntry> files = new ArrayList<>();
+        long totalBytes = 0;
+        long addedBytes = 0;
+        for (String root : roots) {
+            Path dir = resolveInside(configRoot, root);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            List<Path> paths;
+            try (Stream<Path> walk = Files.walk(dir)) {
+                // A root containing the snapshot folder must not snapshot its own objects
+                paths = walk.filter(Files::isRegularFile).filter(file -> !file.startsWith(snapshotDir)).sorted().toList();
+            }
+            for (Path file : paths) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp") || name.endsWith(".compact")) {
+                    continue;
+                }
+                String path = configRoot.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue; // deleted since the walk
+                }
+                long modified = attributes.lastModifiedTime().toMillis();
+
+                SnapshotManifest.FileEntry entry = previous.get(path);
+                if (entry == null || entry.getSize() != attributes.size() || entry.getModified() != modified
+                        || !entry.getChunks().stream().allMatch(chunk -> Files.exists(objectFile(chunk)))) {
+                    StoredFile stored = store(file);
+                    if (stored == null) {
+                        continue;
+                    }
+                    entry = new SnapshotManifest.FileEntry(path, stored.hash(), stored.chunks(), stored.size(), modified);
+                    addedBytes += stored.addedBytes();
+                }
+                files.add(entry);
+                totalBytes += entry.getSize();
+            }
+        }
+
+        SnapshotManifest manifest = new SnapshotManifest(newId(), System.currentTimeMillis(), roots, files, totalBytes, addedBytes);
+        writeManifest(manifest);
+        deleteRecursively(incomingDir);
+        System.out.println("[SnapshotManager] Snapshot " + manifest.getId() + ": " + files.size() + " files, "
+            + totalBytes + " bytes, " + addedBytes + " bytes added in " + (System.currentTimeMillis() - startMs) + "ms");
+        if (prune) {
+            prune();
+        }
+        return manifest;
+    }
+
+    private record StoredFile(String hash, List<String> chunks, long size, long addedBytes) {}
+
+    /**
+     * Stores a file as {@link #CHUNK_SIZE} chunks, compressing only chunks that aren't stored yet.
+     * Returns null if the file disappeared.
+     */
+    private StoredFile store(Path file) throws IOException {
+        MessageDigest fileDigest = sha256();
+        List<String> chunks = new ArrayList<>();
+        long size = 0;
+        long added = 0;
+        byte[] chunk = new byte[CHUNK_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int length;
+            do {
+                length = in.readNBytes(chunk, 0, CHUNK_SIZE);
+                throttle(length);
+                fileDigest.update(chunk, 0, length);
+                size += length;
+
+                MessageDigest chunkDigest = sha256();
+                chunkDigest.update(chunk, 0, length);
+                String hash = HexFormat.of().formatHex(chunkDigest.digest());
+                if (!Files.exists(objectFile(hash))) {
+                    added += storeChunk(hash, chunk, length);
+                }
+                chunks.add(hash);
+            } while (length == CHUNK_SIZE); // an empty file is still one (empty) chunk
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        return new StoredFile(HexFormat.of().formatHex(fileDigest.digest()), chunks, size, added);
+    }
+
+    /**
+     * Compresses one chunk into the object store.
+     * @return compressed size
+     */
+    private long storeChunk(String hash, byte[] chunk, int length) throws IOException {
+        Path tmp = incomingDir.resolve(UUID.randomUUID() + ".tmp");
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(tmp), deflater, BUFFER_SIZE)) {
+            out.write(chunk, 0, length);
+        } finally {
+            deflater.end();
+        }
+        long compressed = Files.size(tmp);
+        throttle(compressed);
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Path object = objectFile(hash);
+        Files.createDirectories(object.getParent());
+        Files.move(tmp, object, StandardCopyOption.ATOMIC_MOVE);
+        return compressed;
+    }
+
+    /**
+     * Deletes snapshots beyond {@link SnapshotConfig#getRetain()}, oldest first, then every object
+     * no remaining snapshot refers to.
+     */
+    private void prune() throws IOException {
+        List<String> ids = manifestIds();
+        int excess = ids.size() - Math.max(1, config.getRetain());
+        if (excess <= 0) {
+            return;
+        }
+        for (String id : ids.subList(0, excess)) {
+            Files.deleteIfExists(manifestFile(id));
+        }
+
+        Set<String> referenced = new HashSet<>();
+        for (String id : ids.subList(excess, ids.size())) {
+            // Throws if a manifest is unreadable, so its objects are never collected
+            for (SnapshotManifest.FileEntry entry : readManifest(id).getFiles()) {
+                referenced.addAll(entry.getChunks());
+            }
+        }
+        int deleted = 0;
+        try (Stream<Path> objects = Files.walk(objectsDir)) {
+            for (Path object : objects.filter(Files::isRegularFile).toList()) {
+                if (!referenced.contains(object.getFileName().toString())) {
+                    Files.delete(object);
+                    deleted++;
+                }
+            }
+        }
+        System.out.println("[SnapshotManager] Pruned " + excess + " old snapshot(s), " + deleted + " unreferenced object(s)");
+    }
+
+    // ========== Verify ==========
+
+    private List<String> verify(SnapshotManifest manifest) {
+        List<String> problems = new ArrayList<>();
+        // Each distinct chunk is checked once; hash -> uncompressed size
+        Map<String, Long> verified = new HashMap<>();
+        for (SnapshotManifest.FileEntry entry : manifest.getFiles()) {
+            long size = 0;
+            String problem = null;
+            for (String chunk : entry.getChunks()) {
+                Long chunkSize = verified.get(chunk);
+                if (chunkSize == null) {
+                    problem = verifyChunk(chunk, verified);
+                    if (problem != null) {
+                        break;
+                    }
+                    chunkSize = verified.get(chunk);
+                }
+                size += chunkSize;
+            }
+            if (problem != null) {
+                problems.add(entry.getPath() + ": " + problem);
+            } else if (size != entry.getSize()) {
+                problems.add(entry.getPath() + ": expected " + entry.getSize() + " bytes, found " + size);
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Checks one stored chunk against its hash, recording its size in {@code verified}.
+     * @return a problem description, or null if the chunk is intact
+     */
+    private String verifyChunk(String chunk, Map<String, Long> verified) {
+        Path object = objectFile(chunk);
+        if (!Files.exists(object)) {
+            return "content missing";
+        }
+        CountingOutputStream counter = new CountingOutputStream();
+        try {
+            if (!inflate(object, counter).equals(chunk)) {
+                return "content corrupt";
+            }
+        } catch (IOException e) {
+            return "content unreadable (" + e.getMessage() + ")";
+        }
+        verified.put(chunk, counter.count);
+        return null;
+    }
+
+    /**
+     * Decompresses an object into a stream.
+     * @return SHA-256 of the decompressed content
+     */
+    private String inflate(Path object, OutputStream out) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new InflaterInputStream(new BufferedInputStream(Files.newInputStream(object), BUFFER_SIZE))) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                throttle(read);
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    // ========== Manifests ==========
+
+    private List<String> manifestIds() {
+        if (!Files.isDirectory(manifestsDir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(manifestsDir)) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(MANIFEST_EXTENSION))
+                .map(name -> name.substring(0, name.length() - MANIFEST_EXTENSION.length()))
+                .sorted(Comparator.naturalOrder())
+                .collect(Collectors.toCollection(ArrayList::new));
+        } catch (IOException e) {
+            System.err.println("[SnapshotManager] Failed to list snapshots: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private SnapshotManifest latest() {
+        List<String> ids = manifestIds();
+        for (int i = ids.size() - 1; i >= 0; i--) {
+            try {
+                return readManifest(ids.get(i));
+            } catch (IOException e) {
+                System.err.println("[SnapshotManager] Skipping unreadable snapshot " + ids.get(i) + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private SnapshotManifest readManifest(String id) throws IOException {
+        if (id == null || !ID_PATTERN.matcher(id).matches()) {
+            throw new IOException("Invalid snapshot id: " + id);
+        }
+        try (Reader reader = new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(manifestFile(id))), StandardCharsets.UTF_8)) {
+            SnapshotManifest manifest = GSON.fromJson(reader, SnapshotManifest.class);
+            if (manifest == null) {
+                throw new IOException("Empty manifest");
+            }
+            return manifest;
+        } catch (NoSuchFileException e) {
+            throw new IOException("No snapshot " + id);
+        } catch (JsonParseException e) {
+            throw new IOException("Corrupt manifest: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeManifest(SnapshotManifest manifest) throws IOException {
+        Path file = manifestFile(manifest.getId());
+        Path tmp = incomingDir.resolve(manifest.getId() + MANIFEST_EXTENSION + ".tmp");
+        try (Writer writer = new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8)) {
+            GSON.toJson(manifest, writer);
+        }
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private String newId() {
+        String base = ID_FORMAT.format(Instant.now());
+        String id = base;
+        for (int n = 2; Files.exists(manifestFile(id)); n++) {
+            id = base + "-" + n;
+        }
+        return id;
+    }
+
+    // ========== Helpers ==========
+
+    private Path manifestFile(String id) {
+        return manifestsDir.resolve(id + MANIFEST_EXTENSION);
+    }
+
+    private Path objectFile(String hash) {
+        return objectsDir.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * Resolves a relative path, refusing anything that would land outside {@code base}.
+     */
+    private static Path resolveInside(Path base, String relative) throws IOException {
+        Path resolved = base.resolve(relative).normalize();
+        if (!resolved.startsWith(base.normalize())) {
+            throw new IOException("Path outside of " + base + ": " + relative);
+        }
+        return resolved;
+    }
+
+    private void resetThrottle(boolean enabled) {
+        throttled = enabled && config.getMaxBytesPerSecond() > 0;
+        throttleStartNanos = System.nanoTime();
+        throttledBytes = 0;
+    }
+
+    /**
+     * Sleeps as long as needed to keep the current operation within its byte budget.
+     */
+    private void throttle(long bytes) throws IOException {
+        if (!throttled) {
+            return;
+        }
+        throttledBytes += bytes;
+        long dueNanos = throttledBytes * 1_000_000_000L / config.getMaxBytesPerSecond();
+        long aheadMs = (dueNanos - (System.nanoTime() - throttleStartNanos)) / 1_000_000;
+        if (aheadMs > 0) {
+            try {
+                Thread.sleep(aheadMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Snapshot interrupted");
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            worker.execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package de.ragesith.hyarena2.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One snapshot: the files it contains and the content hash of each.
+ * Stored as snapshots/manifests/{id}.json.gz.
+ */
+public class SnapshotManifest {
+    private String id;
+    private long createdAt;
+    private List<String> roots;
+    private List<FileEntry> files;
+    private long totalBytes;
+    private long addedBytes;
+
+    public SnapshotManifest() {}
+
+    public SnapshotManifest(String id, long createdAt, List<String> roots, List<FileEntry> files,
+                            long totalBytes, long addedBytes) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.roots = roots;
+        this.files = files;
+        this.totalBytes = totalBytes;
+        this.addedBytes = addedBytes;
+    }
+
+    public String getId() { return id; }
+    public long getCreatedAt() { return createdAt; }
+
+    /**
+     * Directories the snapshot covers, relative to the config folder.
+     */
+    public List<String> getRoots() {
+        if (roots == null) roots = new ArrayList<>();
+        return roots;
+    }
+
+    public List<FileEntry> getFiles() {
+        if (files == null) files = new ArrayList<>();
+        return files;
+    }
+
+    /**
+     * Uncompressed size of all files in the snapshot.
+     */
+    public long getTotalBytes() { return totalBytes; }
+
+    /**
+     * Compressed size of the content this snapshot added (content already stored by an earlier
+     * snapshot is not counted).
+     */
+    public long getAddedBytes() { return addedBytes; }
+
+    /**
+     * A file in a snapshot. The path is relative to the config folder, with "/" separators.
+     * Files larger than one chunk are stored as several objects, listed in order in {@code chunks};
+     * a single-chunk file is the one object named by its hash.
+     */
+    public static class FileEntry {
+        private String path;
+        private String hash;
+        private List<String> chunks;
+        private long size;
+        private long modified;
+
+        public FileEntry() {}
+
+        public FileEntry(String path, String hash, List<String> chunks, long size, long modified) {
+            this.path = path;
+            this.hash = hash;
+            this.chunks = chunks.size() > 1 ? chunks : null;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        public String getPath() { return path; }
+
+        /**
+         * SHA-256 of the whole file.
+         */
+        public String getHash() { return hash; }
+
+        /**
+         * Hashes of the objects holding the file's content, in order.
+         */
+        public List<String> getChunks() {
+            return chunks != null ? chunks : List.of(hash);
+        }
+
+        public long getSize() { return size; }
+        public long getModified() { return modified; }
+    }
+}
@@ -0,0 +1,34 @@
+package de.ragesith.hyarena2.storage;
+
+/**
+ * Configuration for player data storage.
+ * Loaded from config/storage.json.
+ */
+public class StorageConfig {
+    private String backend = "file";
+    private String migrateFrom = "";
+
+    /**
+     * Backend to store player data in: "file" (one file per value) or "embedded"
+     * (a single transactional store file in data/store/).
+     */
+    public String getBackend() {
+        return backend;
+    }
+
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
+    /**
+     * Backend to copy all data from on the next startup, before anything is loaded.
+     * Cleared once the migration has succeeded. Empty = no migration.
+     */
+    public String getMigrateFrom() {
+        return migrateFrom;
+    }
+
+    public void setMigrateFrom(String migrateFrom) {
+        this.migrateFrom = migrateFrom;
+    }
+}
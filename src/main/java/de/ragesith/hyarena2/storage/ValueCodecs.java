@@ -0,0 +1,42 @@
+package de.ragesith.hyarena2.storage;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Helpers shared by the codecs that turn managers' data into {@link DataStore} values.
+ */
+public final class ValueCodecs {
+
+    private ValueCodecs() {}
+
+    /**
+     * Writes a string that may be null (a presence flag, then the string).
+     */
+    public static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    public static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Checks if a value is a JSON object written by an older version rather than binary.
+     */
+    public static boolean isJson(byte[] value) {
+        for (byte b : value) {
+            if (b == '{') {
+                return true;
+            }
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return false;
+            }
+        }
+        return false;
+    }
+}
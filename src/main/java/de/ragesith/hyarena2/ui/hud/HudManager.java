@@ -7,6 +7,7 @@ import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.Universe;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import de.ragesith.hyarena2.arena.CombatSummary;
 import de.ragesith.hyarena2.arena.Match;
 import de.ragesith.hyarena2.arena.MatchManager;
 import de.ragesith.hyarena2.queue.Matchmaker;
@@ -16,6 +17,7 @@ import de.ragesith.hyarena2.ui.hyml.HyMLPage;
 import de.ragesith.hyarena2.ui.hyml.HyMLParser;
 import de.ragesith.hyarena2.gamemode.SpeedRunGameMode;
 import de.ragesith.hyarena2.ui.page.CloseablePage;
+import de.ragesith.hyarena2.ui.page.DamageBreakdownPage;
 import de.ragesith.hyarena2.ui.page.SpeedRunResultsPage;
 
 import java.nio.file.Path;
@@ -344,6 +346,38 @@ public class HudManager {
         }
     }
 
+    /**
+     * Shows the post-match damage breakdown page for a player.
+     * @return true if the page was opened (false if the match has no breakdown for this player)
+     */
+    public boolean showDamageBreakdown(UUID playerUuid, Match match) {
+        CombatSummary summary = match.getCombatSummary();
+        CombatSummary.Entry breakdown = summary != null ? summary.get(playerUuid) : null;
+        if (breakdown == null) return false;
+
+        PlayerRef playerRef = Universe.get().getPlayer(playerUuid);
+        if (playerRef == null) return false;
+
+        Ref<EntityStore> ref = playerRef.getReference();
+        if (ref == null) return false;
+
+        Store<EntityStore> store = ref.getStore();
+        if (store == null) return false;
+
+        Player player = store.getComponent(ref, Player.getComponentType());
+        if (player == null) return false;
+
+        DamageBreakdownPage page = new DamageBreakdownPage(playerRef, playerUuid, breakdown, this);
+
+        try {
+            player.getPageManager().openCustomPage(ref, store, page);
+            return true;
+        } catch (Exception e) {
+            System.err.println("[HudManager] Failed to show DamageBreakdownPage: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Registers an active page for a player.
      * If there's an existing page, it will be shut down first.
@@ -40,6 +40,9 @@ public class VictoryHud extends InteractiveCustomUIPage<VictoryHud.PageEventData
     private final String resultSubtitle;
     private final HudManager hudManager;
 
+    // Set when switching to the damage breakdown so onDismiss doesn't show the LobbyHud early
+    private boolean openingBreakdown;
+
     public VictoryHud(PlayerRef playerRef, UUID playerUuid, Match match, boolean isWinner,
                       String resultTitle, String resultSubtitle, HudManager hudManager) {
         super(playerRef, CustomPageLifetime.CanDismiss, PageEventData.CODEC);
@@ -105,6 +108,18 @@ public class VictoryHud extends InteractiveCustomUIPage<VictoryHud.PageEventData
             cmd.set("#ScoreValue.Text", target > 0 ? score + "/" + target : String.valueOf(score));
         }
 
+        // Damage breakdown (only when the match produced a combat summary for this player)
+        if (match.getCombatSummary() != null && match.getCombatSummary().get(playerUuid) != null) {
+            events.addEventBinding(
+                CustomUIEventBindingType.Activating,
+                "#BreakdownButton",
+                EventData.of("Action", "breakdown"),
+                false
+            );
+        } else {
+            cmd.set("#BreakdownButton.Visible", false);
+        }
+
         // Close button event binding
         events.addEventBinding(
             CustomUIEventBindingType.Activating,
@@ -128,13 +143,22 @@ public class VictoryHud extends InteractiveCustomUIPage<VictoryHud.PageEventData
             if (player != null) {
                 player.getPageManager().setPage(ref, store, Page.None);
             }
+        } else if ("breakdown".equals(data.action)) {
+            // Breakdown page takes over dismissal (and the LobbyHud) from here
+            openingBreakdown = true;
+            if (!hudManager.showDamageBreakdown(playerUuid, match)) {
+                openingBreakdown = false;
+            }
         }
     }
 
     @Override
     public void onDismiss(@Nonnull Ref<EntityStore> ref, @Nonnull Store<EntityStore> store) {
-        // Player dismissed the page (ESC or close button) — show LobbyHud
         hudManager.unregisterPage(playerUuid, this);
+        if (openingBreakdown) {
+            return;
+        }
+        // Player dismissed the page (ESC or close button) — show LobbyHud
         hudManager.showLobbyHud(playerUuid);
     }
 
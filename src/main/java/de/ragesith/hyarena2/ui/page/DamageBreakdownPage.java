@@ -0,0 +1,120 @@
+package de.ragesith.hyarena2.ui.page;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.protocol.packets.interface_.CustomPageLifetime;
+import com.hypixel.hytale.protocol.packets.interface_.CustomUIEventBindingType;
+import com.hypixel.hytale.protocol.packets.interface_.Page;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.entity.entities.player.pages.InteractiveCustomUIPage;
+import com.hypixel.hytale.server.core.ui.builder.EventData;
+import com.hypixel.hytale.server.core.ui.builder.UICommandBuilder;
+import com.hypixel.hytale.server.core.ui.builder.UIEventBuilder;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import de.ragesith.hyarena2.arena.CombatLog;
+import de.ragesith.hyarena2.arena.CombatSummary;
+import de.ragesith.hyarena2.ui.hud.HudManager;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Post-match damage breakdown opened from the victory screen.
+ * Shows hit totals, damage by attack type, and damage exchanged with each opponent
+ * (with a note when very long matches left early hits out of the opponent list).
+ * Persists after teleport — player dismisses manually.
+ */
+public class DamageBreakdownPage extends InteractiveCustomUIPage<DamageBreakdownPage.PageEventData> implements CloseablePage {
+
+    private static final int MAX_OPPONENT_ROWS = 6;
+
+    private final UUID playerUuid;
+    private final CombatSummary.Entry breakdown;
+    private final HudManager hudManager;
+
+    public DamageBreakdownPage(PlayerRef playerRef, UUID playerUuid, CombatSummary.Entry breakdown,
+                               HudManager hudManager) {
+        super(playerRef, CustomPageLifetime.CanDismiss, PageEventData.CODEC);
+        this.playerUuid = playerUuid;
+        this.breakdown = breakdown;
+        this.hudManager = hudManager;
+    }
+
+    @Override
+    public void build(@Nonnull Ref<EntityStore> ref, @Nonnull UICommandBuilder cmd,
+                      @Nonnull UIEventBuilder events, @Nonnull Store<EntityStore> store) {
+        cmd.append("Pages/DamageBreakdownPage.ui");
+
+        // Totals
+        cmd.set("#HitsLandedValue.Text", String.valueOf(breakdown.getHitsLanded()));
+        cmd.set("#HitsTakenValue.Text", String.valueOf(breakdown.getHitsTaken()));
+        cmd.set("#HitsBlockedValue.Text", String.valueOf(breakdown.getHitsBlocked()));
+        cmd.set("#BiggestHitValue.Text", String.valueOf(Math.round(breakdown.getBiggestHit())));
+        cmd.set("#MeleeDamageValue.Text", String.valueOf((int) breakdown.getDamageDealt(CombatLog.TYPE_MELEE)));
+        cmd.set("#RangedDamageValue.Text", String.valueOf((int) breakdown.getDamageDealt(CombatLog.TYPE_RANGED)));
+        cmd.set("#EnvironmentDamageValue.Text", String.valueOf((int) breakdown.getEnvironmentDamageTaken()));
+
+        // Opponents (already sorted by damage exchanged)
+        List<CombatSummary.Opponent> opponents = breakdown.getOpponents();
+        int rows = Math.min(opponents.size(), MAX_OPPONENT_ROWS);
+        for (int i = 0; i < rows; i++) {
+            CombatSummary.Opponent opponent = opponents.get(i);
+            cmd.set("#Opp" + i + ".Visible", true);
+            cmd.set("#OppName" + i + ".Text", opponent.getName());
+            cmd.set("#OppDealt" + i + ".Text", (int) opponent.getDamageDealt() + " (" + opponent.getHitsDealt() + ")");
+            cmd.set("#OppTaken" + i + ".Text", (int) opponent.getDamageTaken() + " (" + opponent.getHitsTaken() + ")");
+        }
+        if (breakdown.getDroppedHits() > 0) {
+            cmd.set("#DroppedHitsNote.Visible", true);
+            cmd.set("#DroppedHitsNote.Text", "Opponent totals exclude the first " + breakdown.getDroppedHits() + " hits of the match");
+        }
+
+        // Close button
+        events.addEventBinding(
+            CustomUIEventBindingType.Activating,
+            "#CloseButton",
+            EventData.of("Action", "close"),
+            false
+        );
+
+        hudManager.registerPage(playerUuid, this);
+    }
+
+    @Override
+    public void handleDataEvent(@Nonnull Ref<EntityStore> ref, @Nonnull Store<EntityStore> store, PageEventData data) {
+        if (data == null || data.action == null) return;
+
+        if ("close".equals(data.action)) {
+            Player player = store.getComponent(ref, Player.getComponentType());
+            if (player != null) {
+                player.getPageManager().setPage(ref, store, Page.None);
+            }
+        }
+    }
+
+    @Override
+    public void onDismiss(@Nonnull Ref<EntityStore> ref, @Nonnull Store<EntityStore> store) {
+        hudManager.unregisterPage(playerUuid, this);
+        hudManager.showLobbyHud(playerUuid);
+    }
+
+    @Override
+    public void shutdown() {
+        hudManager.unregisterPage(playerUuid, this);
+    }
+
+    public static class PageEventData {
+        public String action;
+
+        public static final BuilderCodec<PageEventData> CODEC =
+            BuilderCodec.builder(PageEventData.class, PageEventData::new)
+                .append(new KeyedCodec<>("Action", Codec.STRING),
+                    (d, v) -> d.action = v, d -> d.action).add()
+                .build();
+    }
+}
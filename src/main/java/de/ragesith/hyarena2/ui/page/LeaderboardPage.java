@@ -208,7 +208,17 @@ public class LeaderboardPage extends InteractiveCustomUIPage<LeaderboardPage.Pag
             return;
         }
 
-        cmd.set("#TotalPlayers.Text", result.getTotal() + " players");
+        // Own rank comes from the local ranking index, so only show it next to local pages
+        int ownRank = statsManager.getConfig().isLocalLeaderboards()
+            ? statsManager.getPlayerRank(playerUuid, scopeEntries.get(selectedScopeIndex).id, currentSort) : 0;
+        cmd.set("#TotalPlayers.Text", result.getTotal() + " players" + (ownRank > 0 ? " - you are #" + ownRank : ""));
+
+        // Cached page served while the web API is down
+        if (result.isStale()) {
+            long minutes = Math.max(1, (System.currentTimeMillis() - result.getStaleSince()) / 60_000);
+            cmd.set("#StaleLabel.Text", "Web stats unavailable - showing data from " + minutes + " min ago");
+            cmd.set("#StaleLabel.Visible", true);
+        }
 
         List<LeaderboardEntry> entries = result.getEntries();
         for (int i = 0; i < entries.size(); i++) {
@@ -26,7 +26,6 @@ import de.ragesith.hyarena2.ui.hud.HudManager;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -88,10 +87,7 @@ public class ShopPage extends InteractiveCustomUIPage<ShopPage.PageEventData> im
 
         // Build category entries: sorted real categories + "My Items"
         this.categoryEntries = new ArrayList<>();
-        List<ShopCategory> sorted = new ArrayList<>(shopManager.getCategories());
-        sorted.sort(Comparator.comparingInt(ShopCategory::getSort)
-            .thenComparing(ShopCategory::getDisplayName));
-        for (ShopCategory cat : sorted) {
+        for (ShopCategory cat : shopManager.getSortedCategories()) {
             categoryEntries.add(new CategoryEntry(cat.getId(), cat.getDisplayName(), false));
         }
         categoryEntries.add(new CategoryEntry("MY_ITEMS", "My Items", true));
@@ -179,9 +175,7 @@ public class ShopPage extends InteractiveCustomUIPage<ShopPage.PageEventData> im
      * Returns the number of card pair rows added.
      */
     private int buildCategoryGrid(UICommandBuilder cmd, UIEventBuilder events, String categoryId, int playerAP) {
-        List<ShopItem> items = new ArrayList<>(shopManager.getItemsByCategory(categoryId));
-        items.sort(Comparator.comparingInt(ShopItem::getSort)
-            .thenComparing(ShopItem::getDisplayName));
+        List<ShopItem> items = shopManager.getSortedItemsByCategory(categoryId);
         return buildCardPairs(cmd, events, items, playerAP, false, 0);
     }
 
@@ -195,19 +189,12 @@ public class ShopPage extends InteractiveCustomUIPage<ShopPage.PageEventData> im
             return 0;
         }
 
-        List<String> purchasedIds = data.getPurchasedItems();
-
-        // Sort categories by sort then alpha
-        List<ShopCategory> sortedCats = new ArrayList<>(shopManager.getCategories());
-        sortedCats.sort(Comparator.comparingInt(ShopCategory::getSort)
-            .thenComparing(ShopCategory::getDisplayName));
-
         int gridChildIndex = 0;
-        for (ShopCategory cat : sortedCats) {
-            // Filter to owned one-time items in this category
+        for (ShopCategory cat : shopManager.getSortedCategories()) {
+            // Filter to owned one-time items in this category (already in display order)
             List<ShopItem> ownedItems = new ArrayList<>();
-            for (ShopItem item : cat.getItems()) {
-                if (item.isOneTimePurchase() && purchasedIds.contains(item.getId())) {
+            for (ShopItem item : shopManager.getSortedItemsByCategory(cat.getId())) {
+                if (item.isOneTimePurchase() && data.hasPurchased(item.getId())) {
                     ownedItems.add(item);
                 }
             }
@@ -215,9 +202,6 @@ public class ShopPage extends InteractiveCustomUIPage<ShopPage.PageEventData> im
                 continue;
             }
 
-            ownedItems.sort(Comparator.comparingInt(ShopItem::getSort)
-                .thenComparing(ShopItem::getDisplayName));
-
             // Append category header
             cmd.append("#CardGrid", "Pages/AdminShopCategoryHeader.ui");
             String headerRow = "#CardGrid[" + gridChildIndex + "]";
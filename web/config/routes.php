@@ -17,6 +17,7 @@ use App\Controller\TransferController;
 use App\Middleware\ApiKeyMiddleware;
 use App\Middleware\RateLimitMiddleware;
 use App\Middleware\CorsMiddleware;
+use App\Middleware\GzipMiddleware;
 use App\Middleware\AdminAuthMiddleware;
 use App\Middleware\AdminRoleMiddleware;
 use App\Middleware\PlayerAuthMiddleware;
@@ -56,7 +57,7 @@ return function (App $app) {
         $group->get('/seasons/{slug}', [SeasonApiController::class, 'detail']);
         $group->get('/seasons/{slug}/leaderboard', [SeasonApiController::class, 'leaderboard']);
         $group->get('/player/{identifier}/seasons', [SeasonApiController::class, 'playerHistory']);
-    })->add(new RateLimitMiddleware())->add(new CorsMiddleware());
+    })->add(new RateLimitMiddleware())->add(new CorsMiddleware())->add(new GzipMiddleware());
 
     // Plugin API (API key protected)
     $app->group('/api', function (RouteCollectorProxy $group) {
@@ -65,7 +66,8 @@ return function (App $app) {
         $group->post('/player/sync', [ApiController::class, 'playerSync']);
         $group->post('/link/generate', [LinkController::class, 'generateCode']);
         $group->post('/bug/submit', [ApiController::class, 'submitBugReport']);
-    })->add(new ApiKeyMiddleware())->add(new CorsMiddleware());
+        $group->post('/batch', [ApiController::class, 'batch']);
+    })->add(new ApiKeyMiddleware())->add(new CorsMiddleware())->add(new GzipMiddleware());
 
     // Player auth pages
     $app->get('/register', [LinkController::class, 'registerPage']);
@@ -63,6 +63,7 @@ CREATE TABLE IF NOT EXISTS `players` (
 -- Matches
 CREATE TABLE IF NOT EXISTS `matches` (
     `id` BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    `match_uuid` CHAR(36) DEFAULT NULL,
     `arena_id` VARCHAR(64) NOT NULL,
     `game_mode` VARCHAR(64) NOT NULL,
     `winner_uuid` CHAR(36) DEFAULT NULL,
@@ -70,6 +71,7 @@ CREATE TABLE IF NOT EXISTS `matches` (
     `started_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     `ended_at` TIMESTAMP NULL DEFAULT NULL,
     PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_match_uuid` (`match_uuid`),
     INDEX `idx_arena` (`arena_id`),
     INDEX `idx_game_mode` (`game_mode`),
     INDEX `idx_started_at` (`started_at` DESC),
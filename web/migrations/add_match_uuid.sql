@@ -0,0 +1,3 @@
+-- Plugin match UUID, used as the idempotency key for retried submissions
+ALTER TABLE matches ADD COLUMN match_uuid CHAR(36) DEFAULT NULL AFTER id;
+ALTER TABLE matches ADD UNIQUE KEY uk_match_uuid (match_uuid);
@@ -12,6 +12,7 @@ use App\Service\MatchSubmissionService;
 use App\Service\SyncService;
 use Psr\Http\Message\ResponseInterface as Response;
 use Psr\Http\Message\ServerRequestInterface as Request;
+use Slim\Psr7\Response as SlimResponse;
 
 class ApiController
 {
@@ -43,6 +44,11 @@ class ApiController
             $data = json_decode((string) $request->getBody(), true);
         }
 
+        // Idempotency key (plugin match UUID) may come as a header instead of in the body
+        if (empty($data['match_id']) && $request->getHeaderLine('Idempotency-Key') !== '') {
+            $data['match_id'] = $request->getHeaderLine('Idempotency-Key');
+        }
+
         if (empty($data['arena_id']) || empty($data['game_mode']) || empty($data['participants'])) {
             return $this->error($response, 'Missing required fields: arena_id, game_mode, participants', 'VALIDATION_ERROR');
         }
@@ -306,6 +312,59 @@ class ApiController
         }
     }
 
+    /**
+     * Runs several plugin API calls from one request, in order.
+     * Body: {"requests": [{"path": "/api/match/submit", "body": {...}, "idempotency_key": "..."}], "stop_on_error": false}
+     * With stop_on_error, items after the first failure are not run and report status 424.
+     */
+    public function batch(Request $request, Response $response): Response
+    {
+        $data = $request->getParsedBody();
+        if (!$data) {
+            $data = json_decode((string) $request->getBody(), true);
+        }
+
+        if (empty($data['requests']) || !is_array($data['requests'])) {
+            return $this->error($response, 'Missing required field: requests (array)', 'VALIDATION_ERROR');
+        }
+
+        $handlers = [
+            '/api/match/submit' => 'submitMatch',
+            '/api/sync' => 'sync',
+            '/api/player/sync' => 'playerSync',
+        ];
+        $stopOnError = (bool) ($data['stop_on_error'] ?? false);
+        $failed = false;
+        $results = [];
+
+        foreach ($data['requests'] as $item) {
+            $path = $item['path'] ?? '';
+            if ($failed && $stopOnError) {
+                $results[] = ['status' => 424, 'body' => ['success' => false, 'error' => ['message' => 'Not attempted', 'code' => 'NOT_ATTEMPTED']]];
+                continue;
+            }
+            if (!isset($handlers[$path]) || !is_array($item['body'] ?? null)) {
+                $results[] = ['status' => 400, 'body' => ['success' => false, 'error' => ['message' => 'Unsupported batch item: ' . $path, 'code' => 'VALIDATION_ERROR']]];
+                $failed = true;
+                continue;
+            }
+
+            $subRequest = $request->withParsedBody($item['body']);
+            if (!empty($item['idempotency_key'])) {
+                $subRequest = $subRequest->withHeader('Idempotency-Key', $item['idempotency_key']);
+            }
+            $subResponse = $this->{$handlers[$path]}($subRequest, new SlimResponse());
+
+            $status = $subResponse->getStatusCode();
+            $results[] = ['status' => $status, 'body' => json_decode((string) $subResponse->getBody(), true)];
+            if ($status >= 300) {
+                $failed = true;
+            }
+        }
+
+        return $this->success($response, ['results' => $results]);
+    }
+
     public function playerSync(Request $request, Response $response): Response
     {
         $data = $request->getParsedBody();
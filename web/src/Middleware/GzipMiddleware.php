@@ -0,0 +1,62 @@
+<?php
+
+namespace App\Middleware;
+
+use Psr\Http\Message\ResponseInterface as Response;
+use Psr\Http\Message\ServerRequestInterface as Request;
+use Psr\Http\Server\MiddlewareInterface;
+use Psr\Http\Server\RequestHandlerInterface as Handler;
+use Slim\Psr7\Factory\StreamFactory;
+use Slim\Psr7\Response as SlimResponse;
+
+/**
+ * Accepts gzip-compressed request bodies from the plugin and gzips larger responses
+ * for clients that accept it.
+ */
+class GzipMiddleware implements MiddlewareInterface
+{
+    private const MIN_COMPRESS_BYTES = 1024;
+
+    public function process(Request $request, Handler $handler): Response
+    {
+        $streams = new StreamFactory();
+
+        if (strcasecmp($request->getHeaderLine('Content-Encoding'), 'gzip') === 0) {
+            $decoded = @gzdecode((string) $request->getBody());
+            if ($decoded === false) {
+                $response = new SlimResponse();
+                $response->getBody()->write(json_encode([
+                    'success' => false,
+                    'error' => ['message' => 'Invalid gzip body', 'code' => 'BAD_ENCODING'],
+                ]));
+                return $response
+                    ->withHeader('Content-Type', 'application/json')
+                    ->withStatus(400);
+            }
+            $request = $request
+                ->withBody($streams->createStream($decoded))
+                ->withoutHeader('Content-Encoding');
+            $parsed = json_decode($decoded, true);
+            if (is_array($parsed)) {
+                $request = $request->withParsedBody($parsed);
+            }
+        }
+
+        $response = $handler->handle($request);
+
+        if (stripos($request->getHeaderLine('Accept-Encoding'), 'gzip') === false
+            || $response->hasHeader('Content-Encoding')) {
+            return $response;
+        }
+        $body = (string) $response->getBody();
+        if (strlen($body) < self::MIN_COMPRESS_BYTES) {
+            return $response;
+        }
+
+        return $response
+            ->withBody($streams->createStream(gzencode($body)))
+            ->withHeader('Content-Encoding', 'gzip')
+            ->withAddedHeader('Vary', 'Accept-Encoding')
+            ->withoutHeader('Content-Length');
+    }
+}
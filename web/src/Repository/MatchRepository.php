@@ -7,14 +7,15 @@ use PDO;
 
 class MatchRepository
 {
-    public function create(string $arenaId, string $gameMode, ?string $winnerUuid, int $durationSeconds): int
+    public function create(string $arenaId, string $gameMode, ?string $winnerUuid, int $durationSeconds, ?string $matchUuid = null): int
     {
         $db = Database::getConnection();
         $stmt = $db->prepare('
-            INSERT INTO matches (arena_id, game_mode, winner_uuid, duration_seconds, ended_at)
-            VALUES (:arena_id, :game_mode, :winner_uuid, :duration, NOW())
+            INSERT INTO matches (match_uuid, arena_id, game_mode, winner_uuid, duration_seconds, ended_at)
+            VALUES (:match_uuid, :arena_id, :game_mode, :winner_uuid, :duration, NOW())
         ');
         $stmt->execute([
+            'match_uuid' => $matchUuid,
             'arena_id' => $arenaId,
             'game_mode' => $gameMode,
             'winner_uuid' => $winnerUuid,
@@ -23,6 +24,15 @@ class MatchRepository
         return (int) $db->lastInsertId();
     }
 
+    public function findIdByMatchUuid(string $matchUuid): ?int
+    {
+        $db = Database::getConnection();
+        $stmt = $db->prepare('SELECT id FROM matches WHERE match_uuid = :match_uuid');
+        $stmt->execute(['match_uuid' => $matchUuid]);
+        $id = $stmt->fetchColumn();
+        return $id !== false ? (int) $id : null;
+    }
+
     public function getTotalCount(): int
     {
         $db = Database::getConnection();
@@ -31,6 +31,15 @@ class MatchSubmissionService
 
     public function submit(array $data): array
     {
+        // Retried submission (plugin outbox) — the match is already recorded
+        $matchUuid = $data['match_id'] ?? null;
+        if ($matchUuid !== null) {
+            $existingId = $this->matchRepo->findIdByMatchUuid($matchUuid);
+            if ($existingId !== null) {
+                return ['match_id' => $existingId, 'duplicate' => true];
+            }
+        }
+
         $db = Database::getConnection();
         $db->beginTransaction();
 
@@ -47,7 +56,8 @@ class MatchSubmissionService
                 $data['arena_id'],
                 $data['game_mode'],
                 $data['winner_uuid'] ?? null,
-                $data['duration_seconds'] ?? 0
+                $data['duration_seconds'] ?? 0,
+                $matchUuid
             );
 
             // Insert participants and update stats